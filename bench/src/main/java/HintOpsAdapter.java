@@ -0,0 +1,62 @@
+import sudoku.bench.HintOps;
+
+import java.util.List;
+
+/**
+ * This gives the benchmarks in sudoku.bench access to the default package hint engine
+ */
+public class HintOpsAdapter implements HintOps {
+    private final List<PackedBoard> puzzles;
+    private final PackedBoard board = new PackedBoard();
+    private final HintEngine engine = new HintEngine(board);
+    private int game;
+
+    /**
+     * generates the puzzles to play and starts on the first
+     * @param games how many puzzles
+     * @param seed seed of the generator, the same seed gives the same puzzles
+     */
+    public HintOpsAdapter(int games, long seed) {
+        this.puzzles = new PuzzleGenerator(1, seed).generate(games);
+        board.copyFrom(puzzles.get(0));
+        engine.reset();
+    }
+
+    @Override
+    public boolean hint() {
+        Hint hint = engine.next();
+        if (hint == null){
+            game = (game + 1) % puzzles.size();
+            board.copyFrom(puzzles.get(game));
+            engine.reset();
+            return false;
+        }
+        if (hint.isPlacement()){
+            int move = hint.getMove();
+            board.set(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean stuck(int[][] puzzle) {
+        board.copyFrom(PackedBoard.of(puzzle));
+        engine.reset();
+        for (int i = 0; i < 81 * 81; i++){
+            Hint hint = engine.next();
+            if (hint == null){
+                return board.emptyCount() > 0;
+            }
+            if (hint.isPlacement()){
+                int move = hint.getMove();
+                board.set(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean ladder() {
+        return engine.next() != null;
+    }
+}
@@ -0,0 +1,45 @@
+import sudoku.bench.ModelOps;
+
+/**
+ * This gives the benchmarks in sudoku.bench access to the default package model
+ */
+public class ModelOpsAdapter implements ModelOps {
+    private final IModel model;
+
+    /**
+     * builds a fresh model with the named solver engine
+     * @param solver bitmask, dancingLinks, propagation, parallel or backtracking
+     */
+    public ModelOpsAdapter(String solver) {
+        ISolver engine;
+        switch (solver) {
+            case "bitmask" -> engine = new BitmaskSolver();
+            case "dancingLinks" -> engine = new DancingLinksSolver();
+            case "propagation" -> engine = new PropagationSolver();
+            case "parallel" -> engine = new ParallelSolver();
+            case "backtracking" -> engine = new BacktrackingSolver();
+            default -> throw new IllegalArgumentException("unknown solver " + solver);
+        }
+        this.model = new sudokuModel(engine);
+    }
+
+    @Override
+    public boolean solveBoard(int[][] board) {
+        return model.solveBoard(board);
+    }
+
+    @Override
+    public int[][] copyBoard() {
+        return model.copyBoard();
+    }
+
+    @Override
+    public boolean isValidPlacement(int[][] board, int number, int row, int col) {
+        return model.isValidPlacement(board, number, row, col);
+    }
+
+    @Override
+    public boolean winningBoard(int[][] board) {
+        return model.winningBoard(board);
+    }
+}
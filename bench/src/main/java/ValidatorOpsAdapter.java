@@ -0,0 +1,26 @@
+import sudoku.bench.ValidatorOps;
+
+/**
+ * This gives the benchmarks in sudoku.bench access to the default package validator
+ */
+public class ValidatorOpsAdapter implements ValidatorOps {
+    private final GridValidator validator;
+
+    /**
+     * builds a fresh validator
+     * @param vectorized false for the scalar path, true for SIMD when the JVM supports it
+     */
+    public ValidatorOpsAdapter(boolean vectorized) {
+        this.validator = new GridValidator(vectorized);
+    }
+
+    @Override
+    public int validateAll(byte[] grids, int count, int[] verdicts) {
+        return validator.validateAll(grids, count, verdicts);
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return validator.isVectorized();
+    }
+}
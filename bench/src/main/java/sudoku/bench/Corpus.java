@@ -0,0 +1,69 @@
+package sudoku.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The curated puzzle sets under {@code corpus/} on the classpath, one 81-character puzzle per
+ * line with {@code .} or {@code 0} for an empty cell.
+ *
+ * <ul>
+ *   <li>easy - the demo board and other puzzles that fall to singles</li>
+ *   <li>hard - puzzles that need real search (Inkala 2012, AI Escargot, ...)</li>
+ *   <li>pathological - built against row-major brute force, the baseline solver takes seconds</li>
+ * </ul>
+ */
+final class Corpus {
+    private Corpus() {
+    }
+
+    /**
+     * loads a puzzle set.
+     *
+     * @param name easy, hard or pathological
+     * @return the boards, 0 for an empty cell
+     */
+    static int[][][] load(String name) {
+        String resource = "/corpus/" + name + ".txt";
+        try (InputStream in = Corpus.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("no corpus " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+            List<int[][]> boards = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    boards.add(parse(line));
+                }
+            }
+            return boards.toArray(new int[0][][]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * copies a board into a scratch board of the same shape.
+     */
+    static void copy(int[][] from, int[][] to) {
+        for (int row = 0; row < from.length; row++) {
+            System.arraycopy(from[row], 0, to[row], 0, from[row].length);
+        }
+    }
+
+    private static int[][] parse(String line) {
+        int[][] board = new int[9][9];
+        for (int i = 0; i < 81; i++) {
+            char c = line.charAt(i);
+            board[i / 9][i % 9] = c == '.' ? 0 : c - '0';
+        }
+        return board;
+    }
+}
@@ -0,0 +1,58 @@
+package sudoku.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code HintEngine.next} as the game uses it, in microseconds per call.
+ *
+ * {@link #hint()} plays {@link #GAMES} generated puzzles hint by hint, one hint per call, with
+ * the text of every hint; the call that finds nothing left loads the next puzzle, so the whole
+ * ladder and the recount of a fresh board are in the average too. {@link #ladder()} asks again
+ * and again on a hard puzzle after the engine got stuck on it, which runs every technique and
+ * finds nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HintBenchmark {
+    static final int GAMES = 2000;
+
+    private HintOps game;
+    private HintOps stuck;
+
+    @Setup
+    public void setUp() {
+        game = HintOps.create(GAMES, 42);
+        stuck = HintOps.create(1, 42);
+        for (int[][] puzzle : Corpus.load("hard")) {
+            if (stuck.stuck(puzzle)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("the engine solves every hard puzzle");
+    }
+
+    @Benchmark
+    public boolean hint() {
+        return game.hint();
+    }
+
+    @Benchmark
+    public boolean ladder() {
+        return stuck.ladder();
+    }
+}
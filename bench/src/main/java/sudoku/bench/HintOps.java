@@ -0,0 +1,47 @@
+package sudoku.bench;
+
+/**
+ * The hint engine, as seen by the benchmarks.
+ *
+ * Like {@link ModelOps}, the default-package {@code HintOpsAdapter} implements this
+ * interface and {@link #create(int, long)} loads it once during setup.
+ */
+public interface HintOps {
+    /**
+     * asks for the next hint on the current puzzle and plays it if it places a number;
+     * when no hint applies, loads the next puzzle instead
+     *
+     * @return false if no hint applied and the next puzzle was loaded
+     */
+    boolean hint();
+
+    /**
+     * loads a puzzle and plays hints until none applies
+     *
+     * @return true if the engine got stuck with empty cells left
+     */
+    boolean stuck(int[][] puzzle);
+
+    /**
+     * asks for a hint without playing it
+     *
+     * @return true if a hint applied
+     */
+    boolean ladder();
+
+    /**
+     * loads the adapter around generated puzzles.
+     *
+     * @param games how many puzzles to generate
+     * @param seed  seed of the generator
+     */
+    static HintOps create(int games, long seed) {
+        try {
+            return (HintOps) Class.forName("HintOpsAdapter")
+                    .getConstructor(int.class, long.class)
+                    .newInstance(games, seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot load the hint adapter", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package sudoku.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-move operations of {@code IModel} on the demo board: the rule check the game runs for
+ * every placement, the win check and the board copy the controller takes every turn.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+    private ModelOps model;
+    private int[][] board;
+    private int cell;
+
+    @Setup
+    public void setUp() {
+        model = ModelOps.create("bitmask");
+        board = model.copyBoard();
+        cell = 0;
+    }
+
+    /**
+     * walks every (number, cell) pair so branch prediction cannot learn a single answer.
+     */
+    @Benchmark
+    public boolean isValidPlacement() {
+        int i = cell;
+        cell = i + 1 == 729 ? 0 : i + 1;
+        return model.isValidPlacement(board, i % 9 + 1, i / 81, (i / 9) % 9);
+    }
+
+    @Benchmark
+    public boolean winningBoard() {
+        return model.winningBoard(board);
+    }
+
+    @Benchmark
+    public int[][] copyBoard() {
+        return model.copyBoard();
+    }
+}
@@ -0,0 +1,47 @@
+package sudoku.bench;
+
+/**
+ * The hot operations of the game model, as seen by the benchmarks.
+ *
+ * The game classes live in the default package, which a JMH benchmark (always in a named
+ * package) cannot import. The default-package {@code ModelOpsAdapter} implements this
+ * interface, and {@link #create(String)} loads it once during setup, so a measured call
+ * is a plain interface call into the model.
+ */
+public interface ModelOps {
+    /**
+     * solves the board in place with the solver of the model
+     */
+    boolean solveBoard(int[][] board);
+
+    /**
+     * the board of the model
+     */
+    int[][] copyBoard();
+
+    /**
+     * rule check for one placement
+     */
+    boolean isValidPlacement(int[][] board, int number, int row, int col);
+
+    /**
+     * win check of the model
+     */
+    boolean winningBoard(int[][] board);
+
+    /**
+     * loads the adapter around a fresh model.
+     *
+     * @param solver the solver engine of the model: bitmask, dancingLinks, propagation,
+     *               parallel or backtracking
+     */
+    static ModelOps create(String solver) {
+        try {
+            return (ModelOps) Class.forName("ModelOpsAdapter")
+                    .getConstructor(String.class)
+                    .newInstance(solver);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot load the model adapter", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package sudoku.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code IModel.solveBoard} for every solver engine over every puzzle set.
+ *
+ * Each operation copies the next puzzle of the set into a scratch board and solves it, so the
+ * score is puzzles per second including an 81-int copy. {@code backtracking} is the original
+ * recursive solver and serves as the baseline; on the pathological set a single operation takes
+ * seconds, narrow the run with {@code -p solver=...} when that is not wanted.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"easy", "hard", "pathological"})
+    public String corpus;
+
+    @Param({"bitmask", "dancingLinks", "propagation", "parallel", "backtracking"})
+    public String solver;
+
+    private int[][][] puzzles;
+    private final int[][] scratch = new int[9][9];
+    private ModelOps model;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        puzzles = Corpus.load(corpus);
+        model = ModelOps.create(solver);
+        next = 0;
+    }
+
+    @Benchmark
+    public boolean solveBoard() {
+        Corpus.copy(puzzles[next], scratch);
+        next = next + 1 == puzzles.length ? 0 : next + 1;
+        return model.solveBoard(scratch);
+    }
+}
@@ -0,0 +1,71 @@
+package sudoku.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GridValidator.validateAll} over a batch of solved grids, scalar and SIMD.
+ *
+ * The batch is the solutions of the easy set repeated to {@link #BATCH} grids, with every
+ * eighth grid broken in one cell so the failure path is measured too. The score is grids per
+ * second. The fork adds the vector module; without it the vector run falls back to scalar,
+ * which setup reports as an error instead of measuring the wrong thing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ValidateBenchmark {
+    static final int BATCH = 1 << 16;
+
+    @Param({"scalar", "vector"})
+    public String path;
+
+    private ValidatorOps validator;
+    private byte[] grids;
+    private int[] verdicts;
+
+    @Setup
+    public void setUp() {
+        validator = ValidatorOps.create(path.equals("vector"));
+        if (path.equals("vector") && !validator.isVectorized()) {
+            throw new IllegalStateException("this JVM has no vector support");
+        }
+        int[][][] puzzles = Corpus.load("easy");
+        ModelOps model = ModelOps.create("bitmask");
+        for (int[][] puzzle : puzzles) {
+            model.solveBoard(puzzle);
+        }
+        grids = new byte[BATCH * 81];
+        verdicts = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            int[][] solution = puzzles[i % puzzles.length];
+            for (int cell = 0; cell < 81; cell++) {
+                grids[i * 81 + cell] = (byte) solution[cell / 9][cell % 9];
+            }
+            if (i % 8 == 7) {
+                grids[i * 81 + i % 81] = 0;
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int validateAll() {
+        return validator.validateAll(grids, BATCH, verdicts);
+    }
+}
@@ -0,0 +1,36 @@
+package sudoku.bench;
+
+/**
+ * The bulk grid check of {@code GridValidator}, as seen by the benchmarks.
+ *
+ * Like {@link ModelOps}, the default-package {@code ValidatorOpsAdapter} implements this
+ * interface and {@link #create(boolean)} loads it once during setup.
+ */
+public interface ValidatorOps {
+    /**
+     * checks grids packed back to back, 81 bytes each
+     *
+     * @return the number of valid grids
+     */
+    int validateAll(byte[] grids, int count, int[] verdicts);
+
+    /**
+     * whether the validator checks with SIMD first
+     */
+    boolean isVectorized();
+
+    /**
+     * loads the adapter around a fresh validator.
+     *
+     * @param vectorized false for the scalar path, true for SIMD when the JVM supports it
+     */
+    static ValidatorOps create(boolean vectorized) {
+        try {
+            return (ValidatorOps) Class.forName("ValidatorOpsAdapter")
+                    .getConstructor(boolean.class)
+                    .newInstance(vectorized);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("cannot load the validator adapter", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * This is the original recursive backtracking solver of the sudoku model
+ * it rescans the row, col and box for every number it tries
+ */
+public class BacktrackingSolver implements ISolver{
+
+    /**
+     * solves the board by trying 1 - 9 in the first empty cell and recursing
+     *
+     * citation courtesy of:
+     * (adapted from various tutorials as the following)
+     * https://www.baeldung.com/java-sudoku
+     * https://www.geeksforgeeks.org/backtracking-algorithms/.
+     * https://leetcode.com/problems/sudoku-solver/solution/
+     * https://www.youtube.com/watch?v=tvP_FZ-D9Ng&t=23s
+     * https://www.youtube.com/watch?v=G_UYXzGuqvM
+     * https://www.youtube.com/watch?v=eAFcj_2quWI&t=254s
+     * https://www.youtube.com/watch?v=mcXc8Mva2bA&t=732s
+     * https://www.youtube.com/watch?v=eqUwSA0xI-s
+     * https://www.youtube.com/watch?v=lK4N8E6uNr4
+     * https://www.youtube.com/watch?v=JzONv5kaPJM
+     *
+     * @param board the current board
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (board.length != 9){
+            return false;
+        }
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                if (board[row][col] == 0){
+                    // start trying all the numbers 1 - 9 to see if it's valid
+                    for (int numberToTry = 1; numberToTry <= 9; numberToTry++) {
+                        // check if the number to try is valid
+                        if (isValidPlacement(board, numberToTry, row, col)) {
+                            board[row][col] = numberToTry;
+                            if (solve(board)) {
+                                // recursively trying to solve
+                                return true;
+                            } else {
+                                // we cannot solve the rest of the board with
+                                // the current number we are trying to plug in
+                                // thus, we clear out and resets that cell,
+                                // and it tries again from the for loop
+                                // where it's going to try another number
+                                board[row][col] = 0;
+                            }
+                        }
+                    }
+                    return false; // unable to solve the board
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * solves the packed board with the same recursion
+     * this solver is the baseline, so it works on an unpacked copy rather than growing a second search
+     *
+     * @param board the board to solve
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        int[][] unpacked = board.toArray();
+        if (!solve(unpacked)){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board.set(i, unpacked[i / 9][i % 9]);
+        }
+        return true;
+    }
+
+    /**
+     * check if the number can be placed without repeating in the row, col and box
+     * @param board current board
+     * @param number number to place
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return true if it's valid
+     */
+    private boolean isValidPlacement(int[][] board, int number, int row, int col) {
+        int localBoxRow = row - row % 3;
+        int localBoxCol = col - col % 3;
+        for (int i = 0; i < 9; i++){
+            if (board[row][i] == number || board[i][col] == number){
+                return false;
+            }
+            if (board[localBoxRow + i / 3][localBoxCol + i % 3] == number){
+                return false;
+            }
+        }
+        return true;
+    }
+}
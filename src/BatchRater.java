@@ -0,0 +1,136 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This rates a file of puzzles in the one line format (see PuzzleFormat) across several threads,
+ * the way BatchSolver solves one: every chunk of the memory mapped file is one task with a rater
+ * of its own (see DifficultyRater), at most two chunks per worker are in flight, and the lines are
+ * written in input order
+ *
+ * every line is written back with its rating after a comma, e.g. "3..7.19.2...,2.6",
+ * a line that is not a puzzle gets ",invalid"; the stats of the workers are merged into one record
+ */
+public class BatchRater {
+    private final int threads;
+
+    /**
+     * constructor for a batch rater that uses every core
+     */
+    public BatchRater(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * constructor for a batch rater
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public BatchRater(int threads){
+        if (threads < 1){
+            throw new IllegalArgumentException("need at least one thread");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * rates every puzzle of a memory mapped file, blank lines are skipped
+     * @param in the mapped puzzle file
+     * @param out receives one line per puzzle, in input order
+     * @return the per technique record and throughput of the run
+     * @throws IOException if writing fails
+     */
+    public RatingStats run(MappedPuzzleReader in, OutputStream out) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        RatingStats total = new RatingStats();
+        long start = System.nanoTime();
+        try {
+            ArrayDeque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            for (MappedPuzzleReader.Chunk chunk : in.chunks()){
+                if (inFlight.size() == threads * 2){
+                    write(inFlight.poll(), total, out);
+                }
+                inFlight.add(workers.submit(() -> rateChunk(chunk)));
+            }
+            while (!inFlight.isEmpty()){
+                write(inFlight.poll(), total, out);
+            }
+            out.flush();
+        } finally {
+            workers.shutdownNow();
+        }
+        total.setElapsedNanos(System.nanoTime() - start);
+        return total;
+    }
+
+    /**
+     * the rated lines of one chunk
+     */
+    private static final class ChunkResult {
+        private final byte[] bytes;
+        private final int length;
+        private final RatingStats stats;
+
+        ChunkResult(byte[] bytes, int length, RatingStats stats) {
+            this.bytes = bytes;
+            this.length = length;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * rates every line of a chunk on the calling worker thread
+     * a puzzle line grows by a comma and its rating, about 5%, so the output starts an eighth larger
+     * than the chunk and only grows for lines that are not puzzles
+     */
+    private static ChunkResult rateChunk(MappedPuzzleReader.Chunk chunk) {
+        DifficultyRater rater = new DifficultyRater();
+        int[] cells = new int[PuzzleFormat.LENGTH];
+        byte[] bytes = new byte[chunk.length() + chunk.length() / 8 + 16];
+        int length = 0;
+        chunk.rewind();
+        int kind;
+        while ((kind = chunk.next(cells)) != MappedPuzzleReader.Chunk.END){
+            double rating;
+            if (kind == MappedPuzzleReader.Chunk.PUZZLE){
+                rating = rater.rate(cells);
+            } else {
+                rater.getStats().recordInvalid();
+                rating = DifficultyRater.INVALID;
+            }
+            byte[] text = DifficultyRater.format(rating).getBytes(StandardCharsets.US_ASCII);
+            int needed = length + chunk.lineLength() + text.length + 2;
+            if (needed > bytes.length){
+                bytes = Arrays.copyOf(bytes, Math.max(needed, 2 * bytes.length));
+            }
+            length = chunk.copyLine(bytes, length);
+            bytes[length++] = ',';
+            System.arraycopy(text, 0, bytes, length, text.length);
+            length += text.length;
+            bytes[length++] = '\n';
+        }
+        return new ChunkResult(bytes, length, rater.getStats());
+    }
+
+    /**
+     * waits for a chunk and writes it
+     */
+    private static void write(Future<ChunkResult> pending, RatingStats total, OutputStream out) throws IOException {
+        try {
+            ChunkResult result = pending.get();
+            out.write(result.bytes, 0, result.length);
+            total.merge(result.stats);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("rating interrupted", e);
+        } catch (ExecutionException e){
+            throw new IOException("rating worker failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This solves a stream of puzzles in the one line format (see PuzzleFormat) across several threads
+ * puzzles are read in chunks, every chunk is split between the workers,
+ * and the solutions are written in input order before the next chunk is read
+ * memory mapped files skip the reader: the workers parse their chunk straight from the mapped bytes
+ *
+ * a puzzle that cannot be parsed or solved is written back as it was read and counted as failed
+ */
+public class BatchSolver {
+    /**
+     * the number of puzzles read before they are handed to the workers
+     */
+    private static final int CHUNK = 1 << 14;
+
+    private final int threads;
+
+    /**
+     * constructor for a batch solver that uses every core
+     */
+    public BatchSolver(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * constructor for a batch solver
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public BatchSolver(int threads){
+        if (threads < 1){
+            throw new IllegalArgumentException("need at least one thread");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * solves every puzzle line of the input, blank lines are skipped
+     * @param in the puzzle lines
+     * @param out receives one line per puzzle, in input order
+     * @return the throughput and latency of the run
+     * @throws IOException if reading or writing fails
+     */
+    public BatchStats run(BufferedReader in, Writer out) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        BatchStats total = new BatchStats();
+        long start = System.nanoTime();
+        try {
+            List<String> lines = new ArrayList<>(CHUNK);
+            String[] results = new String[CHUNK];
+            String line;
+            while ((line = in.readLine()) != null){
+                if (line.isBlank()){
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == CHUNK){
+                    solveChunk(workers, lines, results, total);
+                    write(results, lines.size(), out);
+                    lines.clear();
+                }
+            }
+            solveChunk(workers, lines, results, total);
+            write(results, lines.size(), out);
+            out.flush();
+        } finally {
+            workers.shutdownNow();
+        }
+        total.setElapsedNanos(System.nanoTime() - start);
+        return total;
+    }
+
+    /**
+     * solves every puzzle of a memory mapped file, blank lines are skipped
+     * every chunk of the file is one task, and at most two chunks per worker are in flight
+     * so the output buffers stay bounded however large the file is
+     *
+     * @param in the mapped puzzle file
+     * @param out receives one line per puzzle, in input order
+     * @return the throughput and latency of the run
+     * @throws IOException if writing fails
+     */
+    public BatchStats run(MappedPuzzleReader in, OutputStream out) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        BatchStats total = new BatchStats();
+        long start = System.nanoTime();
+        try {
+            ArrayDeque<Future<ChunkResult>> inFlight = new ArrayDeque<>();
+            for (MappedPuzzleReader.Chunk chunk : in.chunks()){
+                if (inFlight.size() == threads * 2){
+                    write(inFlight.poll(), total, out);
+                }
+                inFlight.add(workers.submit(() -> solveChunk(chunk)));
+            }
+            while (!inFlight.isEmpty()){
+                write(inFlight.poll(), total, out);
+            }
+            out.flush();
+        } finally {
+            workers.shutdownNow();
+        }
+        total.setElapsedNanos(System.nanoTime() - start);
+        return total;
+    }
+
+    /**
+     * the solved lines of one chunk
+     */
+    private static final class ChunkResult {
+        private final byte[] bytes;
+        private final int length;
+        private final BatchStats stats;
+
+        ChunkResult(byte[] bytes, int length, BatchStats stats) {
+            this.bytes = bytes;
+            this.length = length;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * solves every line of a chunk on the calling worker thread
+     * a solved line and the line it came from have the same length plus at most the final line break,
+     * so the output fits in one array of the chunk size
+     */
+    private static ChunkResult solveChunk(MappedPuzzleReader.Chunk chunk) {
+        BitmaskSolver solver = new BitmaskSolver();
+        BatchStats stats = new BatchStats();
+        int[] cells = new int[PuzzleFormat.LENGTH];
+        byte[] bytes = new byte[chunk.length() + 1];
+        int length = 0;
+        chunk.rewind();
+        int kind;
+        while ((kind = chunk.next(cells)) != MappedPuzzleReader.Chunk.END){
+            long begin = System.nanoTime();
+            boolean solved = kind == MappedPuzzleReader.Chunk.PUZZLE && solver.solve(cells, null);
+            stats.record(System.nanoTime() - begin, solved);
+            length = solved ? PuzzleFormat.write(cells, bytes, length) : chunk.copyLine(bytes, length);
+            bytes[length++] = '\n';
+        }
+        return new ChunkResult(bytes, length, stats);
+    }
+
+    /**
+     * waits for a chunk and writes it
+     */
+    private static void write(Future<ChunkResult> pending, BatchStats total, OutputStream out) throws IOException {
+        try {
+            ChunkResult result = pending.get();
+            out.write(result.bytes, 0, result.length);
+            total.merge(result.stats);
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("batch interrupted", e);
+        } catch (ExecutionException e){
+            throw new IOException("batch worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * splits one chunk into a contiguous slice per worker and waits for all of them
+     */
+    private void solveChunk(ExecutorService workers, List<String> lines, String[] results, BatchStats total)
+            throws IOException {
+        if (lines.isEmpty()){
+            return;
+        }
+        int slices = Math.min(threads, lines.size());
+        List<Callable<BatchStats>> tasks = new ArrayList<>(slices);
+        for (int s = 0; s < slices; s++){
+            int from = (int) ((long) lines.size() * s / slices);
+            int to = (int) ((long) lines.size() * (s + 1) / slices);
+            tasks.add(() -> solveSlice(lines, results, from, to));
+        }
+        try {
+            for (Future<BatchStats> done : workers.invokeAll(tasks)){
+                total.merge(done.get());
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IOException("batch interrupted", e);
+        } catch (ExecutionException e){
+            throw new IOException("batch worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * solves lines[from, to) on the calling worker thread
+     * @return the latencies of the slice
+     */
+    private static BatchStats solveSlice(List<String> lines, String[] results, int from, int to) {
+        BitmaskSolver solver = new BitmaskSolver();
+        BatchStats stats = new BatchStats();
+        int[] cells = new int[PuzzleFormat.LENGTH];
+        StringBuilder text = new StringBuilder(PuzzleFormat.LENGTH);
+        for (int i = from; i < to; i++){
+            String line = lines.get(i);
+            long begin = System.nanoTime();
+            boolean solved = PuzzleFormat.parse(line, cells) && solver.solve(cells, null);
+            stats.record(System.nanoTime() - begin, solved);
+            if (solved){
+                text.setLength(0);
+                PuzzleFormat.append(cells, text);
+                results[i] = text.toString();
+            } else {
+                results[i] = line;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * writes the first count results, one per line
+     */
+    private static void write(String[] results, int count, Writer out) throws IOException {
+        for (int i = 0; i < count; i++){
+            out.write(results[i]);
+            out.write('\n');
+            results[i] = null;
+        }
+    }
+}
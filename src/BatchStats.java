@@ -0,0 +1,127 @@
+import java.io.PrintStream;
+
+/**
+ * This is the throughput and latency record of a batch run
+ * latencies go into a log-linear histogram (32 buckets per power of two, about 3% error),
+ * so memory stays fixed no matter how many puzzles are recorded
+ *
+ * an instance is not thread safe, every worker records into its own and they are merged at the end
+ */
+public class BatchStats {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final long[] histogram = new long[(64 - SUB_BITS + 1) * SUB_COUNT];
+    private long puzzles;
+    private long solved;
+    private long elapsedNanos;
+
+    /**
+     * records one puzzle
+     * @param nanos how long the puzzle took
+     * @param wasSolved true if the puzzle was solved
+     */
+    public void record(long nanos, boolean wasSolved) {
+        histogram[bucket(Math.max(0, nanos))]++;
+        puzzles++;
+        if (wasSolved){
+            solved++;
+        }
+    }
+
+    /**
+     * adds everything another record holds to this one
+     * @param other the record to add
+     */
+    public void merge(BatchStats other) {
+        for (int i = 0; i < histogram.length; i++){
+            histogram[i] += other.histogram[i];
+        }
+        puzzles += other.puzzles;
+        solved += other.solved;
+    }
+
+    /**
+     * sets the wall clock time of the whole run
+     * @param elapsedNanos the time of the run
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of puzzles recorded
+     */
+    public long getPuzzles() {
+        return puzzles;
+    }
+
+    /**
+     * @return the number of puzzles that were solved
+     */
+    public long getSolved() {
+        return solved;
+    }
+
+    /**
+     * @return puzzles per second of wall clock time, 0 before the elapsed time is set
+     */
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : puzzles * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * the latency below which the given fraction of the puzzles finished
+     * @param fraction between 0 and 1, e.g. 0.99 for p99
+     * @return the latency in nanoseconds, rounded down to its bucket
+     */
+    public long percentileNanos(double fraction) {
+        if (puzzles == 0){
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * puzzles));
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++){
+            seen += histogram[i];
+            if (seen >= rank){
+                return lowerBound(i);
+            }
+        }
+        return lowerBound(histogram.length - 1);
+    }
+
+    /**
+     * prints the summary of the run
+     * @param out where to print
+     */
+    public void print(PrintStream out) {
+        out.printf("puzzles: %d, solved: %d, failed: %d%n", puzzles, solved, puzzles - solved);
+        out.printf("elapsed: %.3f s, throughput: %.0f puzzles/s%n", elapsedNanos / 1e9, getPuzzlesPerSecond());
+        out.printf("latency p50: %.1f us, p99: %.1f us%n",
+                percentileNanos(0.50) / 1e3, percentileNanos(0.99) / 1e3);
+    }
+
+    /**
+     * the histogram bucket of a value
+     */
+    private static int bucket(long value) {
+        if (value < SUB_COUNT){
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * the smallest value of a histogram bucket
+     */
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT){
+            return bucket;
+        }
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        int sub = bucket % SUB_COUNT;
+        return ((long) (SUB_COUNT + sub)) << (exponent - SUB_BITS);
+    }
+}
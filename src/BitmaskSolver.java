@@ -0,0 +1,299 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This is a solver that keeps a 9-bit occupancy mask for every row, col and box
+ * bit (number - 1) is set when the number is already used in that unit,
+ * so the candidates of a cell are one OR and one NOT away instead of rescanning 27 cells
+ *
+ * an instance keeps its scratch arrays between calls, so it is not safe to share between threads
+ */
+public class BitmaskSolver implements ISolver{
+    /**
+     * all nine numbers as a mask
+     */
+    static final int ALL = 0x1FF;
+
+    /**
+     * the row, col and box of every cell index (row * 9 + col)
+     */
+    static final int[] ROW_OF = new int[81];
+    static final int[] COL_OF = new int[81];
+    static final int[] BOX_OF = new int[81];
+
+    static {
+        for (int i = 0; i < 81; i++){
+            ROW_OF[i] = i / 9;
+            COL_OF[i] = i % 9;
+            BOX_OF[i] = (i / 27) * 3 + (i % 9) / 3;
+        }
+    }
+
+    /**
+     * scratch state of the current search
+     */
+    private final int[] cells = new int[81];
+    private final int[] rows = new int[9];
+    private final int[] cols = new int[9];
+    private final int[] boxes = new int[9];
+    private final int[] empty = new int[81];
+    private int emptyCount;
+    private AtomicBoolean cancelled;
+    private int limit;
+    private int found;
+
+    /**
+     * solves the board by always branching on the empty cell with the fewest candidates
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (board.length != 9){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            cells[i] = board[ROW_OF[i]][COL_OF[i]];
+        }
+        cancelled = null;
+        if (!load() || !search(0)){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board[ROW_OF[i]][COL_OF[i]] = cells[i];
+        }
+        return true;
+    }
+
+    /**
+     * solves the packed board by always branching on the empty cell with the fewest candidates
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        if (board.side() != 9){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            cells[i] = board.get(i);
+        }
+        cancelled = null;
+        if (!load() || !search(0)){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board.set(i, cells[i]);
+        }
+        return true;
+    }
+
+    /**
+     * solves a board given as 81 cells in row order, for callers that already hold a flat board
+     * the search gives up as soon as cancelled is set, e.g. because another thread found the solution
+     *
+     * @param flat the cells to solve in place, 0 represents an empty cell
+     * @param cancelled flag that stops the search, may be null
+     * @return true if the cells were solved, false if there is no solution or the search was cancelled
+     */
+    boolean solve(int[] flat, AtomicBoolean cancelled) {
+        System.arraycopy(flat, 0, cells, 0, 81);
+        this.cancelled = cancelled;
+        boolean solved = load() && search(0);
+        this.cancelled = null;
+        if (solved){
+            System.arraycopy(cells, 0, flat, 0, 81);
+        }
+        return solved;
+    }
+
+    /**
+     * counts the solutions of the board, stopping as soon as the limit is reached
+     * the board is not changed and nothing is allocated
+     *
+     * @param board the board to count, 0 represents an empty cell
+     * @param limit the most solutions to look for, 2 is enough to tell if a puzzle is unique
+     * @return the number of solutions found, at most limit
+     */
+    public int countSolutions(PackedBoard board, int limit) {
+        if (board.side() != 9){
+            return 0;
+        }
+        for (int i = 0; i < 81; i++){
+            cells[i] = board.get(i);
+        }
+        return countLoaded(limit);
+    }
+
+    /**
+     * counts the solutions of the board, stopping as soon as the limit is reached
+     * the board is not changed and nothing is allocated
+     *
+     * @param board the board to count, 0 represents an empty cell
+     * @param limit the most solutions to look for, 2 is enough to tell if a puzzle is unique
+     * @return the number of solutions found, at most limit
+     */
+    public int countSolutions(int[][] board, int limit) {
+        if (board.length != 9){
+            return 0;
+        }
+        for (int i = 0; i < 81; i++){
+            cells[i] = board[ROW_OF[i]][COL_OF[i]];
+        }
+        return countLoaded(limit);
+    }
+
+    /**
+     * counts the solutions of the scratch cells
+     */
+    private int countLoaded(int limit) {
+        cancelled = null;
+        this.limit = limit;
+        this.found = 0;
+        if (limit > 0 && load()){
+            count(0);
+        }
+        return found;
+    }
+
+    /**
+     * the same search as solve, but it goes on after a solution until the limit is reached
+     * @param depth how many empty cells are already filled
+     */
+    private void count(int depth) {
+        if (depth == emptyCount){
+            found++;
+            return;
+        }
+        int best = depth;
+        int bestCandidates = 10;
+        for (int k = depth; k < emptyCount; k++){
+            int count = Integer.bitCount(candidates(empty[k]));
+            if (count < bestCandidates){
+                best = k;
+                bestCandidates = count;
+                if (count <= 1){
+                    break;
+                }
+            }
+        }
+        if (bestCandidates == 0){
+            return;
+        }
+        int cell = empty[best];
+        empty[best] = empty[depth];
+        empty[depth] = cell;
+
+        int options = candidates(cell);
+        while (options != 0 && found < limit){
+            int bit = Integer.lowestOneBit(options);
+            options ^= bit;
+            set(cell, bit);
+            count(depth + 1);
+            clear(cell, bit);
+        }
+    }
+
+    /**
+     * builds the masks and the list of empty cells from the scratch cells
+     * @return false if the givens already break a rule
+     */
+    private boolean load() {
+        Arrays.fill(rows, 0);
+        Arrays.fill(cols, 0);
+        Arrays.fill(boxes, 0);
+        emptyCount = 0;
+        for (int i = 0; i < 81; i++){
+            int number = cells[i];
+            if (number == 0){
+                empty[emptyCount++] = i;
+                continue;
+            }
+            if (number < 0 || number > 9){
+                return false;
+            }
+            int bit = 1 << (number - 1);
+            if (((rows[ROW_OF[i]] | cols[COL_OF[i]] | boxes[BOX_OF[i]]) & bit) != 0){
+                return false;
+            }
+            set(i, bit);
+        }
+        return true;
+    }
+
+    /**
+     * fills the empty cells from position depth onwards
+     * @param depth how many empty cells are already filled
+     * @return true if every empty cell could be filled
+     */
+    private boolean search(int depth) {
+        if (depth == emptyCount){
+            return true;
+        }
+        if (cancelled != null && cancelled.get()){
+            return false;
+        }
+        // pick the empty cell with the fewest candidates and swap it to the front
+        int best = depth;
+        int bestCandidates = 10;
+        for (int k = depth; k < emptyCount; k++){
+            int count = Integer.bitCount(candidates(empty[k]));
+            if (count < bestCandidates){
+                best = k;
+                bestCandidates = count;
+                if (count <= 1){
+                    break;
+                }
+            }
+        }
+        if (bestCandidates == 0){
+            return false;
+        }
+        int cell = empty[best];
+        empty[best] = empty[depth];
+        empty[depth] = cell;
+
+        int options = candidates(cell);
+        while (options != 0){
+            int bit = Integer.lowestOneBit(options);
+            options ^= bit;
+            set(cell, bit);
+            cells[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+            if (search(depth + 1)){
+                return true;
+            }
+            clear(cell, bit);
+            cells[cell] = 0;
+        }
+        return false;
+    }
+
+    /**
+     * the numbers still allowed in a cell
+     * @param cell the cell index
+     * @return the mask of allowed numbers
+     */
+    private int candidates(int cell) {
+        return ~(rows[ROW_OF[cell]] | cols[COL_OF[cell]] | boxes[BOX_OF[cell]]) & ALL;
+    }
+
+    /**
+     * marks the number as used in the units of the cell
+     */
+    private void set(int cell, int bit) {
+        rows[ROW_OF[cell]] |= bit;
+        cols[COL_OF[cell]] |= bit;
+        boxes[BOX_OF[cell]] |= bit;
+    }
+
+    /**
+     * marks the number as free again in the units of the cell
+     */
+    private void clear(int cell, int bit) {
+        rows[ROW_OF[cell]] &= ~bit;
+        cols[COL_OF[cell]] &= ~bit;
+        boxes[BOX_OF[cell]] &= ~bit;
+    }
+}
@@ -0,0 +1,339 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This formats a board for a terminal into one reusable byte buffer, so a frame is a single write
+ * the layout of a frame (box lines, " | " between boxes, the columns of every cell) only depends on
+ * the size of the board, it is built once per size and a frame only fills in the numbers
+ *
+ * in ANSI mode the first frame clears the screen, draws the board at the top and keeps it there
+ * by scrolling only the lines below it; every later frame moves the cursor to the cells that
+ * changed since the frame before and rewrites just those, a frame without changes writes nothing;
+ * a board read through a view (see IBoardView) is not even compared when its version did not change
+ *
+ * an instance keeps the last frame and its buffers between calls, so it is not safe to share between threads
+ */
+final class BoardRenderer {
+    private static final byte ESC = 27;
+
+    private final boolean ansi;
+
+    /**
+     * the layout for the current size, see layout
+     */
+    private int side;
+    private int width;
+    private int lines;
+    private byte[] frame;
+    private int[] offsets;
+    private int[] lineOf;
+    private int[] columnOf;
+
+    /**
+     * the numbers on the terminal, null until the first ANSI frame,
+     * and the view and its version they were read from
+     */
+    private int[] shown;
+    private IBoardView shownView;
+    private long shownVersion;
+
+    /**
+     * the view of a board that comes as an array
+     */
+    private final Rows rows = new Rows();
+
+    /**
+     * the bytes of the frame being written
+     */
+    private byte[] buffer = new byte[0];
+    private int size;
+
+    /**
+     * constructor for a renderer
+     * @param ansi true to redraw only the cells that changed, with ANSI cursor movement
+     */
+    BoardRenderer(boolean ansi){
+        this.ansi = ansi;
+    }
+
+    /**
+     * writes a frame of the board in one call
+     * @param board the n² x n² board, numbers 0 - n²
+     * @param out the stream to write to
+     * @throws IOException if the stream fails
+     */
+    void render(int[][] board, OutputStream out) throws IOException {
+        rows.board = board;
+        rows.version++;
+        try {
+            render(rows, out);
+        } finally {
+            rows.board = null;
+        }
+    }
+
+    /**
+     * writes a frame of the board in one call, reading it through the view
+     * @param board the n² x n² board, numbers 0 - n²
+     * @param out the stream to write to
+     * @throws IOException if the stream fails
+     */
+    void render(IBoardView board, OutputStream out) throws IOException {
+        if (board.side() != side){
+            layout(board.side());
+        }
+        if (!ansi){
+            fill(board);
+            out.write(frame, 0, frame.length);
+        } else if (shown == null){
+            fill(board);
+            full(board);
+            out.write(buffer, 0, size);
+        } else if (board != shownView || board.version() != shownVersion){
+            changes(board);
+            if (size > 0){
+                out.write(buffer, 0, size);
+            }
+        }
+    }
+
+    /**
+     * @return true while an ANSI frame is on the screen, i.e. from the first frame until release
+     */
+    boolean isShowing() {
+        return shown != null;
+    }
+
+    /**
+     * forgets the last frame and gives the terminal its whole screen back, the next frame is drawn in full
+     * @param out the stream to write to
+     * @throws IOException if the stream fails
+     */
+    void release(OutputStream out) throws IOException {
+        if (ansi && shown != null){
+            size = 0;
+            // save the cursor, reset the scroll region (which homes the cursor), restore the cursor
+            escape();
+            put((byte) '7');
+            csi();
+            put((byte) 'r');
+            escape();
+            put((byte) '8');
+            out.write(buffer, 0, size);
+            shown = null;
+            shownView = null;
+        }
+    }
+
+    /**
+     * builds the frame of an empty board and where every cell goes in it
+     * the box size is the square root of the board size, numbers of boards larger than 9 x 9
+     * get two columns each and a space between them
+     */
+    private void layout(int side) {
+        int box = (int) Math.round(Math.sqrt(side));
+        int width = String.valueOf(side).length();
+        // a box is its cells and the spaces between them, the line has one more dash for each " | "
+        int boxWidth = box * width + (width > 1 ? box - 1 : 0);
+        StringBuilder line = new StringBuilder();
+        for (int b = 0; b < box; b++){
+            if (b != 0){
+                line.append('+');
+            }
+            line.append("-".repeat(boxWidth + (b == 0 || b == box - 1 ? 1 : 2)));
+        }
+        line.append('\n');
+        StringBuilder text = new StringBuilder();
+        int[] offsets = new int[side * side];
+        int[] lineOf = new int[side * side];
+        int[] columnOf = new int[side * side];
+        int lines = 0;
+        for (int row = 0; row < side; row++){
+            if (row % box == 0 && row != 0){
+                text.append(line);
+                lines++;
+            }
+            int start = text.length();
+            lines++;
+            for (int col = 0; col < side; col++){
+                if (col % box == 0 && col != 0){
+                    text.append(" | ");
+                } else if (col != 0 && width > 1){
+                    text.append(' ');
+                }
+                int i = row * side + col;
+                offsets[i] = text.length();
+                lineOf[i] = lines;
+                columnOf[i] = text.length() - start + 1;
+                text.append(" ".repeat(width));
+            }
+            text.append('\n');
+        }
+        this.side = side;
+        this.width = width;
+        this.lines = lines;
+        this.frame = text.toString().getBytes(StandardCharsets.US_ASCII);
+        this.offsets = offsets;
+        this.lineOf = lineOf;
+        this.columnOf = columnOf;
+        this.shown = null;
+        // the longest frame is every cell moved to and rewritten, or the first frame in full
+        this.buffer = new byte[Math.max(frame.length + 32, side * side * (12 + width) + 4)];
+    }
+
+    /**
+     * writes the numbers of the board into the frame
+     */
+    private void fill(IBoardView board) {
+        for (int i = 0; i < offsets.length; i++){
+            number(frame, offsets[i], board.get(i));
+        }
+    }
+
+    /**
+     * the first ANSI frame: clear the screen, the frame at the top, scroll only below it
+     */
+    private void full(IBoardView board) {
+        size = 0;
+        csi();
+        put((byte) 'H');
+        csi();
+        put((byte) '2');
+        put((byte) 'J');
+        System.arraycopy(frame, 0, buffer, size, frame.length);
+        size += frame.length;
+        csi();
+        decimal(lines + 1);
+        put((byte) 'r');
+        // setting the scroll region homes the cursor, put it back under the board
+        csi();
+        decimal(lines + 1);
+        put((byte) ';');
+        put((byte) '1');
+        put((byte) 'H');
+        shown = new int[side * side];
+        for (int i = 0; i < shown.length; i++){
+            shown[i] = board.get(i);
+        }
+        shownView = board;
+        shownVersion = board.version();
+    }
+
+    /**
+     * an ANSI frame after the first: rewrite the cells that changed, then put the cursor back
+     */
+    private void changes(IBoardView board) {
+        size = 0;
+        for (int i = 0; i < shown.length; i++){
+            int number = board.get(i);
+            if (number != shown[i]){
+                if (size == 0){
+                    escape();
+                    put((byte) '7');
+                }
+                shown[i] = number;
+                csi();
+                decimal(lineOf[i]);
+                put((byte) ';');
+                decimal(columnOf[i]);
+                put((byte) 'H');
+                number(buffer, size, number);
+                size += width;
+            }
+        }
+        shownView = board;
+        shownVersion = board.version();
+        if (size > 0){
+            escape();
+            put((byte) '8');
+        }
+    }
+
+    /**
+     * writes a number right aligned in the cell width
+     * @throws IllegalArgumentException if the number does not fit the board
+     */
+    private void number(byte[] bytes, int at, int number) {
+        if (number < 0 || number > side){
+            throw new IllegalArgumentException("cannot show " + number + " on a " + side + " x " + side + " board");
+        }
+        if (width == 1){
+            bytes[at] = (byte) ('0' + number);
+        } else {
+            bytes[at] = number < 10 ? (byte) ' ' : (byte) ('0' + number / 10);
+            bytes[at + 1] = (byte) ('0' + number % 10);
+        }
+    }
+
+    /**
+     * puts a positive number in decimal
+     */
+    private void decimal(int value) {
+        if (value >= 10){
+            decimal(value / 10);
+        }
+        put((byte) ('0' + value % 10));
+    }
+
+    /**
+     * puts the start of a control sequence
+     */
+    private void csi() {
+        escape();
+        put((byte) '[');
+    }
+
+    /**
+     * puts an escape
+     */
+    private void escape() {
+        put(ESC);
+    }
+
+    /**
+     * puts a byte
+     */
+    private void put(byte b) {
+        buffer[size++] = b;
+    }
+
+    /**
+     * This is a board that comes as an array seen as a view, its version changes with every frame
+     * since nobody tells it when the array changes
+     */
+    private static final class Rows implements IBoardView {
+        private int[][] board;
+        private long version;
+
+        @Override
+        public int side() {
+            return board.length;
+        }
+
+        @Override
+        public int boxSize() {
+            return (int) Math.round(Math.sqrt(board.length));
+        }
+
+        @Override
+        public int get(int index) {
+            return board[index / board.length][index % board.length];
+        }
+
+        @Override
+        public int get(int row, int col) {
+            return board[row][col];
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public PackedBoard snapshot() {
+            return PackedBoard.of(board);
+        }
+    }
+}
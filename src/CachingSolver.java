@@ -0,0 +1,84 @@
+/**
+ * This is a solver that looks a board up in a SolutionCache before it asks another solver
+ * the board is canonicalized first, so a cached solution of any relabeled or reordered copy
+ * of the puzzle is found too and mapped back to the board's orientation
+ * boards without a solution are not cached, boards that are not 9 x 9 go straight to the solver
+ *
+ * an instance keeps a canonicalizer between calls, so it is not safe to share between threads;
+ * give every thread its own caching solver around one shared cache
+ */
+public class CachingSolver implements ISolver{
+    private final ISolver solver;
+    private final SolutionCache cache;
+    private final Canonicalizer canonicalizer = new Canonicalizer();
+
+    /**
+     * constructor for a caching solver
+     * @param solver the solver for boards that are not cached
+     * @param cache the cache, it may be shared with other caching solvers
+     */
+    public CachingSolver(ISolver solver, SolutionCache cache){
+        this.solver = solver;
+        this.cache = cache;
+    }
+
+    /**
+     * solves the board from the cache, or with the solver and caches the solution
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (board.length != 9){
+            return solver.solve(board);
+        }
+        for (int[] row : board){
+            for (int number : row){
+                if (number < 0 || number > 9){
+                    return false;
+                }
+            }
+        }
+        PackedBoard packed = PackedBoard.of(board);
+        if (!solve(packed)){
+            return false;
+        }
+        packed.copyInto(board);
+        return true;
+    }
+
+    /**
+     * solves the packed board from the cache, or with the solver and caches the solution
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        if (board.side() != 9){
+            return solver.solve(board);
+        }
+        SymmetryTransform transform = canonicalizer.canonicalize(board);
+        PackedBoard form = transform.apply(board);
+        PackedBoard solution = cache.get(form);
+        if (solution != null){
+            board.copyFrom(transform.revert(solution));
+            return true;
+        }
+        solution = board.copy();
+        if (!solver.solve(solution)){
+            return false;
+        }
+        cache.put(form, transform.apply(solution));
+        board.copyFrom(solution);
+        return true;
+    }
+
+    /**
+     * @return the cache the solver looks in
+     */
+    public SolutionCache getCache() {
+        return cache;
+    }
+}
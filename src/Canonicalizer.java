@@ -0,0 +1,391 @@
+import java.util.Arrays;
+
+/**
+ * This maps a board to its minlex form: the lexicographically smallest 81 cell string (empty as 0)
+ * over all 3,359,232 transpositions and band/stack/row/col orders and all relabelings of the numbers
+ * two puzzles are the same puzzle up to symmetry exactly when their minlex forms are equal
+ *
+ * the search builds the form one row at a time and never enumerates the whole group:
+ * - numbers are relabeled 1, 2, 3 ... in the order they first appear, so no relabeling is enumerated
+ * - of the source rows that may come next only the ones giving the smallest row are searched,
+ *   and a branch stops as soon as its row is larger than the same row of the best form so far
+ * - the col order is kept as groups of cols that are still interchangeable, every row only sorts
+ *   within the groups (empty cells first, then the numbers by label), so the cols are branched on
+ *   only when two numbers that have no label yet share a group
+ * - the stack order is chosen at the first non-empty row: stacks with fewer givens first
+ *
+ * a puzzle takes about as long as a uniqueness check; a complete grid gives no empty cells to prune on
+ * and takes milliseconds
+ * the form is only guaranteed minimal for boards without a number repeated in a row or col
+ * an instance keeps its scratch arrays between calls, so it is not safe to share between threads
+ */
+public class Canonicalizer {
+    /**
+     * the orders of 2 and 3 things
+     */
+    private static final int[][][] ORDERS = {
+            null, null, {{0, 1}, {1, 0}}, {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}}
+    };
+
+    /**
+     * an unset cell of the best form, larger than every number
+     */
+    private static final int UNSET = 10;
+
+    /**
+     * scratch state of the current search
+     * col position c of the form holds source col colOrder[c], and can still be swapped with
+     * position c + 1 while tied[c] is set
+     */
+    private final int[] grid = new int[81];
+    private final int[] best = new int[81];
+    private final int[] rowOrder = new int[9];
+    private final boolean[] rowUsed = new boolean[9];
+    private final boolean[] bandUsed = new boolean[3];
+    private final int[] colOrder = new int[9];
+    private final boolean[] tied = new boolean[9];
+    private final int[][] savedOrder = new int[9][9];
+    private final boolean[][] savedTied = new boolean[9][9];
+    private boolean stacksChosen;
+    private final int[] labels = new int[10];
+    private final int[] labelled = new int[10];
+    private int nextLabel;
+    private boolean transpose;
+    private final int[] counts = new int[3];
+    private final int[] group = new int[3];
+    private final int[][] siblings = new int[9][9];
+    private final int[][] siblingRows = new int[9][81];
+
+    /**
+     * the transform of the best form so far
+     */
+    private boolean bestTranspose;
+    private final int[] bestRows = new int[9];
+    private final int[] bestCols = new int[9];
+    private final int[] bestLabels = new int[10];
+
+    /**
+     * finds the transform that maps the board to its minlex form
+     * @param board the 9 x 9 board
+     * @return the transform, apply it to the board for the minlex form and revert it to map back
+     * @throws IllegalArgumentException if the board is not 9 x 9
+     */
+    public SymmetryTransform canonicalize(PackedBoard board) {
+        if (board.side() != 9){
+            throw new IllegalArgumentException("only 9 x 9 boards have a minlex form here");
+        }
+        Arrays.fill(best, UNSET);
+        Arrays.fill(labels, 0);
+        nextLabel = 1;
+        for (int t = 0; t < 2; t++){
+            transpose = t == 1;
+            for (int i = 0; i < 81; i++){
+                grid[i] = transpose ? board.get((i % 9) * 9 + i / 9) : board.get(i);
+            }
+            resetCols();
+            place(0);
+        }
+
+        // numbers the board does not use take the labels that are left, so the relabeling is a bijection
+        int[] digits = bestLabels.clone();
+        int label = 1;
+        for (int n = 1; n < 10; n++){
+            label = Math.max(label, digits[n] + 1);
+        }
+        for (int n = 1; n < 10; n++){
+            if (digits[n] == 0){
+                digits[n] = label++;
+            }
+        }
+        return new SymmetryTransform(bestTranspose, bestRows, bestCols, digits);
+    }
+
+    /**
+     * @param board the 9 x 9 board
+     * @return the minlex form of the board
+     * @throws IllegalArgumentException if the board is not 9 x 9
+     */
+    public PackedBoard minlex(PackedBoard board) {
+        return canonicalize(board).apply(board);
+    }
+
+    /**
+     * tries the source rows that may go in the given row of the form and give the smallest row
+     * a row that starts a band may come from any unused band, the other two stay in its band
+     */
+    private void place(int row) {
+        if (row == 9){
+            // every row of this branch was equal to or replaced the best one
+            bestTranspose = transpose;
+            System.arraycopy(rowOrder, 0, bestRows, 0, 9);
+            System.arraycopy(colOrder, 0, bestCols, 0, 9);
+            System.arraycopy(labels, 0, bestLabels, 0, 10);
+            return;
+        }
+        int[] options = siblings[row];
+        int[] values = siblingRows[row];
+        int count = 0;
+        boolean starts = row % 3 == 0;
+        int from = starts ? 0 : (rowOrder[row - 1] / 3) * 3;
+        int to = starts ? 9 : from + 3;
+        for (int source = from; source < to; source++){
+            if (rowUsed[source] || (starts && bandUsed[source / 3])){
+                continue;
+            }
+            rowValue(source, values, count * 9);
+            int cmp = count == 0 ? -1 : compare(values, count * 9, values, 0);
+            if (cmp < 0){
+                System.arraycopy(values, count * 9, values, 0, 9);
+                count = 0;
+            }
+            if (cmp <= 0){
+                options[count++] = source;
+            }
+        }
+        if (compare(values, 0, best, row * 9) > 0){
+            return;
+        }
+        for (int k = 0; k < count; k++){
+            int band = options[k] / 3;
+            bandUsed[band] |= starts;
+            tryRow(row, options[k]);
+            bandUsed[band] &= !starts;
+        }
+    }
+
+    /**
+     * puts a source row in a row of the form, choosing the stack order first if it is still open
+     */
+    private void tryRow(int row, int source) {
+        rowUsed[source] = true;
+        rowOrder[row] = source;
+        if (stacksChosen || isEmpty(source)){
+            System.arraycopy(colOrder, 0, savedOrder[row], 0, 9);
+            System.arraycopy(tied, 0, savedTied[row], 0, 9);
+            refine(row, source, 0);
+        } else {
+            countGivens(source);
+            // the search below reuses the counts
+            int[] givens = counts.clone();
+            stacksChosen = true;
+            for (int[] stacks : ORDERS[3]){
+                if (givens[stacks[0]] > givens[stacks[1]] || givens[stacks[1]] > givens[stacks[2]]){
+                    continue;
+                }
+                for (int c = 0; c < 9; c++){
+                    colOrder[c] = stacks[c / 3] * 3 + c % 3;
+                    tied[c] = c % 3 != 2;
+                }
+                System.arraycopy(colOrder, 0, savedOrder[row], 0, 9);
+                System.arraycopy(tied, 0, savedTied[row], 0, 9);
+                refine(row, source, 0);
+            }
+            stacksChosen = false;
+            resetCols();
+        }
+        rowUsed[source] = false;
+    }
+
+    /**
+     * sorts the col groups from the given position on for the source row: empty cells first,
+     * then numbers that have a label by label, then new numbers in every order they can take
+     * once every group is sorted the row goes into the form, and the groups are put back afterwards
+     */
+    private void refine(int row, int source, int position) {
+        if (position == 9){
+            extend(row, source);
+            return;
+        }
+        int end = position;
+        while (tied[end]){
+            end++;
+        }
+        int size = end - position + 1;
+        int zeros = 0;
+        int known = 0;
+        int fresh = 0;
+        for (int c = position; c <= end; c++){
+            if (grid[source * 9 + colOrder[c]] == 0){
+                group[zeros++] = colOrder[c];
+            }
+        }
+        if (zeros == size || size == 1){
+            // nothing to sort
+            refine(row, source, end + 1);
+            return;
+        }
+        for (int c = position; c <= end; c++){
+            int number = grid[source * 9 + colOrder[c]];
+            if (number != 0 && labels[number] != 0){
+                // insertion sort by label, a group has at most 3 cols
+                int at = zeros + known++;
+                while (at > zeros && labels[grid[source * 9 + group[at - 1]]] > labels[number]){
+                    group[at] = group[at - 1];
+                    at--;
+                }
+                group[at] = colOrder[c];
+            }
+        }
+        for (int c = position; c <= end; c++){
+            int number = grid[source * 9 + colOrder[c]];
+            if (number != 0 && labels[number] == 0){
+                group[zeros + known + fresh++] = colOrder[c];
+            }
+        }
+        for (int c = position; c <= end; c++){
+            colOrder[c] = group[c - position];
+            tied[c] = c - position < zeros - 1;
+        }
+        if (fresh < 2){
+            refine(row, source, end + 1);
+        } else {
+            int first = position + zeros + known;
+            int[] newCols = Arrays.copyOfRange(colOrder, first, first + fresh);
+            for (int[] order : ORDERS[fresh]){
+                for (int k = 0; k < fresh; k++){
+                    colOrder[first + k] = newCols[order[k]];
+                }
+                refine(row, source, end + 1);
+            }
+        }
+        System.arraycopy(savedOrder[row], position, colOrder, position, size);
+        System.arraycopy(savedTied[row], position, tied, position, size);
+    }
+
+    /**
+     * writes the relabeled source row as the given row of the form and goes on with the next row,
+     * unless it is larger than the best form's row
+     */
+    private void extend(int row, int source) {
+        int saved = nextLabel;
+        int base = row * 9;
+        boolean smaller = false;
+        for (int c = 0; c < 9; c++){
+            int number = grid[source * 9 + colOrder[c]];
+            if (number != 0 && labels[number] == 0){
+                labels[number] = nextLabel;
+                labelled[nextLabel++] = number;
+            }
+            int value = labels[number];
+            if (!smaller){
+                if (value > best[base + c]){
+                    unlabel(saved);
+                    return;
+                }
+                if (value < best[base + c]){
+                    smaller = true;
+                    // the rows below belonged to a larger form
+                    Arrays.fill(best, base + 9, 81, UNSET);
+                }
+            }
+            best[base + c] = value;
+        }
+        place(row + 1);
+        unlabel(saved);
+    }
+
+    /**
+     * takes back the labels handed out since nextLabel was saved
+     */
+    private void unlabel(int saved) {
+        while (nextLabel > saved){
+            labels[labelled[--nextLabel]] = 0;
+        }
+    }
+
+    /**
+     * writes the smallest row the source row can become, without handing out its new labels
+     * while the stack order is open that is 0s then 1, 2, 3 ... with the stacks holding fewer givens first,
+     * after that every col group is sorted the way refine sorts it
+     */
+    private void rowValue(int source, int[] out, int offset) {
+        int next = nextLabel;
+        if (!stacksChosen){
+            countGivens(source);
+            Arrays.sort(counts);
+            for (int stack = 0; stack < 3; stack++){
+                for (int k = 0; k < 3; k++){
+                    out[offset + stack * 3 + k] = k < 3 - counts[stack] ? 0 : next++;
+                }
+            }
+            return;
+        }
+        for (int position = 0; position < 9; position++){
+            int end = position;
+            while (tied[end]){
+                end++;
+            }
+            int at = offset + position;
+            for (int c = position; c <= end; c++){
+                if (grid[source * 9 + colOrder[c]] == 0){
+                    out[at++] = 0;
+                }
+            }
+            int firstKnown = at;
+            int fresh = 0;
+            for (int c = position; c <= end; c++){
+                int number = grid[source * 9 + colOrder[c]];
+                if (number != 0 && labels[number] != 0){
+                    int k = at++;
+                    while (k > firstKnown && out[k - 1] > labels[number]){
+                        out[k] = out[k - 1];
+                        k--;
+                    }
+                    out[k] = labels[number];
+                } else if (number != 0){
+                    fresh++;
+                }
+            }
+            while (fresh-- > 0){
+                out[at++] = next++;
+            }
+            position = end;
+        }
+    }
+
+    /**
+     * @return the order of the rows a[from..from + 9) and b[at..at + 9)
+     */
+    private static int compare(int[] a, int from, int[] b, int at) {
+        for (int c = 0; c < 9; c++){
+            if (a[from + c] != b[at + c]){
+                return a[from + c] < b[at + c] ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * puts the cols back in source order, nothing tied
+     */
+    private void resetCols() {
+        for (int c = 0; c < 9; c++){
+            colOrder[c] = c;
+            tied[c] = false;
+        }
+    }
+
+    /**
+     * counts the givens of the source row in each stack
+     */
+    private void countGivens(int source) {
+        Arrays.fill(counts, 0);
+        for (int c = 0; c < 9; c++){
+            if (grid[source * 9 + c] != 0){
+                counts[c / 3]++;
+            }
+        }
+    }
+
+    /**
+     * @return true if the source row has no givens
+     */
+    private boolean isEmpty(int source) {
+        for (int c = 0; c < 9; c++){
+            if (grid[source * 9 + c] != 0){
+                return false;
+            }
+        }
+        return true;
+    }
+}
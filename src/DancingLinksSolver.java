@@ -0,0 +1,303 @@
+/**
+ * This is a solver that treats sudoku as an exact cover problem and runs Knuth's Algorithm X
+ * on dancing links
+ *
+ * the matrix has 729 rows, one per (cell, number), and 324 columns:
+ * 0 - 80 cell is filled, 81 - 161 row has the number, 162 - 242 col has the number,
+ * 243 - 323 box has the number
+ *
+ * every node lives in preallocated int arrays that are built once per instance,
+ * a solve covers the givens, searches, and uncovers everything again on the way out,
+ * so an instance is reusable but not safe to share between threads
+ */
+public class DancingLinksSolver implements ISolver{
+    private static final int COLUMNS = 324;
+    private static final int ROWS = 729;
+    private static final int ROOT = 0;
+
+    /**
+     * the links of every node, index 0 is the root, 1 - 324 are the column headers,
+     * and the four nodes of matrix row r start at 325 + 4 * r
+     */
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] size = new int[COLUMNS + 1];
+    private final boolean[] covered = new boolean[COLUMNS + 1];
+
+    /**
+     * scratch state of the current search
+     */
+    private final int[] stack = new int[81];
+    private final int[] solution = new int[81];
+    private final int[] givens = new int[81];
+    private int limit;
+    private int found;
+
+    /**
+     * builds the full exact cover matrix
+     */
+    public DancingLinksSolver() {
+        int nodes = COLUMNS + 1 + ROWS * 4;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+
+        for (int c = 0; c <= COLUMNS; c++){
+            left[c] = c == 0 ? COLUMNS : c - 1;
+            right[c] = c == COLUMNS ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        for (int r = 0; r < ROWS; r++){
+            int cell = r / 9;
+            int number = r % 9;
+            int row = cell / 9;
+            int col = cell % 9;
+            int box = (row / 3) * 3 + col / 3;
+            int first = firstNode(r);
+            int[] columns = {cell, 81 + row * 9 + number, 162 + col * 9 + number, 243 + box * 9 + number};
+            for (int k = 0; k < 4; k++){
+                int node = first + k;
+                int header = columns[k] + 1;
+                left[node] = first + (k + 3) % 4;
+                right[node] = first + (k + 1) % 4;
+                // append at the bottom of the column
+                column[node] = header;
+                up[node] = up[header];
+                down[node] = header;
+                down[up[header]] = node;
+                up[header] = node;
+                size[header]++;
+            }
+        }
+    }
+
+    /**
+     * solves the board with Algorithm X
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (board.length != 9){
+            return false;
+        }
+        if (countSolutions(board, 1) == 0){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board[i / 9][i % 9] = solution[i];
+        }
+        return true;
+    }
+
+    /**
+     * solves the packed board with Algorithm X
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        if (board.side() != 9){
+            return false;
+        }
+        if (countSolutions(board, 1) == 0){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board.set(i, solution[i]);
+        }
+        return true;
+    }
+
+    /**
+     * counts the solutions of the board, stopping as soon as the limit is reached
+     * the board is not changed
+     *
+     * @param board the board to count, 0 represents an empty cell
+     * @param limit the most solutions to look for, 2 is enough to tell if a puzzle is unique
+     * @return the number of solutions found, at most limit
+     */
+    public int countSolutions(int[][] board, int limit) {
+        if (board.length != 9){
+            return 0;
+        }
+        for (int i = 0; i < 81; i++){
+            solution[i] = board[i / 9][i % 9];
+        }
+        return countLoaded(limit);
+    }
+
+    /**
+     * counts the solutions of the packed board, stopping as soon as the limit is reached
+     * the board is not changed
+     *
+     * @param board the board to count, 0 represents an empty cell
+     * @param limit the most solutions to look for, 2 is enough to tell if a puzzle is unique
+     * @return the number of solutions found, at most limit
+     */
+    public int countSolutions(PackedBoard board, int limit) {
+        if (board.side() != 9){
+            return 0;
+        }
+        for (int i = 0; i < 81; i++){
+            solution[i] = board.get(i);
+        }
+        return countLoaded(limit);
+    }
+
+    /**
+     * covers the givens held in solution, counts, and uncovers them again
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    private int countLoaded(int limit) {
+        this.limit = limit;
+        this.found = 0;
+        int givenCount = 0;
+        boolean valid = true;
+
+        for (int i = 0; i < 81 && valid; i++){
+            int number = solution[i];
+            if (number == 0){
+                continue;
+            }
+            if (number < 0 || number > 9){
+                valid = false;
+                break;
+            }
+            int first = firstNode(i * 9 + number - 1);
+            // a given whose constraint is already taken conflicts with an earlier given
+            for (int k = 0; k < 4; k++){
+                if (covered[column[first + k]]){
+                    valid = false;
+                }
+            }
+            if (valid){
+                select(first);
+                givens[givenCount++] = first;
+            }
+        }
+        if (valid && limit > 0){
+            search(0);
+        }
+        for (int g = givenCount - 1; g >= 0; g--){
+            deselect(givens[g]);
+        }
+        return found;
+    }
+
+    /**
+     * Algorithm X, always branching on the column with the fewest rows
+     * @param depth how many rows are on the stack
+     */
+    private void search(int depth) {
+        if (right[ROOT] == ROOT){
+            if (found == 0){
+                for (int k = 0; k < depth; k++){
+                    int r = (stack[k] - COLUMNS - 1) / 4;
+                    solution[r / 9] = r % 9 + 1;
+                }
+            }
+            found++;
+            return;
+        }
+        int best = right[ROOT];
+        for (int c = right[best]; c != ROOT; c = right[c]){
+            if (size[c] < size[best]){
+                best = c;
+                if (size[c] <= 1){
+                    break;
+                }
+            }
+        }
+        if (size[best] == 0){
+            return;
+        }
+        cover(best);
+        for (int node = down[best]; node != best && found < limit; node = down[node]){
+            stack[depth] = node;
+            for (int j = right[node]; j != node; j = right[j]){
+                cover(column[j]);
+            }
+            search(depth + 1);
+            for (int j = left[node]; j != node; j = left[j]){
+                uncover(column[j]);
+            }
+        }
+        uncover(best);
+    }
+
+    /**
+     * takes a whole matrix row into the partial solution
+     * @param first the first node of the row
+     */
+    private void select(int first) {
+        cover(column[first]);
+        for (int j = right[first]; j != first; j = right[j]){
+            cover(column[j]);
+        }
+    }
+
+    /**
+     * undoes select, in the opposite order
+     * @param first the first node of the row
+     */
+    private void deselect(int first) {
+        for (int j = left[first]; j != first; j = left[j]){
+            uncover(column[j]);
+        }
+        uncover(column[first]);
+    }
+
+    /**
+     * unlinks the column header and every row that has a node in the column
+     * @param c the column header
+     */
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        covered[c] = true;
+        for (int i = down[c]; i != c; i = down[i]){
+            for (int j = right[i]; j != i; j = right[j]){
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    /**
+     * relinks everything cover unlinked, in the opposite order
+     * @param c the column header
+     */
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]){
+            for (int j = left[i]; j != i; j = left[j]){
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        covered[c] = false;
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+
+    /**
+     * the index of the first node of a matrix row
+     * @param r the matrix row, cell * 9 + number - 1
+     * @return the node index
+     */
+    private static int firstNode(int r) {
+        return COLUMNS + 1 + r * 4;
+    }
+}
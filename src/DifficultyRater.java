@@ -0,0 +1,125 @@
+/**
+ * This rates how hard a puzzle is for a person, on the Sudoku Explainer scale: it plays the puzzle
+ * with the techniques of the hint engine, always the simplest one that applies, and the rating is
+ * the hardest technique the puzzle needed (see Hint.Technique.getRating), e.g. 1.2 for a puzzle
+ * of hidden singles in boxes only, 3.2 for one that needs an x-wing
+ * the engine keeps the candidates of the puzzle as one long per cell and only updates the peers
+ * of every number it places, nothing is searched or solved
+ *
+ * a puzzle the techniques cannot finish is rated BEYOND, and one that breaks the rules INVALID;
+ * every puzzle and step is recorded in the stats of the rater
+ *
+ * an instance keeps its board and engine between calls, so it is not safe to share between threads
+ */
+public class DifficultyRater {
+    /**
+     * the rating of a puzzle that needs more than the techniques of the hint engine
+     */
+    public static final double BEYOND = Double.POSITIVE_INFINITY;
+
+    /**
+     * the rating of a puzzle that breaks the rules, e.g. a number twice in a row
+     */
+    public static final double INVALID = -1;
+
+    private PackedBoard board;
+    private HintEngine engine;
+    private Hint.Technique hardest;
+    private final RatingStats stats = new RatingStats();
+
+    /**
+     * rates a puzzle of any size, the puzzle is not changed
+     * @param puzzle the puzzle, 0 for empty
+     * @return the rating of the hardest technique it needs, 0 if it is full, or BEYOND or INVALID
+     */
+    public double rate(PackedBoard puzzle) {
+        load(puzzle.boxSize());
+        board.copyFrom(puzzle);
+        return rate();
+    }
+
+    /**
+     * rates a 9 x 9 puzzle given as cells, e.g. as PuzzleFormat parses it
+     * @param cells the 81 cells row by row, 0 for empty
+     * @return the rating of the hardest technique it needs, 0 if it is full, or BEYOND or INVALID
+     * @throws IllegalArgumentException if a cell is not 0 - 9
+     */
+    public double rate(int[] cells) {
+        load(3);
+        for (int i = 0; i < PackedBoard.SIZE; i++){
+            board.set(i, cells[i]);
+        }
+        return rate();
+    }
+
+    /**
+     * @return the hardest technique the last puzzle needed, null if it needed none or was invalid;
+     *         for a puzzle rated BEYOND the hardest one before the techniques ran out
+     */
+    public Hint.Technique getHardest() {
+        return hardest;
+    }
+
+    /**
+     * @return the record of every puzzle rated so far
+     */
+    public RatingStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @param rating a rating from rate
+     * @return the rating in words: e.g. 2.6, or beyond, or invalid
+     */
+    public static String format(double rating) {
+        if (rating == BEYOND){
+            return "beyond";
+        }
+        if (rating == INVALID){
+            return "invalid";
+        }
+        long tenths = Math.round(rating * 10);
+        return tenths / 10 + "." + tenths % 10;
+    }
+
+    /**
+     * makes the board and engine for the box size when it changes
+     */
+    private void load(int box) {
+        if (board == null || board.boxSize() != box){
+            board = new PackedBoard(box);
+            engine = new HintEngine(board, false);
+        }
+    }
+
+    /**
+     * takes the simplest step until there is none left
+     */
+    private double rate() {
+        engine.reset();
+        hardest = null;
+        Hint hint;
+        while ((hint = engine.next()) != null){
+            Hint.Technique technique = hint.getTechnique();
+            if (technique == Hint.Technique.MISTAKE){
+                hardest = null;
+                stats.recordInvalid();
+                return INVALID;
+            }
+            stats.recordHit(technique);
+            if (hardest == null || technique.getRating() > hardest.getRating()){
+                hardest = technique;
+            }
+            if (hint.isPlacement()){
+                int move = hint.getMove();
+                board.set(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+            }
+        }
+        if (board.emptyCount() > 0){
+            stats.recordBeyond();
+            return BEYOND;
+        }
+        stats.recordRated(hardest);
+        return hardest == null ? 0 : hardest.getRating();
+    }
+}
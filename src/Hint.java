@@ -0,0 +1,108 @@
+/**
+ * This is one step a player can take without guessing, found by the HintEngine:
+ * a number to place, or candidates to rule out, with the reason in words
+ * moves are packed by MoveParser.pack, a ruled out candidate is the move that cannot be made
+ */
+public final class Hint {
+    /**
+     * the techniques of the hint engine, simplest first, with their Sudoku Explainer ratings
+     */
+    public enum Technique {
+        MISTAKE("mistake", 0),
+        HIDDEN_SINGLE_IN_BOX("hidden single", 1.2),
+        HIDDEN_SINGLE("hidden single", 1.5),
+        NAKED_SINGLE("naked single", 2.3),
+        POINTING("pointing", 2.6),
+        CLAIMING("claiming", 2.8),
+        NAKED_PAIR("naked pair", 3.0),
+        X_WING("x-wing", 3.2),
+        HIDDEN_PAIR("hidden pair", 3.4),
+        NAKED_TRIPLE("naked triple", 3.6),
+        SWORDFISH("swordfish", 3.8),
+        HIDDEN_TRIPLE("hidden triple", 4.0);
+
+        private final String name;
+        private final double rating;
+
+        Technique(String name, double rating){
+            this.name = name;
+            this.rating = rating;
+        }
+
+        /**
+         * @return the name of the technique as a player knows it
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return how hard the technique is on the Sudoku Explainer scale, 0 for a mistake
+         */
+        public double getRating() {
+            return rating;
+        }
+    }
+
+    private final Technique technique;
+    private final int move;
+    private final int[] eliminations;
+    private final String justification;
+
+    /**
+     * constructor for a hint
+     * @param technique the technique that found it
+     * @param move the number to place, packed, -1 if the hint rules out candidates
+     * @param eliminations the candidates ruled out, packed, empty for a placement
+     * @param justification the reason in words, null if the engine does not explain
+     */
+    Hint(Technique technique, int move, int[] eliminations, String justification){
+        this.technique = technique;
+        this.move = move;
+        this.eliminations = eliminations;
+        this.justification = justification;
+    }
+
+    /**
+     * @return the technique that found the hint
+     */
+    public Technique getTechnique() {
+        return technique;
+    }
+
+    /**
+     * @return true if the hint is a number to place
+     */
+    public boolean isPlacement() {
+        return move != -1;
+    }
+
+    /**
+     * @return the number to place and its cell, packed by MoveParser.pack, -1 if the hint is not a placement
+     */
+    public int getMove() {
+        return move;
+    }
+
+    /**
+     * @return the candidates ruled out, each packed by MoveParser.pack as the move that cannot be made
+     */
+    public int[] getEliminations() {
+        return eliminations.clone();
+    }
+
+    /**
+     * @return the reason for the hint in words, null from an engine that does not explain (see HintEngine)
+     */
+    public String getJustification() {
+        return justification;
+    }
+
+    /**
+     * @return the reason for the hint in words, or the name of the technique when there is none
+     */
+    @Override
+    public String toString() {
+        return justification != null ? justification : technique.getName();
+    }
+}
@@ -0,0 +1,757 @@
+import java.util.Arrays;
+
+/**
+ * This finds the simplest step a player can take on a board without guessing, see Hint
+ * it keeps the candidates of every cell and follows the board through its view: when the version
+ * changed it compares the cells, a new number only takes its candidate off its peers, and only a
+ * number taken off the board (an undo) makes it count the candidates again
+ * candidates ruled out by a hint stay ruled out, so asking again gives the next step
+ *
+ * the techniques are tried simplest first, as rated by Sudoku Explainer:
+ * hidden single in a box, hidden single in a row or col, naked single, pointing, claiming,
+ * naked pair, x-wing, hidden pair, naked triple, swordfish, hidden triple
+ * a mistake on the board (a number twice in a unit, a cell or a number without a place left)
+ * comes before all of them; a board that needs more than these gets no hint
+ * nothing is ever solved, a hint on a 9 x 9 board takes microseconds
+ *
+ * an instance keeps its candidates and scratch arrays between calls, so it is not safe to share between threads
+ */
+public class HintEngine {
+    /**
+     * what the subset search looks for, see subset
+     */
+    private static final int NAKED = 0;
+    private static final int HIDDEN = 1;
+    private static final int FISH = 2;
+
+    private final IBoardView board;
+    private final boolean explain;
+    private final int box;
+    private final int side;
+    private final int length;
+    private final long all;
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] boxOf;
+    /**
+     * rows 0 - side - 1, then cols, then boxes
+     */
+    private final int[][] units;
+    private final int[][] peers;
+    /**
+     * the cells of a box unit in one of its rows, and in one of its cols, as bits of the unit;
+     * the cells of a row or col unit in one box are the bits of a box row
+     */
+    private final long[] boxRows;
+    private final long[] boxCols;
+
+    /**
+     * the board as last seen, its candidates (0 for a filled cell), a cell whose number repeats
+     * and an empty cell without candidates, or -1
+     */
+    private final int[] cells;
+    private final long[] candidates;
+    private long version;
+    private boolean synced;
+    private int repeated = -1;
+    private int dead = -1;
+
+    /**
+     * for every unit: the numbers with exactly one place, and the numbers placed or with a place,
+     * worked out again only for the units whose candidates changed since
+     */
+    private final long[] singles;
+    private final long[] seen;
+    private final boolean[] dirty;
+
+    /**
+     * where every number fits in every unit, bit k for the k-th cell of the unit, worked out once
+     * a hint gets past the singles
+     */
+    private final long[][] places;
+
+    /**
+     * scratch for rebuild, the subset search and the candidates a hint rules out
+     */
+    private final long[] rows;
+    private final long[] cols;
+    private final long[] boxes;
+    private final long[] masks;
+    private final int[] ids;
+    private int items;
+    private final int[] chosen = new int[3];
+    private int[] found;
+    private int foundCount;
+
+    /**
+     * constructor for an engine that follows a board
+     * @param board the board, e.g. the live board of a model (see IModel.getBoardView)
+     */
+    public HintEngine(IBoardView board){
+        this(board, true);
+    }
+
+    /**
+     * constructor for an engine that follows a board
+     * @param board the board
+     * @param explain false to leave the justification of the hints null, e.g. for rating
+     *                many puzzles (see DifficultyRater) where only the technique counts
+     */
+    public HintEngine(IBoardView board, boolean explain){
+        this.board = board;
+        this.explain = explain;
+        box = board.boxSize();
+        side = board.side();
+        length = side * side;
+        all = side == 64 ? -1L : (1L << side) - 1;
+        rowOf = new int[length];
+        colOf = new int[length];
+        boxOf = new int[length];
+        units = new int[3 * side][side];
+        int[] filled = new int[3 * side];
+        for (int i = 0; i < length; i++){
+            rowOf[i] = i / side;
+            colOf[i] = i % side;
+            boxOf[i] = (rowOf[i] / box) * box + colOf[i] / box;
+            units[rowOf[i]][filled[rowOf[i]]++] = i;
+            units[side + colOf[i]][filled[side + colOf[i]]++] = i;
+            units[2 * side + boxOf[i]][filled[2 * side + boxOf[i]]++] = i;
+        }
+        boxRows = new long[box];
+        boxCols = new long[box];
+        for (int k = 0; k < side; k++){
+            boxRows[k / box] |= 1L << k;
+            boxCols[k % box] |= 1L << k;
+        }
+        peers = new int[length][];
+        int[] marked = new int[length];
+        Arrays.fill(marked, -1);
+        int[] scratch = new int[3 * side];
+        for (int i = 0; i < length; i++){
+            int count = 0;
+            for (int[] unit : new int[][]{units[rowOf[i]], units[side + colOf[i]], units[2 * side + boxOf[i]]}){
+                for (int peer : unit){
+                    if (peer != i && marked[peer] != i){
+                        marked[peer] = i;
+                        scratch[count++] = peer;
+                    }
+                }
+            }
+            peers[i] = Arrays.copyOf(scratch, count);
+        }
+        cells = new int[length];
+        candidates = new long[length];
+        singles = new long[3 * side];
+        seen = new long[3 * side];
+        dirty = new boolean[3 * side];
+        places = new long[3 * side][side];
+        rows = new long[side];
+        cols = new long[side];
+        boxes = new long[side];
+        masks = new long[side];
+        ids = new int[side];
+        found = new int[3 * side];
+    }
+
+    /**
+     * @return the simplest step on the board as it is now, null if it is full
+     *         or needs a technique this engine does not know
+     */
+    public Hint next() {
+        sync();
+        Hint hint = mistake();
+        if (hint == null){
+            hint = hiddenSingle(2 * side, 3 * side, Hint.Technique.HIDDEN_SINGLE_IN_BOX);
+        }
+        if (hint == null){
+            hint = hiddenSingle(0, 2 * side, Hint.Technique.HIDDEN_SINGLE);
+        }
+        if (hint == null){
+            hint = nakedSingle();
+        }
+        if (hint == null){
+            transpose();
+            hint = pointing();
+        }
+        if (hint == null){
+            hint = claiming();
+        }
+        if (hint == null){
+            hint = nakedSubset(2, Hint.Technique.NAKED_PAIR);
+        }
+        if (hint == null){
+            hint = fish(2, Hint.Technique.X_WING);
+        }
+        if (hint == null){
+            hint = hiddenSubset(2, Hint.Technique.HIDDEN_PAIR);
+        }
+        if (hint == null){
+            hint = nakedSubset(3, Hint.Technique.NAKED_TRIPLE);
+        }
+        if (hint == null){
+            hint = fish(3, Hint.Technique.SWORDFISH);
+        }
+        if (hint == null){
+            hint = hiddenSubset(3, Hint.Technique.HIDDEN_TRIPLE);
+        }
+        return hint;
+    }
+
+    /**
+     * forgets the candidates and the hints so far, for a board that was loaded with another puzzle
+     * instead of played; the next hint counts the candidates from the board
+     */
+    public void reset() {
+        synced = false;
+    }
+
+    /**
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @return the candidates of the cell as bits, bit n - 1 for number n, 0 for a filled cell
+     * @throws IndexOutOfBoundsException if the cell is not on the board
+     */
+    public long candidatesAt(int row, int col) {
+        if (row < 0 || row >= side || col < 0 || col >= side){
+            throw new IndexOutOfBoundsException("row " + row + " col " + col + " is not on a " + side + " x " + side + " board");
+        }
+        sync();
+        return candidates[row * side + col];
+    }
+
+    /**
+     * catches up with the board: places the new numbers, or counts again after a number was taken off
+     */
+    private void sync() {
+        long now = board.version();
+        if (synced && now == version){
+            return;
+        }
+        boolean taken = !synced;
+        for (int i = 0; i < length && !taken; i++){
+            int number = board.get(i);
+            if (number != cells[i]){
+                if (cells[i] != 0){
+                    taken = true;
+                } else {
+                    place(i, number);
+                }
+            }
+        }
+        if (taken){
+            rebuild();
+        }
+        version = now;
+        synced = true;
+    }
+
+    /**
+     * a number went into an empty cell: it is no longer a candidate of the cell's peers
+     */
+    private void place(int i, int number) {
+        cells[i] = number;
+        candidates[i] = 0;
+        touch(i);
+        long bit = 1L << (number - 1);
+        for (int peer : peers[i]){
+            if (cells[peer] == number && repeated == -1){
+                repeated = i;
+            }
+            if ((candidates[peer] & bit) != 0){
+                remove(peer, bit);
+            }
+        }
+    }
+
+    /**
+     * takes candidates off a cell
+     */
+    private void remove(int i, long bits) {
+        candidates[i] &= ~bits;
+        touch(i);
+        if (candidates[i] == 0 && cells[i] == 0 && dead == -1){
+            dead = i;
+        }
+    }
+
+    /**
+     * marks the units of a cell whose candidates or number changed
+     */
+    private void touch(int i) {
+        dirty[rowOf[i]] = true;
+        dirty[side + colOf[i]] = true;
+        dirty[2 * side + boxOf[i]] = true;
+    }
+
+    /**
+     * works out the singles and the seen numbers again for the units that changed
+     */
+    private void refresh() {
+        for (int u = 0; u < units.length; u++){
+            if (dirty[u]){
+                dirty[u] = false;
+                long once = 0;
+                long twice = 0;
+                long placed = 0;
+                for (int i : units[u]){
+                    twice |= once & candidates[i];
+                    once |= candidates[i];
+                    placed |= cells[i] != 0 ? 1L << (cells[i] - 1) : 0;
+                }
+                singles[u] = once & ~twice;
+                seen[u] = once | placed;
+            }
+        }
+    }
+
+    /**
+     * counts the candidates of every cell from the board, the hints so far are forgotten
+     */
+    private void rebuild() {
+        repeated = -1;
+        dead = -1;
+        Arrays.fill(dirty, true);
+        Arrays.fill(rows, 0);
+        Arrays.fill(cols, 0);
+        Arrays.fill(boxes, 0);
+        for (int i = 0; i < length; i++){
+            int number = board.get(i);
+            cells[i] = number;
+            if (number != 0){
+                long bit = 1L << (number - 1);
+                if (((rows[rowOf[i]] | cols[colOf[i]] | boxes[boxOf[i]]) & bit) != 0 && repeated == -1){
+                    repeated = i;
+                }
+                rows[rowOf[i]] |= bit;
+                cols[colOf[i]] |= bit;
+                boxes[boxOf[i]] |= bit;
+            }
+        }
+        for (int i = 0; i < length; i++){
+            candidates[i] = cells[i] != 0 ? 0 : ~(rows[rowOf[i]] | cols[colOf[i]] | boxes[boxOf[i]]) & all;
+            if (cells[i] == 0 && candidates[i] == 0 && dead == -1){
+                dead = i;
+            }
+        }
+    }
+
+    /**
+     * @return a hint that a move on the board was wrong, null if none shows
+     */
+    private Hint mistake() {
+        if (repeated != -1){
+            return hint(Hint.Technique.MISTAKE, -1,
+                    "the " + cells[repeated] + " at " + cell(repeated) + " is already in its row, col or box, take it back");
+        }
+        if (dead != -1){
+            return hint(Hint.Technique.MISTAKE, -1, cell(dead) + " has no number left, a move before was wrong");
+        }
+        refresh();
+        for (int u = 0; u < units.length; u++){
+            if (seen[u] != all){
+                int number = Long.numberOfTrailingZeros(~seen[u] & all) + 1;
+                return hint(Hint.Technique.MISTAKE, -1, number + " has no place left in " + unit(u) + ", a move before was wrong");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * the singles of the units are up to date, mistake refreshes them first
+     * @return a number with one place left in one of the units from - to - 1, null if none has
+     */
+    private Hint hiddenSingle(int from, int to, Hint.Technique technique) {
+        for (int u = from; u < to; u++){
+            long single = singles[u];
+            if (single != 0){
+                int number = Long.numberOfTrailingZeros(single) + 1;
+                long bit = single & -single;
+                for (int i : units[u]){
+                    if ((candidates[i] & bit) != 0){
+                        return hint(technique, i, number, !explain ? null : technique.getName() + ": " + number
+                                + " goes in " + cell(i) + ", the only place left for it in " + unit(u));
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a cell with one candidate left, null if none has
+     */
+    private Hint nakedSingle() {
+        for (int i = 0; i < length; i++){
+            long c = candidates[i];
+            if (c != 0 && (c & (c - 1)) == 0){
+                int number = Long.numberOfTrailingZeros(c) + 1;
+                return hint(Hint.Technique.NAKED_SINGLE, i, number,
+                        !explain ? null : "naked single: " + number + " is the only number left for " + cell(i));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * a number that is only in one row or col of a box is not in that row or col outside the box
+     */
+    private Hint pointing() {
+        for (int b = 0; b < side; b++){
+            long[] inBox = places[2 * side + b];
+            for (int number = 0; number < side; number++){
+                long p = inBox[number];
+                if (p == 0){
+                    continue;
+                }
+                int first = Long.numberOfTrailingZeros(p);
+                int line = -1;
+                long outside = 0;
+                if ((p & ~boxRows[first / box]) == 0){
+                    line = (b / box) * box + first / box;
+                    outside = places[line][number] & ~boxRows[b % box];
+                }
+                if (outside == 0 && (p & ~boxCols[first % box]) == 0){
+                    line = side + (b % box) * box + first % box;
+                    outside = places[line][number] & ~boxRows[b / box];
+                }
+                if (outside != 0){
+                    foundCount = 0;
+                    collect(line, outside, number + 1);
+                    return eliminations(Hint.Technique.POINTING, !explain ? null : "pointing: in " + unit(2 * side + b) + ", " + (number + 1)
+                            + " is only in " + unit(line) + ", so it is not in the rest of " + unit(line));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * a number that is only in one box of a row or col is not in that box outside the row or col
+     */
+    private Hint claiming() {
+        for (int u = 0; u < 2 * side; u++){
+            int line = u < side ? u : u - side;
+            for (int number = 0; number < side; number++){
+                long p = places[u][number];
+                int segment = Long.numberOfTrailingZeros(p) / box;
+                if (p == 0 || (p & ~boxRows[segment]) != 0){
+                    continue;
+                }
+                int b = u < side ? (line / box) * box + segment : segment * box + line / box;
+                long outside = places[2 * side + b][number] & ~(u < side ? boxRows[line % box] : boxCols[line % box]);
+                if (outside != 0){
+                    foundCount = 0;
+                    collect(2 * side + b, outside, number + 1);
+                    return eliminations(Hint.Technique.CLAIMING, !explain ? null : "claiming: in " + unit(u) + ", " + (number + 1)
+                            + " is only in " + unit(2 * side + b) + ", so it is not in the rest of " + unit(2 * side + b));
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * n cells of a unit with only the same n candidates between them take those out of the rest of the unit
+     */
+    private Hint nakedSubset(int n, Hint.Technique technique) {
+        for (int u = 0; u < units.length; u++){
+            items = 0;
+            for (int i : units[u]){
+                int count = Long.bitCount(candidates[i]);
+                if (count >= 2 && count <= n){
+                    masks[items] = candidates[i];
+                    ids[items++] = i;
+                }
+            }
+            if (items >= n && subset(n, 0, 0, 0, NAKED, u)){
+                if (!explain){
+                    return eliminations(technique, null);
+                }
+                StringBuilder text = new StringBuilder(technique.getName()).append(": ");
+                long numbers = 0;
+                for (int k = 0; k < n; k++){
+                    text.append(k == 0 ? "" : k == n - 1 ? " and " : ", ").append(cell(ids[chosen[k]]));
+                    numbers |= masks[chosen[k]];
+                }
+                text.append(" only hold ").append(numbers(numbers)).append(" in ").append(unit(u))
+                        .append(", so those are not in the rest of ").append(unit(u));
+                return eliminations(technique, text.toString());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * n numbers with only the same n places in a unit between them rule the other candidates out of those cells
+     */
+    private Hint hiddenSubset(int n, Hint.Technique technique) {
+        for (int u = 0; u < units.length; u++){
+            items = 0;
+            for (int number = 0; number < side; number++){
+                int count = Long.bitCount(places[u][number]);
+                if (count >= 2 && count <= n){
+                    masks[items] = places[u][number];
+                    ids[items++] = number;
+                }
+            }
+            if (items >= n && subset(n, 0, 0, 0, HIDDEN, u)){
+                if (!explain){
+                    return eliminations(technique, null);
+                }
+                long numbers = 0;
+                long cells = 0;
+                for (int k = 0; k < n; k++){
+                    numbers |= 1L << ids[chosen[k]];
+                    cells |= masks[chosen[k]];
+                }
+                return eliminations(technique, technique.getName() + ": " + numbers(numbers) + " only fit "
+                        + cells(units[u], cells) + " in " + unit(u) + ", so no other number goes there");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * a number that fits only the same n cols in n rows is not in those cols in the other rows,
+     * and the same with rows and cols swapped
+     */
+    private Hint fish(int n, Hint.Technique technique) {
+        for (int base = 0; base < 2 * side; base += side){
+            for (int number = 0; number < side; number++){
+                items = 0;
+                for (int line = base; line < base + side; line++){
+                    int count = Long.bitCount(places[line][number]);
+                    if (count >= 2 && count <= n){
+                        masks[items] = places[line][number];
+                        ids[items++] = line - base;
+                    }
+                }
+                if (items >= n && subset(n, 0, 0, 0, FISH, base + number)){
+                    if (!explain){
+                        return eliminations(technique, null);
+                    }
+                    int cover = side - base;
+                    long lines = 0;
+                    long covered = 0;
+                    for (int k = 0; k < n; k++){
+                        lines |= 1L << ids[chosen[k]];
+                        covered |= masks[chosen[k]];
+                    }
+                    return eliminations(technique, technique.getName() + ": " + (number + 1) + " fits only "
+                            + lines(cover, covered) + " in " + lines(base, lines) + ", so it is not in "
+                            + lines(cover, covered) + " anywhere else");
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * looks for n items whose masks together have n bits, and that rule out a candidate
+     * the indexes of the items it stops at are in chosen
+     * @param context the unit for NAKED and HIDDEN, the first line of the base plus the number for FISH
+     * @return true if it found them, with what they rule out collected
+     */
+    private boolean subset(int n, int start, int depth, long union, int mode, int context) {
+        if (depth == n){
+            return Long.bitCount(union) == n && rule(n, union, mode, context);
+        }
+        for (int k = start; k <= items - n + depth; k++){
+            long next = union | masks[k];
+            if (Long.bitCount(next) <= n){
+                chosen[depth] = k;
+                if (subset(n, k + 1, depth + 1, next, mode, context)){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * collects what the chosen subset rules out
+     * @return true if there was any
+     */
+    private boolean rule(int n, long union, int mode, int context) {
+        foundCount = 0;
+        if (mode == NAKED){
+            for (int i : units[context]){
+                long off = candidates[i] & union;
+                if (off != 0 && !chosenCell(n, i)){
+                    addAll(i, off);
+                }
+            }
+        } else if (mode == HIDDEN){
+            long numbers = 0;
+            for (int k = 0; k < n; k++){
+                numbers |= 1L << ids[chosen[k]];
+            }
+            for (long rest = union; rest != 0; rest &= rest - 1){
+                int i = units[context][Long.numberOfTrailingZeros(rest)];
+                addAll(i, candidates[i] & ~numbers);
+            }
+        } else {
+            int base = context < side ? 0 : side;
+            int number = context - base;
+            long lines = 0;
+            for (int k = 0; k < n; k++){
+                lines |= 1L << ids[chosen[k]];
+            }
+            // a cover line crosses every line of the base, at the index of that base line
+            int cover = side - base;
+            for (long rest = union; rest != 0; rest &= rest - 1){
+                int line = cover + Long.numberOfTrailingZeros(rest);
+                long off = places[line][number] & ~lines;
+                if (off != 0){
+                    collect(line, off, number + 1);
+                }
+            }
+        }
+        return foundCount > 0;
+    }
+
+    /**
+     * @return true if the cell is one of the chosen items of a naked subset
+     */
+    private boolean chosenCell(int n, int i) {
+        for (int k = 0; k < n; k++){
+            if (ids[chosen[k]] == i){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * works out where every number fits in every unit from the candidates
+     */
+    private void transpose() {
+        for (int u = 0; u < units.length; u++){
+            long[] p = places[u];
+            Arrays.fill(p, 0);
+            int[] unit = units[u];
+            for (int k = 0; k < side; k++){
+                for (long rest = candidates[unit[k]]; rest != 0; rest &= rest - 1){
+                    p[Long.numberOfTrailingZeros(rest)] |= 1L << k;
+                }
+            }
+        }
+    }
+
+    /**
+     * rules out a number from the cells of the unit at the bits
+     */
+    private void collect(int unit, long bits, int number) {
+        for (long rest = bits; rest != 0; rest &= rest - 1){
+            add(units[unit][Long.numberOfTrailingZeros(rest)], number);
+        }
+    }
+
+    /**
+     * rules out every number of the bits from the cell
+     */
+    private void addAll(int i, long numbers) {
+        for (long rest = numbers; rest != 0; rest &= rest - 1){
+            add(i, Long.numberOfTrailingZeros(rest) + 1);
+        }
+    }
+
+    /**
+     * rules out a number from a cell, growing the array when it is full
+     */
+    private void add(int i, int number) {
+        if (foundCount == found.length){
+            found = Arrays.copyOf(found, 2 * found.length);
+        }
+        found[foundCount++] = MoveParser.pack(number, rowOf[i], colOf[i]);
+    }
+
+    /**
+     * @return a placement hint
+     */
+    private Hint hint(Hint.Technique technique, int i, int number, String text) {
+        return new Hint(technique, MoveParser.pack(number, rowOf[i], colOf[i]), new int[0], text);
+    }
+
+    /**
+     * @return a hint that is neither a placement nor rules anything out
+     */
+    private Hint hint(Hint.Technique technique, int move, String text) {
+        return new Hint(technique, move, new int[0], text);
+    }
+
+    /**
+     * takes what was collected off the candidates, they stay off for the next hint
+     * @param reason the reason in words, null when the engine does not explain
+     * @return a hint that rules out the collected candidates
+     */
+    private Hint eliminations(Hint.Technique technique, String reason) {
+        int[] off = Arrays.copyOf(found, foundCount);
+        StringBuilder text = reason == null ? null : new StringBuilder(reason).append(": ");
+        for (int k = 0; k < off.length; k++){
+            int move = off[k];
+            int i = MoveParser.rowOf(move) * side + MoveParser.colOf(move);
+            remove(i, 1L << (MoveParser.numberOf(move) - 1));
+            if (text != null){
+                text.append(k == 0 ? "" : ", ").append(MoveParser.numberOf(move)).append(" off ").append(cell(i));
+            }
+        }
+        return new Hint(technique, -1, off, text == null ? null : text.toString());
+    }
+
+    /**
+     * @return the cell as a player types it
+     */
+    private String cell(int i) {
+        return "row " + rowOf[i] + " col " + colOf[i];
+    }
+
+    /**
+     * @return the unit in words, e.g. "box 4"
+     */
+    private String unit(int u) {
+        return u < side ? "row " + u : u < 2 * side ? "col " + (u - side) : "box " + (u - 2 * side);
+    }
+
+    /**
+     * @return the numbers of the bits in words, e.g. "3, 5 and 8"
+     */
+    private static String numbers(long bits) {
+        return list(bits, 1);
+    }
+
+    /**
+     * @return the indexes of the bits plus the offset in words
+     */
+    private static String list(long bits, int offset) {
+        StringBuilder text = new StringBuilder();
+        for (long rest = bits; rest != 0; rest &= rest - 1){
+            if (text.length() > 0){
+                text.append((rest & (rest - 1)) == 0 ? " and " : ", ");
+            }
+            text.append(Long.numberOfTrailingZeros(rest) + offset);
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the cells of the unit at the bits in words
+     */
+    private String cells(int[] unit, long places) {
+        StringBuilder text = new StringBuilder();
+        for (long rest = places; rest != 0; rest &= rest - 1){
+            if (text.length() > 0){
+                text.append((rest & (rest - 1)) == 0 ? " and " : ", ");
+            }
+            text.append(cell(unit[Long.numberOfTrailingZeros(rest)]));
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return the rows (base 0) or cols (base side) at the bits in words, e.g. "rows 2 and 7"
+     */
+    private String lines(int base, long bits) {
+        return (base == 0 ? "rows " : "cols ") + list(bits, 0);
+    }
+}
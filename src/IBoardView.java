@@ -0,0 +1,107 @@
+/**
+ * This is a read-only look at a board, e.g. the live board of a model (see IModel.getBoardView)
+ * reading through a view allocates nothing, snapshot makes a copy for when one is really needed
+ *
+ * the version changes whenever a cell of the board changes, so a reader can tell
+ * that nothing changed since it last looked without comparing cells
+ */
+public interface IBoardView {
+    /**
+     * what forEachInRow, forEachInCol and forEachInBox call for every cell of the unit
+     */
+    interface CellVisitor {
+        /**
+         * @param index the cell index, row * side + col
+         * @param number the number in the cell, 0 if empty
+         */
+        void visit(int index, int number);
+    }
+
+    /**
+     * @return the number of rows (and cols, and numbers) of the board
+     */
+    int side();
+
+    /**
+     * @return the box size n of the n² x n² board
+     */
+    int boxSize();
+
+    /**
+     * @param index the cell index, row * side + col
+     * @return the number in the cell, 0 if empty
+     */
+    int get(int index);
+
+    /**
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @return the number in the cell, 0 if empty
+     */
+    int get(int row, int col);
+
+    /**
+     * @return a stamp that changes whenever a cell changes
+     */
+    long version();
+
+    /**
+     * @return an independent copy of the board as it is now
+     */
+    PackedBoard snapshot();
+
+    /**
+     * visits the cells of a row, left to right
+     * @param row the row
+     * @param visitor gets every cell
+     * @throws IndexOutOfBoundsException if the row is not on the board
+     */
+    default void forEachInRow(int row, CellVisitor visitor) {
+        int side = side();
+        checkUnit(row, side);
+        for (int index = row * side, end = index + side; index < end; index++){
+            visitor.visit(index, get(index));
+        }
+    }
+
+    /**
+     * visits the cells of a col, top to bottom
+     * @param col the col
+     * @param visitor gets every cell
+     * @throws IndexOutOfBoundsException if the col is not on the board
+     */
+    default void forEachInCol(int col, CellVisitor visitor) {
+        int side = side();
+        checkUnit(col, side);
+        for (int index = col, end = side * side; index < end; index += side){
+            visitor.visit(index, get(index));
+        }
+    }
+
+    /**
+     * visits the cells of a box in row order, the boxes are numbered left to right then top to bottom
+     * @param box the box
+     * @param visitor gets every cell
+     * @throws IndexOutOfBoundsException if the box is not on the board
+     */
+    default void forEachInBox(int box, CellVisitor visitor) {
+        int side = side();
+        int size = boxSize();
+        checkUnit(box, side);
+        int first = (box / size) * size * side + (box % size) * size;
+        for (int row = 0; row < size; row++){
+            for (int index = first + row * side, end = index + size; index < end; index++){
+                visitor.visit(index, get(index));
+            }
+        }
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the row, col or box is not 0 - side - 1
+     */
+    private static void checkUnit(int unit, int side) {
+        if (unit < 0 || unit >= side){
+            throw new IndexOutOfBoundsException("unit " + unit + " is not on a " + side + " x " + side + " board");
+        }
+    }
+}
@@ -8,17 +8,78 @@ public interface IModel {
     int[][] copyBoard();
 
     /**
-     * Places 1 - 9 in the specified cell
+     * getting the copy of the sudoku grid in packed form
+     */
+    PackedBoard copyPackedBoard();
+
+    /**
+     * getting the sudoku grid itself, read-only and without copying it
+     * the view follows the game, see IBoardView.version and IBoardView.snapshot
+     */
+    IBoardView getBoardView();
+
+    /**
+     * Places 1 - side (1 - 9 on a 9 x 9 board) in the specified cell
      *
      * @param number the player wants to plug in
      * @param row the row of the cell
      * @param col the col of the cell
      * @throws IllegalStateException if the game is over, or if there is already a mark in the cell
      * @throws IndexOutOfBoundsException if the cell is out of bounds
-     * Legal values for col and row would are 0 - 8
+     * Legal values for col and row would are 0 - side - 1
+     * @throws IllegalArgumentException if the number is not 1 - side
      */
     void move(int number, int row, int col) throws IllegalStateException, IndexOutOfBoundsException;
 
+    /**
+     * Places a batch of moves, e.g. a whole solution path from a bot, all or none of them
+     * every move is checked before any is placed: the cell is on the board and empty,
+     * the number is 1 - side and no two moves of the batch go to the same cell
+     *
+     * @param moves the moves packed by MoveParser.pack
+     * @param count the number of moves, starting at index 0
+     * @throws IllegalStateException if the game is over, or a cell is occupied or in the batch twice
+     * @throws IndexOutOfBoundsException if a cell is out of bounds, or the moves are shorter than count
+     * @throws IllegalArgumentException if a number is not 1 - side
+     */
+    void moveAll(int[] moves, int count) throws IllegalStateException, IndexOutOfBoundsException;
+
+    /**
+     * takes back the last move, the game goes on if it was over
+     * @return false if there is no move to take back
+     */
+    boolean undo();
+
+    /**
+     * puts back the last move taken back, until a new move is made
+     * @return false if there is no move to put back
+     */
+    boolean redo();
+
+    /**
+     * @return the number of moves on the board, the point of the history the game is at
+     */
+    int getHistoryPosition();
+
+    /**
+     * @return the number of moves in the history, the ones taken back included
+     */
+    int getHistorySize();
+
+    /**
+     * moves the game to any point of its history, as many undos or redos would
+     * @param position the number of moves to have on the board, 0 - getHistorySize()
+     * @throws IndexOutOfBoundsException if the history has no such point
+     */
+    void goTo(int position) throws IndexOutOfBoundsException;
+
+    /**
+     * the simplest step the player can take now without guessing, and why (see HintEngine)
+     * the puzzle is not solved for it, and the board is not changed
+     * @return the hint, null if the board is full or needs more than the techniques of the engine
+     */
+    Hint getHint();
+
     /**
      * checks if the number exist in the row
      * @param board current board
@@ -58,6 +119,37 @@ public interface IModel {
      */
     boolean isValidPlacement(int[][] board, int number, int row, int col);
 
+    /**
+     * check if the number can go in the cell of the model's own board without repeating in its row, col or box
+     * unlike isValidPlacement this does not scan a board, it costs O(1)
+     * @param number number the player wants to place, 1 - side
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return true if it's valid
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     * @throws IllegalArgumentException if the number is not 1 - side
+     */
+    boolean canPlace(int number, int row, int col);
+
+    /**
+     * check if the number in the cell repeats in its row, col or box, in O(1)
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return true if the cell is filled and a peer holds the same number
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     */
+    boolean hasConflict(int row, int col);
+
+    /**
+     * finds every peer (same row, col or box) that holds the same number as the cell
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return the cell indexes (row * side + col) of the conflicting peers,
+     * empty if the cell is empty or has no conflict
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     */
+    int[] conflictingPeers(int row, int col);
+
     /**
      * check if the player solved the board
      * @param board the current board
@@ -65,6 +157,30 @@ public interface IModel {
      */
     boolean solveBoard(int[][] board);
 
+    /**
+     * check if the player solved the packed board
+     * @param board the current board
+     * @return true if the player successfully solved the board
+     */
+    boolean solveBoard(PackedBoard board);
+
+    /**
+     * counts the solutions of the board, stopping as soon as the limit is reached,
+     * e.g. a limit of 2 tells a proper puzzle (1) from an ambiguous one (2)
+     * @param board the board to count, it is not changed
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    int countSolutions(int[][] board, int limit);
+
+    /**
+     * counts the solutions of the packed board, stopping as soon as the limit is reached
+     * @param board the board to count, it is not changed
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    int countSolutions(PackedBoard board, int limit);
+
     /**
      * Returns the Player whose mark is in the cell at the given coordinates
      * 0 if the cell is empty.
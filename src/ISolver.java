@@ -0,0 +1,21 @@
+/**
+ * This is the interface of a sudoku solving engine that the model hands the board to
+ * the 9 x 9 engines return false for a board of any other size, LargeBoardSolver takes every size
+ */
+public interface ISolver {
+    /**
+     * solves the board in place
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved, the board then holds the solution
+     * false if the board has no solution, the board is then left unchanged
+     */
+    boolean solve(int[][] board);
+
+    /**
+     * solves the packed board in place
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved, the board then holds the solution
+     * false if the board has no solution, the board is then left unchanged
+     */
+    boolean solve(PackedBoard board);
+}
@@ -18,6 +18,12 @@ public interface IView {
      */
     void displayBoard(int[][] board);
 
+    /**
+     * displays the board for every time the user inputs something, read through a view without copying it
+     * @param board current status of the board
+     */
+    void displayBoard(IBoardView board);
+
 
     /**
      * this shows if the player successfully solves the game!
@@ -29,4 +35,10 @@ public interface IView {
      * this shows if the player put in an invalid move
      */
     void showErrorMessage();
+
+    /**
+     * this shows a hint the player asked for
+     * @param hint the hint, null if there is none
+     */
+    void showHint(Hint hint);
 }
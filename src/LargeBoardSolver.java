@@ -0,0 +1,380 @@
+import java.util.Arrays;
+
+/**
+ * This is a solver for boards of any size up to 64 x 64 (see PackedBoard), e.g. 16 x 16 and 25 x 25
+ * every row, col and box keeps the numbers it holds as the bits of one long,
+ * so the candidates of a cell are one OR and one NOT away, as in the bitmask solver
+ *
+ * the plain search that is enough for 9 x 9 boards does not finish on sparse large boards,
+ * so before every branch the solver fills in what is forced:
+ * - naked singles: an empty cell with one candidate left
+ * - hidden singles: a number with one cell left in a row, col or box
+ * and then branches on the empty cell with the fewest candidates, or on the two places of a number
+ * that has only two left in a unit when no cell is down to two candidates
+ * every placement goes on a trail, so a dead branch is undone without copying the board
+ * the time a sparse 25 x 25 board takes still varies a lot from board to board,
+ * from milliseconds to seconds when an early branch is wrong deep down
+ *
+ * an instance keeps its scratch arrays between calls, so it is not safe to share between threads
+ */
+public class LargeBoardSolver implements ISolver{
+    /**
+     * the size the scratch state is laid out for
+     */
+    private int box;
+    private int side;
+    private int length;
+    private long all;
+    private int[] rowOf;
+    private int[] colOf;
+    private int[] boxOf;
+    private int[][] units;
+
+    /**
+     * scratch state of the current search
+     */
+    private int[] cells;
+    private long[] rows;
+    private long[] cols;
+    private long[] boxes;
+    private int[] trail;
+    private int trailSize;
+    private int limit;
+    private int found;
+
+    /**
+     * solves a board of any size
+     *
+     * @param board the n² x n² board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (!load(board) || !search()){
+            return false;
+        }
+        for (int i = 0; i < length; i++){
+            board[i / side][i % side] = cells[i];
+        }
+        return true;
+    }
+
+    /**
+     * solves a packed board of any size
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        if (!load(board) || !search()){
+            return false;
+        }
+        for (int i = 0; i < length; i++){
+            board.set(i, cells[i]);
+        }
+        return true;
+    }
+
+    /**
+     * counts the solutions of a board, stopping as soon as the limit is reached
+     * @param board the n² x n² board, it is not changed
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    public int countSolutions(int[][] board, int limit) {
+        if (limit < 1 || !load(board)){
+            return 0;
+        }
+        return count(limit);
+    }
+
+    /**
+     * counts the solutions of a packed board, stopping as soon as the limit is reached
+     * @param board the board, it is not changed
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    public int countSolutions(PackedBoard board, int limit) {
+        if (limit < 1 || !load(board)){
+            return 0;
+        }
+        return count(limit);
+    }
+
+    /**
+     * runs the search to the limit instead of to the first solution
+     */
+    private int count(int limit) {
+        this.limit = limit;
+        found = 0;
+        search();
+        return found;
+    }
+
+    /**
+     * lays out the scratch state for the board and fills in its givens
+     * @return false if the board is not n² x n² or the givens repeat a number in a unit
+     */
+    private boolean load(int[][] board) {
+        int box = PackedBoard.boxSizeOf(board.length);
+        if (box == 0){
+            return false;
+        }
+        resize(box);
+        for (int row = 0; row < side; row++){
+            if (board[row].length != side){
+                return false;
+            }
+            for (int col = 0; col < side; col++){
+                if (board[row][col] < 0 || board[row][col] > side){
+                    return false;
+                }
+                cells[row * side + col] = board[row][col];
+            }
+        }
+        return loadCells();
+    }
+
+    /**
+     * lays out the scratch state for the packed board and fills in its givens
+     * @return false if the givens repeat a number in a unit
+     */
+    private boolean load(PackedBoard board) {
+        resize(board.boxSize());
+        for (int i = 0; i < length; i++){
+            cells[i] = board.get(i);
+        }
+        return loadCells();
+    }
+
+    /**
+     * builds the unit masks from the cells
+     * @return false if the givens repeat a number in a unit
+     */
+    private boolean loadCells() {
+        Arrays.fill(rows, 0);
+        Arrays.fill(cols, 0);
+        Arrays.fill(boxes, 0);
+        trailSize = 0;
+        limit = 1;
+        found = 0;
+        for (int i = 0; i < length; i++){
+            if (cells[i] != 0){
+                long bit = 1L << (cells[i] - 1);
+                if (((rows[rowOf[i]] | cols[colOf[i]] | boxes[boxOf[i]]) & bit) != 0){
+                    return false;
+                }
+                rows[rowOf[i]] |= bit;
+                cols[colOf[i]] |= bit;
+                boxes[boxOf[i]] |= bit;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * allocates the tables and scratch arrays when the board size changes
+     */
+    private void resize(int box) {
+        if (box == this.box){
+            return;
+        }
+        this.box = box;
+        side = box * box;
+        length = side * side;
+        all = side == 64 ? -1L : (1L << side) - 1;
+        rowOf = new int[length];
+        colOf = new int[length];
+        boxOf = new int[length];
+        units = new int[3 * side][side];
+        int[] filled = new int[3 * side];
+        for (int i = 0; i < length; i++){
+            rowOf[i] = i / side;
+            colOf[i] = i % side;
+            boxOf[i] = (rowOf[i] / box) * box + colOf[i] / box;
+            units[rowOf[i]][filled[rowOf[i]]++] = i;
+            units[side + colOf[i]][filled[side + colOf[i]]++] = i;
+            units[2 * side + boxOf[i]][filled[2 * side + boxOf[i]]++] = i;
+        }
+        cells = new int[length];
+        rows = new long[side];
+        cols = new long[side];
+        boxes = new long[side];
+        trail = new int[length];
+    }
+
+    /**
+     * fills in the forced cells, then branches on the smallest choice left
+     * @return true once the limit of solutions is reached, with the last one in cells
+     */
+    private boolean search() {
+        int mark = trailSize;
+        if (!propagate()){
+            undo(mark);
+            return false;
+        }
+        int cell = -1;
+        long options = 0;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < length && fewest > 2; i++){
+            if (cells[i] == 0){
+                long candidates = candidates(i);
+                int count = Long.bitCount(candidates);
+                if (count < fewest){
+                    fewest = count;
+                    cell = i;
+                    options = candidates;
+                }
+            }
+        }
+        if (cell == -1){
+            found++;
+            if (found >= limit){
+                return true;
+            }
+            undo(mark);
+            return false;
+        }
+        if (fewest > 2){
+            // a number with two places left in a unit is a smaller branch than any cell
+            for (int[] unit : units){
+                long once = 0;
+                long twice = 0;
+                long more = 0;
+                for (int i : unit){
+                    if (cells[i] == 0){
+                        long candidates = candidates(i);
+                        more |= twice & candidates;
+                        twice |= once & candidates;
+                        once |= candidates;
+                    }
+                }
+                long pairs = twice & ~more;
+                if (pairs != 0){
+                    long bit = Long.lowestOneBit(pairs);
+                    for (int i : unit){
+                        if (cells[i] == 0 && (candidates(i) & bit) != 0){
+                            place(i, Long.numberOfTrailingZeros(bit) + 1);
+                            if (search()){
+                                return true;
+                            }
+                            undo(trailSize - 1);
+                        }
+                    }
+                    undo(mark);
+                    return false;
+                }
+            }
+        }
+        while (options != 0){
+            long bit = Long.lowestOneBit(options);
+            options ^= bit;
+            place(cell, Long.numberOfTrailingZeros(bit) + 1);
+            if (search()){
+                return true;
+            }
+            undo(trailSize - 1);
+        }
+        undo(mark);
+        return false;
+    }
+
+    /**
+     * places naked and hidden singles until none is left
+     * @return false if a cell or a number has no place left
+     */
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed){
+            changed = false;
+            for (int i = 0; i < length; i++){
+                if (cells[i] == 0){
+                    long candidates = candidates(i);
+                    if (candidates == 0){
+                        return false;
+                    }
+                    if ((candidates & (candidates - 1)) == 0){
+                        place(i, Long.numberOfTrailingZeros(candidates) + 1);
+                        changed = true;
+                    }
+                }
+            }
+            for (int[] unit : units){
+                long once = 0;
+                long twice = 0;
+                long placed = 0;
+                for (int i : unit){
+                    if (cells[i] == 0){
+                        long candidates = candidates(i);
+                        twice |= once & candidates;
+                        once |= candidates;
+                    } else {
+                        placed |= 1L << (cells[i] - 1);
+                    }
+                }
+                if ((once | placed) != all){
+                    return false;
+                }
+                long hidden = once & ~twice & ~placed;
+                while (hidden != 0){
+                    long bit = Long.lowestOneBit(hidden);
+                    hidden ^= bit;
+                    int cell = cellWith(unit, bit);
+                    if (cell == -1){
+                        // an earlier single of this unit took the last place of the number
+                        return false;
+                    }
+                    place(cell, Long.numberOfTrailingZeros(bit) + 1);
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the empty cell of the unit that can still take the number bit, -1 if there is none
+     */
+    private int cellWith(int[] unit, long bit) {
+        for (int i : unit){
+            if (cells[i] == 0 && (candidates(i) & bit) != 0){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the numbers the empty cell can still take, bit number - 1
+     */
+    private long candidates(int i) {
+        return ~(rows[rowOf[i]] | cols[colOf[i]] | boxes[boxOf[i]]) & all;
+    }
+
+    /**
+     * puts a number in a cell and on the trail
+     */
+    private void place(int i, int number) {
+        long bit = 1L << (number - 1);
+        cells[i] = number;
+        rows[rowOf[i]] |= bit;
+        cols[colOf[i]] |= bit;
+        boxes[boxOf[i]] |= bit;
+        trail[trailSize++] = i;
+    }
+
+    /**
+     * takes every placement after the mark off the trail
+     */
+    private void undo(int mark) {
+        while (trailSize > mark){
+            int i = trail[--trailSize];
+            long bit = ~(1L << (cells[i] - 1));
+            rows[rowOf[i]] &= bit;
+            cols[colOf[i]] &= bit;
+            boxes[boxOf[i]] &= bit;
+            cells[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This reads a file of puzzle lines (see PuzzleFormat) by memory mapping it
+ * the file is mapped in regions of at most 2 GB, every region ends on a line break,
+ * and each region is cut into line aligned chunks that workers can parse in parallel
+ * straight from the mapped bytes, without a String per puzzle
+ */
+public class MappedPuzzleReader implements Closeable {
+    /**
+     * the default size of a chunk in bytes, about 12,000 puzzles
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * the largest region a single map call can cover
+     */
+    static final long MAX_REGION_BYTES = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final List<Chunk> chunks;
+
+    /**
+     * maps the file with the default chunk size
+     * @param file the puzzle file
+     * @throws IOException if the file cannot be mapped
+     */
+    public MappedPuzzleReader(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * maps the file
+     * @param file the puzzle file
+     * @param chunkBytes the size a chunk grows to before it is cut at the next line break
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if chunkBytes is less than 1
+     */
+    public MappedPuzzleReader(Path file, int chunkBytes) throws IOException {
+        this(file, chunkBytes, MAX_REGION_BYTES);
+    }
+
+    /**
+     * maps the file with a given region size, smaller regions let the multi region path be tested on small files
+     * @param file the puzzle file
+     * @param chunkBytes the size a chunk grows to before it is cut at the next line break
+     * @param regionBytes the largest region to map at once
+     * @throws IOException if the file cannot be mapped, or a single line is longer than a region
+     */
+    MappedPuzzleReader(Path file, int chunkBytes, long regionBytes) throws IOException {
+        if (chunkBytes < 1 || regionBytes < 1 || regionBytes > MAX_REGION_BYTES){
+            throw new IllegalArgumentException("chunk and region sizes must be positive and regions at most 2 GB");
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.chunks = Collections.unmodifiableList(split(chunkBytes, regionBytes));
+        } catch (IOException | RuntimeException e){
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the chunks of the file in file order
+     */
+    public List<Chunk> chunks() {
+        return chunks;
+    }
+
+    /**
+     * closes the file, the mapped regions are released once the chunks are no longer referenced
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * maps the file region by region and cuts every region into chunks
+     */
+    private List<Chunk> split(int chunkBytes, long regionBytes) throws IOException {
+        List<Chunk> result = new ArrayList<>();
+        long size = channel.size();
+        long regionStart = 0;
+        while (regionStart < size){
+            long regionSize = Math.min(regionBytes, size - regionStart);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+            int end = (int) regionSize;
+            if (regionStart + regionSize < size){
+                // leave a line that runs past the region for the next region
+                end = lastLineBreak(region, end) + 1;
+                if (end == 0){
+                    throw new IOException("line at byte " + regionStart + " is longer than a region");
+                }
+            }
+            int start = 0;
+            while (start < end){
+                int cut = (int) Math.min((long) start + chunkBytes, end);
+                while (cut < end && region.get(cut - 1) != '\n'){
+                    cut++;
+                }
+                result.add(new Chunk(region, start, cut, result.size()));
+                start = cut;
+            }
+            regionStart += end;
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the last line break before end, -1 if there is none
+     */
+    private static int lastLineBreak(ByteBuffer region, int end) {
+        for (int i = end - 1; i >= 0; i--){
+            if (region.get(i) == '\n'){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This is a line aligned piece of a mapped region
+     * it is a cursor over its lines, so one chunk should be read by one thread at a time
+     */
+    public static final class Chunk {
+        /**
+         * the results of next
+         */
+        public static final int END = -1;
+        public static final int INVALID = 0;
+        public static final int PUZZLE = 1;
+
+        private final ByteBuffer region;
+        private final int start;
+        private final int end;
+        private final int index;
+        private int position;
+        private int lineStart;
+        private int lineEnd;
+
+        /**
+         * @param region the mapped region, only read with absolute gets
+         * @param start the first byte of the chunk in the region
+         * @param end the byte just after the chunk
+         * @param index the place of the chunk in the file
+         */
+        private Chunk(ByteBuffer region, int start, int end, int index) {
+            this.region = region;
+            this.start = start;
+            this.end = end;
+            this.index = index;
+            this.position = start;
+        }
+
+        /**
+         * @return the place of the chunk in the file, 0 for the first
+         */
+        public int index() {
+            return index;
+        }
+
+        /**
+         * @return the size of the chunk in bytes
+         */
+        public int length() {
+            return end - start;
+        }
+
+        /**
+         * moves the cursor back to the first line
+         */
+        public void rewind() {
+            position = start;
+        }
+
+        /**
+         * reads the next line that is not blank, lines that are empty or all whitespace are skipped
+         * as in the reader path of BatchSolver
+         * @param cells receives the puzzle when the line is one
+         * @return PUZZLE if cells holds the puzzle of the line, INVALID if the line is not a puzzle,
+         * END if there are no more lines
+         */
+        public int next(int[] cells) {
+            while (position < end){
+                lineStart = position;
+                int i = position;
+                while (i < end && region.get(i) != '\n'){
+                    i++;
+                }
+                position = i + 1;
+                lineEnd = i > lineStart && region.get(i - 1) == '\r' ? i - 1 : i;
+                if (!isBlank(lineStart, lineEnd)){
+                    return PuzzleFormat.parse(region, lineStart, lineEnd, cells) ? PUZZLE : INVALID;
+                }
+            }
+            return END;
+        }
+
+        /**
+         * @return true if the bytes from - to - 1 are all whitespace, e.g. spaces and tabs, or there are none
+         */
+        private boolean isBlank(int from, int to) {
+            for (int i = from; i < to; i++){
+                byte b = region.get(i);
+                if (!Character.isWhitespace((char) (b & 0xFF))){
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the length of the line last returned by next, without the line break
+         */
+        public int lineLength() {
+            return lineEnd - lineStart;
+        }
+
+        /**
+         * copies the bytes of the line last returned by next, without the line break
+         * @param out the array to copy to
+         * @param offset where to copy to
+         * @return the offset just after the copied bytes
+         */
+        public int copyLine(byte[] out, int offset) {
+            for (int i = lineStart; i < lineEnd; i++){
+                out[offset++] = region.get(i);
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+import java.util.Arrays;
+
+/**
+ * This is the history of a game for undo and redo: every move packed into one int
+ * (see MoveParser.pack) in a journal, and a snapshot of the board every INTERVAL moves
+ * a snapshot is the board row by row, and a row that is the same as in the snapshot before
+ * is shared with it instead of copied, so a game that moves in a few rows between snapshots
+ * only pays for those rows
+ *
+ * moves go in one direction: undo steps back over the journal and redo forward again,
+ * a new move after an undo drops the moves that were undone and the snapshots after them
+ * the history only knows the moves, the model applies them to its board (see sudokuModel.goTo)
+ */
+final class MoveHistory {
+    /**
+     * the number of moves between snapshots
+     */
+    static final int INTERVAL = 16;
+
+    private final int side;
+    private int[] journal = new int[INTERVAL];
+    private int size;
+    private int position;
+
+    /**
+     * snapshot s is the board after s * INTERVAL moves
+     */
+    private byte[][][] snapshots = new byte[4][][];
+    private int snapshotCount;
+
+    /**
+     * constructor for the history of a game, the board is the start of the game
+     * @param board the starting board
+     */
+    MoveHistory(PackedBoard board){
+        this.side = board.side();
+        snapshots[0] = rows(board, null);
+        snapshotCount = 1;
+    }
+
+    /**
+     * @return the number of moves applied, the point of the history the board is at
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * @return the number of moves in the history, undone ones included
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param index the index of a move, 0 - size - 1
+     * @return the packed move
+     */
+    int moveAt(int index) {
+        return journal[index];
+    }
+
+    /**
+     * adds a move the model just placed, dropping the moves that were undone
+     * @param move the packed move
+     * @param board the board after the move
+     */
+    void record(int move, PackedBoard board) {
+        size = position;
+        snapshotCount = Math.min(snapshotCount, position / INTERVAL + 1);
+        if (size == journal.length){
+            journal = Arrays.copyOf(journal, 2 * journal.length);
+        }
+        journal[size++] = move;
+        position = size;
+        if (position % INTERVAL == 0){
+            if (snapshotCount == snapshots.length){
+                snapshots = Arrays.copyOf(snapshots, 2 * snapshots.length);
+            }
+            snapshots[snapshotCount] = rows(board, snapshots[snapshotCount - 1]);
+            snapshotCount++;
+        }
+    }
+
+    /**
+     * steps back one move
+     * @return the move to take off the board
+     * @throws IllegalStateException if there is no move to undo
+     */
+    int undo() {
+        if (position == 0){
+            throw new IllegalStateException("nothing to undo");
+        }
+        return journal[--position];
+    }
+
+    /**
+     * steps forward one move
+     * @return the move to put back on the board
+     * @throws IllegalStateException if there is no move to redo
+     */
+    int redo() {
+        if (position == size){
+            throw new IllegalStateException("nothing to redo");
+        }
+        return journal[position++];
+    }
+
+    /**
+     * @param target a point of the history, 0 - size
+     * @return the point of the snapshot closest to it
+     */
+    int closestSnapshot(int target) {
+        int before = target / INTERVAL;
+        if (before + 1 < snapshotCount && (before + 1) * INTERVAL - target < target - before * INTERVAL){
+            return (before + 1) * INTERVAL;
+        }
+        return before * INTERVAL;
+    }
+
+    /**
+     * @param point a point of the history with a snapshot, see closestSnapshot
+     * @return the board at that point, row by row, not to be changed
+     */
+    byte[][] snapshotAt(int point) {
+        return snapshots[point / INTERVAL];
+    }
+
+    /**
+     * moves to a point after the model put the snapshot of it on the board
+     * @param point a point of the history with a snapshot
+     */
+    void jumpTo(int point) {
+        position = point;
+    }
+
+    /**
+     * @return the board row by row, sharing the rows that are the same as in the previous snapshot
+     */
+    private byte[][] rows(PackedBoard board, byte[][] previous) {
+        byte[] cells = board.cells();
+        byte[][] rows = new byte[side][];
+        for (int row = 0; row < side; row++){
+            int from = row * side;
+            if (previous != null && Arrays.equals(cells, from, from + side, previous[row], 0, side)){
+                rows[row] = previous[row];
+            } else {
+                rows[row] = Arrays.copyOfRange(cells, from, from + side);
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,187 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This reads moves, one or many per line, straight from the characters or bytes of the input:
+ * no splitting, no String per number
+ *
+ * moves are separated by spaces, tabs or commas; a line (or a part of a line ended by ;)
+ * is either
+ * - moves of three digits each, number row col as on the console: "123 456,789"
+ * - one move of three numbers, for boards larger than 9 x 9: "16 0 12"
+ * so a whole solution path fits on one line, e.g. "301 502 ... 788"
+ *
+ * every move is packed into one int, see pack, numberOf, rowOf and colOf; the numbers are only
+ * checked to be 0 - 999 here, the model checks them against its board
+ *
+ * an instance keeps its move array between calls, so it is not safe to share between threads
+ */
+public class MoveParser {
+    /**
+     * the bits of each of number, row and col in a packed move
+     */
+    private static final int BITS = 10;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private int[] moves = new int[16];
+    private final Ascii ascii = new Ascii();
+
+    /**
+     * parses moves from text, e.g. a line typed on the console
+     * @param text the moves
+     * @return the number of moves, they are in moves() from index 0
+     * @throws IllegalArgumentException if the text is not moves, nothing is kept then
+     */
+    public int parse(CharSequence text) {
+        int count = 0;
+        int length = text.length();
+        // the numbers of the current line part: how many, how many were not three digits, the last three
+        int tokens = 0;
+        int shortTokens = 0;
+        int first = 0;
+        int second = 0;
+        int third = 0;
+        int start = count;
+        int value = 0;
+        int digits = 0;
+        for (int i = 0; i <= length; i++){
+            char c = i == length ? '\n' : text.charAt(i);
+            if (c >= '0' && c <= '9'){
+                if (++digits > 3){
+                    throw new IllegalArgumentException("a number of more than 3 digits at " + (i - 3));
+                }
+                value = value * 10 + c - '0';
+                continue;
+            }
+            if (c != ' ' && c != '\t' && c != ',' && c != ';' && c != '\n' && c != '\r'){
+                throw new IllegalArgumentException("not a move at " + i);
+            }
+            if (digits > 0){
+                if (digits == 3){
+                    // three digits can be a whole move, keep it as one until the line part says otherwise
+                    count = add(count, pack(value / 100, value / 10 % 10, value % 10));
+                } else {
+                    shortTokens++;
+                }
+                tokens++;
+                first = second;
+                second = third;
+                third = value;
+                value = 0;
+                digits = 0;
+            }
+            if (c == ';' || c == '\n'){
+                if (shortTokens > 0){
+                    if (tokens != 3){
+                        throw new IllegalArgumentException("a move is three digits or three numbers, at " + i);
+                    }
+                    count = add(start, pack(first, second, third));
+                }
+                tokens = 0;
+                shortTokens = 0;
+                start = count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * parses moves from ASCII bytes, e.g. a file of moves
+     * @param bytes the moves
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the number of moves, they are in moves() from index 0
+     * @throws IllegalArgumentException if the bytes are not moves
+     * @throws IndexOutOfBoundsException if the range does not fit the array
+     */
+    public int parse(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length){
+            throw new IndexOutOfBoundsException("no " + length + " bytes at " + offset + " of " + bytes.length);
+        }
+        ascii.bytes = bytes;
+        ascii.offset = offset;
+        ascii.length = length;
+        try {
+            return parse(ascii);
+        } finally {
+            ascii.bytes = null;
+        }
+    }
+
+    /**
+     * @return the moves of the last parse, in order, reused by the next parse
+     */
+    public int[] moves() {
+        return moves;
+    }
+
+    /**
+     * @param number the number, 0 - 999
+     * @param row the row, 0 - 999
+     * @param col the col, 0 - 999
+     * @return the move packed into one int
+     */
+    public static int pack(int number, int row, int col) {
+        return number << 2 * BITS | row << BITS | col;
+    }
+
+    /**
+     * @param move a packed move
+     * @return its number
+     */
+    public static int numberOf(int move) {
+        return move >>> 2 * BITS;
+    }
+
+    /**
+     * @param move a packed move
+     * @return its row
+     */
+    public static int rowOf(int move) {
+        return move >>> BITS & MASK;
+    }
+
+    /**
+     * @param move a packed move
+     * @return its col
+     */
+    public static int colOf(int move) {
+        return move & MASK;
+    }
+
+    /**
+     * puts a move at an index, growing the array when it is full
+     * @return the count after the move
+     */
+    private int add(int index, int move) {
+        if (index == moves.length){
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        }
+        moves[index] = move;
+        return index + 1;
+    }
+
+    /**
+     * This is a range of ASCII bytes seen as characters, without decoding them
+     */
+    private static final class Ascii implements CharSequence {
+        private byte[] bytes;
+        private int offset;
+        private int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[offset + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, offset + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,432 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * This plays the controller's move protocol over plain sockets, one game per connection,
+ * with a few selector threads for any number of connections instead of a blocking reader each
+ *
+ * a client sends lines, the server answers every line with one line:
+ * - NRC, the three digit move of the console (number 1 - 9, row, col): ok, or invalid if the
+ *   move is not allowed; the move that fills the board is answered ok and then won or lost
+ * - b: the board as a puzzle line (see PuzzleFormat)
+ * - u, r: undo or redo a move: ok, or invalid if there is none
+ * - h: the simplest next step and why (see HintEngine), or none
+ * - anything else: invalid, a blank line gets no answer
+ *
+ * every selector thread reads into one buffer of its own and parses the lines in place, so the
+ * bytes of a move are never copied into a String; a connection only keeps the (at most 3)
+ * bytes of a line that is split between two reads, and the replies the socket did not take yet
+ * a client that stops reading its replies is not read from until it catches up,
+ * and is dropped once MAX_BACKLOG bytes of replies wait for it
+ */
+public class MoveServer implements AutoCloseable {
+    /**
+     * the size of the read and the reply buffer of every selector thread
+     */
+    private static final int BUFFER = 1 << 16;
+
+    /**
+     * the most reply bytes kept for a client that does not read them
+     */
+    private static final int MAX_BACKLOG = 1 << 16;
+
+    private static final byte[] OK = "ok\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INVALID = "invalid\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] WON = "won\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LOST = "lost\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocketChannel server;
+    private final Supplier<IModel> models;
+    private final Loop[] loops;
+    private final Thread[] threads;
+    private final AtomicInteger connections = new AtomicInteger();
+    private int nextLoop;
+    private volatile boolean closed;
+
+    /**
+     * constructor for a server of games on the default board, with a selector thread per core
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public MoveServer(int port) throws IOException {
+        this(new InetSocketAddress(port), Runtime.getRuntime().availableProcessors(), sudokuModel::new);
+    }
+
+    /**
+     * constructor for a server, it does not accept connections until start is called
+     * @param address the address to bind
+     * @param threads the number of selector threads
+     * @param models makes the model of every new connection
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public MoveServer(InetSocketAddress address, int threads, Supplier<IModel> models) throws IOException {
+        if (threads < 1){
+            throw new IllegalArgumentException("need at least one thread");
+        }
+        this.models = models;
+        this.loops = new Loop[threads];
+        this.threads = new Thread[threads];
+        for (int i = 0; i < threads; i++){
+            loops[i] = new Loop();
+        }
+        this.server = ServerSocketChannel.open();
+        server.bind(address);
+        server.configureBlocking(false);
+        server.register(loops[0].selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * starts the selector threads
+     */
+    public void start() {
+        for (int i = 0; i < loops.length; i++){
+            threads[i] = new Thread(loops[i], "move-server-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * @return the port the server listens on
+     * @throws IOException if the server is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * @return the number of open connections
+     */
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * stops the selector threads and closes every connection
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Loop loop : loops){
+            loop.selector.wakeup();
+        }
+        for (Thread thread : threads){
+            if (thread != null){
+                try {
+                    thread.join();
+                } catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        for (Loop loop : loops){
+            loop.close();
+        }
+        try {
+            server.close();
+        } catch (IOException e){
+            // closing anyway
+        }
+    }
+
+    /**
+     * This is the game of one connection and what is left over between reads
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final IModel model;
+        /**
+         * the first bytes of the current line, one byte each, and how long the line is so far
+         */
+        private int line;
+        private int length;
+        /**
+         * replies the socket did not take yet, null if there are none
+         */
+        private ByteBuffer backlog;
+
+        private Connection(SocketChannel channel, IModel model){
+            this.channel = channel;
+            this.model = model;
+        }
+    }
+
+    /**
+     * This is a selector thread with its buffers
+     */
+    private final class Loop implements Runnable {
+        private final Selector selector;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER);
+        private final ConcurrentLinkedQueue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+
+        private Loop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        /**
+         * serves the connections of this thread until the server is closed
+         */
+        @Override
+        public void run() {
+            try {
+                while (!closed){
+                    selector.select();
+                    SocketChannel channel;
+                    while ((channel = accepted.poll()) != null){
+                        register(channel);
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()){
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        if (!key.isValid()){
+                            continue;
+                        }
+                        if (key.isAcceptable()){
+                            accept();
+                        } else {
+                            serve(key);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e){
+                // the selector failed or the server is closing, the connections are closed in close
+            }
+        }
+
+        /**
+         * takes the pending connections and hands them to the selector threads in turn
+         */
+        private void accept() throws IOException {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null){
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Loop loop = loops[nextLoop];
+                nextLoop = (nextLoop + 1) % loops.length;
+                if (loop == this){
+                    register(channel);
+                } else {
+                    loop.accepted.add(channel);
+                    loop.selector.wakeup();
+                }
+            }
+        }
+
+        /**
+         * starts a game for a new connection on this thread
+         */
+        private void register(SocketChannel channel) {
+            try {
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel, models.get()));
+                connections.incrementAndGet();
+            } catch (IOException e){
+                closeQuietly(channel);
+            }
+        }
+
+        /**
+         * writes out waiting replies, then reads and answers what the client sent
+         */
+        private void serve(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            try {
+                if (key.isWritable()){
+                    connection.channel.write(connection.backlog);
+                    if (connection.backlog.hasRemaining()){
+                        return;
+                    }
+                    connection.backlog = null;
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+                if (key.isReadable()){
+                    in.clear();
+                    if (connection.channel.read(in) < 0){
+                        drop(key);
+                        return;
+                    }
+                    in.flip();
+                    parse(connection);
+                    flush(key, connection);
+                }
+            } catch (IOException e){
+                drop(key);
+            }
+        }
+
+        /**
+         * answers every complete line of the read buffer, keeps the start of an unfinished line
+         */
+        private void parse(Connection connection) throws IOException {
+            int line = connection.line;
+            int length = connection.length;
+            for (int i = in.position(); i < in.limit(); i++){
+                byte b = in.get(i);
+                if (b == '\n'){
+                    answer(connection, line, length);
+                    line = 0;
+                    length = 0;
+                } else if (b != '\r'){
+                    if (length < 3){
+                        line |= (b & 0xFF) << (8 * length);
+                    }
+                    length++;
+                }
+            }
+            connection.line = line;
+            connection.length = length;
+        }
+
+        /**
+         * answers one line
+         * @param line the first bytes of the line, one byte each
+         * @param length the length of the line
+         */
+        private void answer(Connection connection, int line, int length) throws IOException {
+            if (length == 0){
+                return;
+            }
+            if (length == 1 && line == 'b'){
+                reply(connection, (connection.model.copyPackedBoard() + "\n").getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            if (length == 1 && line == 'h'){
+                Hint hint = connection.model.getHint();
+                reply(connection, ((hint == null ? "none" : hint.toString()) + "\n").getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            if (length == 1 && (line == 'u' || line == 'r')){
+                reply(connection, (line == 'u' ? connection.model.undo() : connection.model.redo()) ? OK : INVALID);
+                return;
+            }
+            int number = (line & 0xFF) - '0';
+            int row = (line >> 8 & 0xFF) - '0';
+            int col = (line >> 16 & 0xFF) - '0';
+            if (length != 3 || number < 1 || number > 9 || row < 0 || row > 8 || col < 0 || col > 8){
+                reply(connection, INVALID);
+                return;
+            }
+            IModel model = connection.model;
+            try {
+                if (model.getMarkAt(row, col) != 0){
+                    reply(connection, INVALID);
+                    return;
+                }
+                model.move(number, row, col);
+            } catch (IllegalStateException | IllegalArgumentException e){
+                reply(connection, INVALID);
+                return;
+            }
+            reply(connection, OK);
+            if (model.isGameOver()){
+                reply(connection, model.result(model.copyBoard()) ? WON : LOST);
+            }
+        }
+
+        /**
+         * adds a reply to the reply buffer, sending the buffer first when it is full
+         */
+        private void reply(Connection connection, byte[] text) throws IOException {
+            if (out.remaining() < text.length){
+                send(connection);
+            }
+            out.put(text);
+        }
+
+        /**
+         * sends the reply buffer after a read, and waits for the socket if it did not take it all
+         */
+        private void flush(SelectionKey key, Connection connection) throws IOException {
+            send(connection);
+            if (connection.backlog != null){
+                // no more reading until the client has taken its replies
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+        }
+
+        /**
+         * writes the reply buffer to the socket, keeping what it does not take in the backlog
+         */
+        private void send(Connection connection) throws IOException {
+            out.flip();
+            if (connection.backlog == null){
+                connection.channel.write(out);
+            }
+            if (out.hasRemaining()){
+                ByteBuffer backlog = connection.backlog;
+                if (backlog == null){
+                    backlog = ByteBuffer.allocate(Math.max(out.remaining(), 256));
+                    backlog.flip();
+                }
+                if (backlog.capacity() - backlog.remaining() < out.remaining()){
+                    backlog = ByteBuffer.allocate(2 * (backlog.remaining() + out.remaining()))
+                            .put(backlog).flip();
+                }
+                backlog.compact();
+                backlog.put(out);
+                backlog.flip();
+                connection.backlog = backlog;
+            }
+            out.clear();
+            if (connection.backlog != null && connection.backlog.remaining() > MAX_BACKLOG){
+                throw new IOException("the client does not read its replies");
+            }
+        }
+
+        /**
+         * closes a connection
+         */
+        private void drop(SelectionKey key) {
+            key.cancel();
+            closeQuietly(((Connection) key.attachment()).channel);
+            connections.decrementAndGet();
+            out.clear();
+        }
+
+        /**
+         * closes the selector and the connections still on it
+         */
+        private void close() {
+            try {
+                for (SelectionKey key : selector.keys()){
+                    if (key.attachment() instanceof Connection){
+                        drop(key);
+                    }
+                }
+                selector.close();
+            } catch (IOException | ClosedSelectorException e){
+                // closing anyway
+            }
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null){
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    /**
+     * closes a channel, ignoring a failure
+     */
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e){
+            // it is being dropped anyway
+        }
+    }
+}
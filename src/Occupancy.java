@@ -0,0 +1,183 @@
+import java.util.Arrays;
+
+/**
+ * This tracks which numbers each row, col and box of a board holds, updated one move at a time
+ * it keeps a count per (unit, number) because a player can place a number twice in a unit,
+ * and a mask per unit (bit number - 1 set if the count is above 0) for the O(1) checks,
+ * plus how many (unit, number) pairs are there more than once, so a full board is known to be solved in O(1)
+ * the masks are longs, so any board up to 64 x 64 fits
+ */
+public final class Occupancy {
+    private static final int[] NO_CELLS = new int[0];
+
+    private final int box;
+    private final int side;
+    private final byte[] rowCount;
+    private final byte[] colCount;
+    private final byte[] boxCount;
+    private final long[] rowMask;
+    private final long[] colMask;
+    private final long[] boxMask;
+    private int repeats;
+
+    /**
+     * constructor that records every filled cell of the board
+     * @param board the starting board
+     */
+    public Occupancy(PackedBoard board){
+        this.box = board.boxSize();
+        this.side = board.side();
+        this.rowCount = new byte[side * (side + 1)];
+        this.colCount = new byte[side * (side + 1)];
+        this.boxCount = new byte[side * (side + 1)];
+        this.rowMask = new long[side];
+        this.colMask = new long[side];
+        this.boxMask = new long[side];
+        for (int i = 0; i < board.length(); i++){
+            if (board.get(i) != 0){
+                add(i / side, i % side, board.get(i));
+            }
+        }
+    }
+
+    /**
+     * records a number placed in a cell
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @param number the number, 1 - side
+     */
+    public void add(int row, int col, int number) {
+        int box = box(row, col);
+        long bit = 1L << (number - 1);
+        if (++rowCount[row * (side + 1) + number] == 2){
+            repeats++;
+        }
+        if (++colCount[col * (side + 1) + number] == 2){
+            repeats++;
+        }
+        if (++boxCount[box * (side + 1) + number] == 2){
+            repeats++;
+        }
+        rowMask[row] |= bit;
+        colMask[col] |= bit;
+        boxMask[box] |= bit;
+    }
+
+    /**
+     * records a number taken out of a cell
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @param number the number, 1 - side
+     */
+    public void remove(int row, int col, int number) {
+        int box = box(row, col);
+        long bit = 1L << (number - 1);
+        int count = --rowCount[row * (side + 1) + number];
+        if (count == 0){
+            rowMask[row] &= ~bit;
+        } else if (count == 1){
+            repeats--;
+        }
+        count = --colCount[col * (side + 1) + number];
+        if (count == 0){
+            colMask[col] &= ~bit;
+        } else if (count == 1){
+            repeats--;
+        }
+        count = --boxCount[box * (side + 1) + number];
+        if (count == 0){
+            boxMask[box] &= ~bit;
+        } else if (count == 1){
+            repeats--;
+        }
+    }
+
+    /**
+     * @param number the number, 1 - side
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @return true if the number is not yet in the row, col or box of the cell
+     */
+    public boolean canPlace(int number, int row, int col) {
+        return ((rowMask[row] | colMask[col] | boxMask[box(row, col)]) & (1L << (number - 1))) == 0;
+    }
+
+    /**
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @param number the number in the cell
+     * @return true if the number appears more than once in the row, col or box of the cell
+     */
+    public boolean hasConflict(int row, int col, int number) {
+        return rowCount[row * (side + 1) + number] > 1
+                || colCount[col * (side + 1) + number] > 1
+                || boxCount[box(row, col) * (side + 1) + number] > 1;
+    }
+
+    /**
+     * @return true if any row, col or box holds a number more than once
+     */
+    public boolean hasRepeats() {
+        return repeats > 0;
+    }
+
+    /**
+     * @param row the row
+     * @return the mask of numbers in the row, bit number - 1
+     */
+    public long rowMask(int row) {
+        return rowMask[row];
+    }
+
+    /**
+     * @param col the col
+     * @return the mask of numbers in the col, bit number - 1
+     */
+    public long colMask(int col) {
+        return colMask[col];
+    }
+
+    /**
+     * @param box the box, left to right then top to bottom
+     * @return the mask of numbers in the box, bit number - 1
+     */
+    public long boxMask(int box) {
+        return boxMask[box];
+    }
+
+    /**
+     * finds the peers (same row, col or box, not the cell itself) that hold the number
+     * the masks answer the common no-conflict case without looking at the board
+     *
+     * @param board the board the occupancy tracks
+     * @param number the number, 1 - side
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @return the cell indexes (row * side + col) of the peers, in row order
+     */
+    public int[] peersHolding(PackedBoard board, int number, int row, int col) {
+        if (canPlace(number, row, col)){
+            return NO_CELLS;
+        }
+        int[] found = new int[3 * side];
+        int count = 0;
+        int boxRow = row - row % box;
+        int boxCol = col - col % box;
+        for (int r = 0; r < side; r++){
+            for (int c = 0; c < side; c++){
+                boolean peer = r == row || c == col || (r - r % box == boxRow && c - c % box == boxCol);
+                if (peer && (r != row || c != col) && board.get(r, c) == number){
+                    found[count++] = r * side + c;
+                }
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * @return the box of a cell, left to right then top to bottom
+     */
+    private int box(int row, int col) {
+        return (row / box) * box + col / box;
+    }
+}
@@ -0,0 +1,367 @@
+import java.util.Arrays;
+
+/**
+ * This is a compact sudoku board: the cells in row order, one byte each, 0 for empty
+ * it is one object with one array instead of the 10 arrays of an int[9][9],
+ * so copying is a single arraycopy and equality a single array compare
+ *
+ * a board is 9 x 9 unless it is made with another box size: boxes of n x n cells give
+ * an n² x n² board holding 1 - n², e.g. 16 x 16 for n = 4 and 25 x 25 for n = 5
+ *
+ * a board is its own view (see IBoardView), view() gives one that cannot be cast back to change it
+ */
+public final class PackedBoard implements IBoardView {
+    /**
+     * the number of cells of a 9 x 9 board
+     */
+    public static final int SIZE = 81;
+
+    /**
+     * the largest box size, so that the numbers of a unit fit the bits of a long
+     */
+    public static final int MAX_BOX_SIZE = 8;
+
+    private final byte[] cells;
+    private final int box;
+    private final int side;
+    private long version;
+
+    /**
+     * constructor for an empty 9 x 9 board
+     */
+    public PackedBoard(){
+        this(3);
+    }
+
+    /**
+     * constructor for an empty board of any size
+     * @param box the box size n, the board is n² x n²
+     * @throws IllegalArgumentException if the box size is not 2 - 8
+     */
+    public PackedBoard(int box){
+        this(box, new byte[checkedBox(box) * box * box * box]);
+    }
+
+    /**
+     * constructor that takes ownership of the cells
+     * @param box the box size
+     * @param cells the cells in row order
+     */
+    private PackedBoard(int box, byte[] cells){
+        this.box = box;
+        this.side = box * box;
+        this.cells = cells;
+    }
+
+    /**
+     * packs a board
+     * @param board the n² x n² board, 0 for empty
+     * @return the packed board
+     * @throws IllegalArgumentException if the board is not n² x n² for n = 2 - 8 or a cell is not 0 - n²
+     */
+    public static PackedBoard of(int[][] board) {
+        int box = boxSizeOf(board.length);
+        if (box == 0){
+            throw new IllegalArgumentException("board must have n² rows, not " + board.length);
+        }
+        int side = board.length;
+        byte[] cells = new byte[side * side];
+        for (int row = 0; row < side; row++){
+            if (board[row].length != side){
+                throw new IllegalArgumentException("board must have " + side + " cols");
+            }
+            for (int col = 0; col < side; col++){
+                cells[row * side + col] = checked(board[row][col], side);
+            }
+        }
+        return new PackedBoard(box, cells);
+    }
+
+    /**
+     * packs a 9 x 9 puzzle line (see PuzzleFormat)
+     * @param line the puzzle line
+     * @return the packed board
+     * @throws IllegalArgumentException if the line is not a puzzle
+     */
+    public static PackedBoard parse(CharSequence line) {
+        int[] values = new int[SIZE];
+        if (!PuzzleFormat.parse(line, values)){
+            throw new IllegalArgumentException("not an 81 character puzzle: " + line);
+        }
+        byte[] cells = new byte[SIZE];
+        for (int i = 0; i < SIZE; i++){
+            cells[i] = (byte) values[i];
+        }
+        return new PackedBoard(3, cells);
+    }
+
+    /**
+     * packs a puzzle line of any size: n⁴ characters, . or 0 for empty and 1 - 9, A - Z for the numbers
+     * @param line the puzzle line
+     * @param box the box size n, 2 - 5 so that every number has a character
+     * @return the packed board
+     * @throws IllegalArgumentException if the line is not a puzzle of that size
+     */
+    public static PackedBoard parse(CharSequence line, int box) {
+        if (box > 5){
+            throw new IllegalArgumentException("box size must be 2 - 5 for a puzzle line");
+        }
+        PackedBoard board = new PackedBoard(box);
+        if (line.length() != board.cells.length){
+            throw new IllegalArgumentException("a puzzle line of box size " + box + " has "
+                    + board.cells.length + " characters, not " + line.length());
+        }
+        for (int i = 0; i < board.cells.length; i++){
+            int number = PuzzleFormat.symbolValue(line.charAt(i));
+            if (number < 0 || number > board.side){
+                throw new IllegalArgumentException("not a cell of a " + board.side + " x " + board.side
+                        + " board: " + line.charAt(i));
+            }
+            board.cells[i] = (byte) number;
+        }
+        return board;
+    }
+
+    /**
+     * @param side the number of rows of a board
+     * @return the box size of a board with that many rows, 0 if no n² x n² board has it
+     */
+    public static int boxSizeOf(int side) {
+        for (int box = 2; box <= MAX_BOX_SIZE; box++){
+            if (box * box == side){
+                return box;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the box size n of the n² x n² board
+     */
+    @Override
+    public int boxSize() {
+        return box;
+    }
+
+    /**
+     * @return the number of rows (and cols, and numbers) of the board
+     */
+    @Override
+    public int side() {
+        return side;
+    }
+
+    /**
+     * @return the number of cells of the board
+     */
+    public int length() {
+        return cells.length;
+    }
+
+    /**
+     * @return the cells themselves, not a copy, for bulk reads such as GridValidator and MoveHistory
+     */
+    byte[] cells() {
+        return cells;
+    }
+
+    /**
+     * @param index the cell index, row * side + col
+     * @return the number in the cell, 0 if empty
+     */
+    @Override
+    public int get(int index) {
+        return cells[index];
+    }
+
+    /**
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @return the number in the cell, 0 if empty
+     */
+    @Override
+    public int get(int row, int col) {
+        return cells[row * side + col];
+    }
+
+    /**
+     * @param index the cell index, row * side + col
+     * @param number the number to put in the cell, 0 to empty it
+     * @throws IllegalArgumentException if the number is not 0 - side
+     */
+    public void set(int index, int number) {
+        cells[index] = checked(number, side);
+        version++;
+    }
+
+    /**
+     * @param row the row of the cell
+     * @param col the col of the cell
+     * @param number the number to put in the cell, 0 to empty it
+     * @throws IllegalArgumentException if the number is not 0 - side
+     */
+    public void set(int row, int col, int number) {
+        cells[row * side + col] = checked(number, side);
+        version++;
+    }
+
+    /**
+     * @return the number of empty cells
+     */
+    public int emptyCount() {
+        int count = 0;
+        for (byte cell : cells){
+            if (cell == 0){
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return an independent copy of the board
+     */
+    public PackedBoard copy() {
+        return new PackedBoard(box, cells.clone());
+    }
+
+    /**
+     * overwrites this board with another one of the same size, without allocating
+     * @param other the board to copy from
+     * @throws IllegalArgumentException if the other board has another size
+     */
+    public void copyFrom(PackedBoard other) {
+        if (other.side != side){
+            throw new IllegalArgumentException("cannot copy a " + other.side + " x " + other.side
+                    + " board into a " + side + " x " + side + " board");
+        }
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        version++;
+    }
+
+    /**
+     * @return the number of changes made to the board, a copy starts again at 0
+     */
+    @Override
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return an independent copy of the board
+     */
+    @Override
+    public PackedBoard snapshot() {
+        return copy();
+    }
+
+    /**
+     * @return a read-only view of this board that follows its changes
+     */
+    public IBoardView view() {
+        return new ReadOnly();
+    }
+
+    /**
+     * @return the board as a new side x side array
+     */
+    public int[][] toArray() {
+        int[][] board = new int[side][side];
+        copyInto(board);
+        return board;
+    }
+
+    /**
+     * writes the board into an existing side x side array
+     * @param board the array to write to
+     */
+    public void copyInto(int[][] board) {
+        for (int i = 0; i < cells.length; i++){
+            board[i / side][i % side] = cells[i];
+        }
+    }
+
+    /**
+     * @param o the other object
+     * @return true if o is a board with the same cells
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PackedBoard && Arrays.equals(cells, ((PackedBoard) o).cells);
+    }
+
+    /**
+     * @return a hash of the cells
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(cells);
+    }
+
+    /**
+     * @return the board as a puzzle line, one character per cell
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(cells.length);
+        for (byte cell : cells){
+            out.append(PuzzleFormat.symbol(cell));
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return the number as a byte if it is 0 - side
+     */
+    private static byte checked(int number, int side) {
+        if (number < 0 || number > side){
+            throw new IllegalArgumentException("a cell holds 0 - " + side + ", not " + number);
+        }
+        return (byte) number;
+    }
+
+    /**
+     * @return the box size if it is 2 - 8
+     */
+    private static int checkedBox(int box) {
+        if (box < 2 || box > MAX_BOX_SIZE){
+            throw new IllegalArgumentException("box size must be 2 - " + MAX_BOX_SIZE + ", not " + box);
+        }
+        return box;
+    }
+
+    /**
+     * This is a view of the board without the methods that change it
+     */
+    private final class ReadOnly implements IBoardView {
+        @Override
+        public int side() {
+            return side;
+        }
+
+        @Override
+        public int boxSize() {
+            return box;
+        }
+
+        @Override
+        public int get(int index) {
+            return cells[index];
+        }
+
+        @Override
+        public int get(int row, int col) {
+            return cells[row * side + col];
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+
+        @Override
+        public PackedBoard snapshot() {
+            return copy();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This is a solver that splits the search tree of one board across the cores of a ForkJoinPool
+ * the first splitDepth branch points each fork one task per candidate of the cell with the fewest candidates,
+ * below that every task runs the bitmask search on its own subtree
+ * as soon as one task finds the solution every other task stops at its next search node
+ *
+ * the solver itself holds no search state, so one instance can be shared between threads
+ */
+public class ParallelSolver implements ISolver{
+    /**
+     * the default number of branch levels that are forked into tasks
+     */
+    public static final int DEFAULT_SPLIT_DEPTH = 3;
+
+    /**
+     * one bitmask solver per worker thread, so the subtree searches do not allocate
+     */
+    private static final ThreadLocal<BitmaskSolver> WORKER_SOLVER = ThreadLocal.withInitial(BitmaskSolver::new);
+
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+
+    /**
+     * constructor for the parallel solver on the common pool with the default split depth
+     */
+    public ParallelSolver(){
+        this(ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    /**
+     * constructor for the parallel solver on the common pool
+     * @param splitDepth how many branch levels are forked into tasks, 0 runs the whole search in one task
+     * @throws IllegalArgumentException if the split depth is negative
+     */
+    public ParallelSolver(int splitDepth){
+        this(ForkJoinPool.commonPool(), splitDepth);
+    }
+
+    /**
+     * constructor for the parallel solver
+     * @param pool the pool that runs the tasks
+     * @param splitDepth how many branch levels are forked into tasks, 0 runs the whole search in one task
+     * @throws IllegalArgumentException if the split depth is negative
+     */
+    public ParallelSolver(ForkJoinPool pool, int splitDepth){
+        if (splitDepth < 0){
+            throw new IllegalArgumentException("split depth cannot be negative");
+        }
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+    }
+
+    /**
+     * solves the board with forked subtree searches
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (board.length != 9){
+            return false;
+        }
+        int[] cells = new int[81];
+        for (int i = 0; i < 81; i++){
+            cells[i] = board[i / 9][i % 9];
+            if (cells[i] < 0 || cells[i] > 9){
+                return false;
+            }
+        }
+        int[] solution = search(cells);
+        if (solution == null){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board[i / 9][i % 9] = solution[i];
+        }
+        return true;
+    }
+
+    /**
+     * solves the packed board with forked subtree searches
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        if (board.side() != 9){
+            return false;
+        }
+        int[] cells = new int[81];
+        for (int i = 0; i < 81; i++){
+            cells[i] = board.get(i);
+        }
+        int[] solution = search(cells);
+        if (solution == null){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board.set(i, solution[i]);
+        }
+        return true;
+    }
+
+    /**
+     * runs the forked search from the root
+     * @param cells the board as 81 cells in row order
+     * @return the solved cells, null if there is no solution
+     */
+    private int[] search(int[] cells) {
+        Search search = new Search();
+        pool.invoke(new BranchTask(search, cells, 0));
+        return search.solution.get();
+    }
+
+    /**
+     * the state shared by all tasks of one solve
+     */
+    private static final class Search {
+        private final AtomicBoolean found = new AtomicBoolean();
+        private final AtomicReference<int[]> solution = new AtomicReference<>();
+
+        /**
+         * records the solution if it is the first one and tells every other task to stop
+         * @param cells the solved cells
+         */
+        void finish(int[] cells) {
+            if (solution.compareAndSet(null, cells)){
+                found.set(true);
+            }
+        }
+    }
+
+    /**
+     * a task that owns the subtree below one partially filled board
+     */
+    private final class BranchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // tasks are never serialized, the shared state stays with the solve that made it
+        private final transient Search search;
+        private final int[] cells;
+        private final int depth;
+
+        /**
+         * @param search the shared state of the solve
+         * @param cells the partially filled board, owned by this task
+         * @param depth how many branch points are above this task
+         */
+        BranchTask(Search search, int[] cells, int depth) {
+            this.search = search;
+            this.cells = cells;
+            this.depth = depth;
+        }
+
+        /**
+         * forks one task per candidate, or searches the subtree once deep enough
+         */
+        @Override
+        protected void compute() {
+            if (search.found.get()){
+                return;
+            }
+            if (depth >= splitDepth){
+                if (WORKER_SOLVER.get().solve(cells, search.found)){
+                    search.finish(cells);
+                }
+                return;
+            }
+
+            int[] rows = new int[9];
+            int[] cols = new int[9];
+            int[] boxes = new int[9];
+            for (int i = 0; i < 81; i++){
+                if (cells[i] != 0){
+                    int bit = 1 << (cells[i] - 1);
+                    int box = BitmaskSolver.BOX_OF[i];
+                    if (((rows[i / 9] | cols[i % 9] | boxes[box]) & bit) != 0){
+                        // the givens repeat a number in a unit
+                        return;
+                    }
+                    rows[i / 9] |= bit;
+                    cols[i % 9] |= bit;
+                    boxes[box] |= bit;
+                }
+            }
+            int cell = -1;
+            int options = 0;
+            int fewest = 10;
+            for (int i = 0; i < 81 && fewest > 1; i++){
+                if (cells[i] == 0){
+                    int candidates = ~(rows[i / 9] | cols[i % 9] | boxes[BitmaskSolver.BOX_OF[i]]) & BitmaskSolver.ALL;
+                    int count = Integer.bitCount(candidates);
+                    if (count < fewest){
+                        fewest = count;
+                        cell = i;
+                        options = candidates;
+                    }
+                }
+            }
+            if (cell == -1){
+                search.finish(cells);
+                return;
+            }
+
+            List<BranchTask> children = new ArrayList<>(fewest);
+            while (options != 0){
+                int bit = Integer.lowestOneBit(options);
+                options ^= bit;
+                int[] child = cells.clone();
+                child[cell] = Integer.numberOfTrailingZeros(bit) + 1;
+                // a forced cell does not split the tree, so it does not use up a level
+                children.add(new BranchTask(search, child, fewest == 1 ? depth : depth + 1));
+            }
+            invokeAll(children);
+        }
+    }
+}
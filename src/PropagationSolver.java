@@ -0,0 +1,267 @@
+/**
+ * This is a solver that fills in every cell it can deduce before it guesses
+ * it keeps a candidate mask for every empty cell (bit number - 1 set if the number is still possible)
+ * and repeatedly applies:
+ * naked singles - a cell with one candidate left gets that number
+ * hidden singles - a number that fits only one cell of a row, col or box goes there
+ * when nothing more can be deduced it branches on the cell with the fewest candidates
+ *
+ * an instance keeps its scratch arrays between calls, so it is not safe to share between threads
+ */
+public class PropagationSolver implements ISolver{
+    private static final int ALL = 0x1FF;
+
+    /**
+     * the 27 units (9 rows, 9 cols, 9 boxes) as lists of cell indexes,
+     * and the 20 peers of every cell
+     */
+    static final int[][] UNITS = new int[27][9];
+    static final int[][] PEERS = new int[81][20];
+
+    static {
+        for (int i = 0; i < 9; i++){
+            for (int j = 0; j < 9; j++){
+                UNITS[i][j] = i * 9 + j;
+                UNITS[9 + i][j] = j * 9 + i;
+                UNITS[18 + i][j] = ((i / 3) * 3 + j / 3) * 9 + (i % 3) * 3 + j % 3;
+            }
+        }
+        for (int cell = 0; cell < 81; cell++){
+            int count = 0;
+            for (int other = 0; other < 81; other++){
+                if (other != cell && (other / 9 == cell / 9 || other % 9 == cell % 9
+                        || (other / 27 == cell / 27 && (other % 9) / 3 == (cell % 9) / 3))){
+                    PEERS[cell][count++] = other;
+                }
+            }
+        }
+    }
+
+    /**
+     * the board to solve, the numbers placed so far (0 empty) and the candidates of the empty cells
+     */
+    private final int[] givens = new int[81];
+    private final int[] values = new int[81];
+    private final int[] candidates = new int[81];
+
+    /**
+     * saved states, one per branching depth, so a wrong guess is undone by copying back
+     */
+    private final int[][] savedValues = new int[81][81];
+    private final int[][] savedCandidates = new int[81][81];
+
+    private long guesses;
+
+    /**
+     * solves the board with propagation and minimum remaining values branching
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(int[][] board) {
+        if (board.length != 9){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            givens[i] = board[i / 9][i % 9];
+        }
+        if (!solveGivens()){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board[i / 9][i % 9] = values[i];
+        }
+        return true;
+    }
+
+    /**
+     * solves the packed board with propagation and minimum remaining values branching
+     *
+     * @param board the board to solve, 0 represents an empty cell
+     * @return true if the board was solved
+     */
+    @Override
+    public boolean solve(PackedBoard board) {
+        if (board.side() != 9){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            givens[i] = board.get(i);
+        }
+        if (!solveGivens()){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board.set(i, values[i]);
+        }
+        return true;
+    }
+
+    /**
+     * solves the board held in givens, the solution ends up in values
+     * @return true if the board was solved
+     */
+    private boolean solveGivens() {
+        guesses = 0;
+        return load() && search(0);
+    }
+
+    /**
+     * the number of guesses the last solve made, 0 means it was solved by deduction alone
+     * @return the guess count
+     */
+    public long getGuessCount() {
+        return guesses;
+    }
+
+    /**
+     * places the givens into the scratch state and removes them from their peers
+     * @return false if the givens already break a rule
+     */
+    private boolean load() {
+        for (int i = 0; i < 81; i++){
+            values[i] = 0;
+            candidates[i] = ALL;
+        }
+        for (int i = 0; i < 81; i++){
+            int number = givens[i];
+            if (number == 0){
+                continue;
+            }
+            // a given that was already taken out by an earlier given repeats in a unit
+            if (number < 0 || number > 9 || (candidates[i] & (1 << (number - 1))) == 0){
+                return false;
+            }
+            // an empty peer left without candidates is caught by the first propagate
+            assign(i, number);
+        }
+        return true;
+    }
+
+    /**
+     * deduces, then guesses on the cell with the fewest candidates
+     * @param depth the branching depth, picks the saved state slot
+     * @return true if the board was completed
+     */
+    private boolean search(int depth) {
+        if (!propagate()){
+            return false;
+        }
+        int cell = -1;
+        int fewest = 10;
+        for (int i = 0; i < 81; i++){
+            if (values[i] == 0){
+                int count = Integer.bitCount(candidates[i]);
+                if (count < fewest){
+                    fewest = count;
+                    cell = i;
+                    if (count == 2){
+                        break;
+                    }
+                }
+            }
+        }
+        if (cell == -1){
+            return true;
+        }
+        System.arraycopy(values, 0, savedValues[depth], 0, 81);
+        System.arraycopy(candidates, 0, savedCandidates[depth], 0, 81);
+        int options = candidates[cell];
+        while (options != 0){
+            int bit = Integer.lowestOneBit(options);
+            options ^= bit;
+            guesses++;
+            if (assign(cell, Integer.numberOfTrailingZeros(bit) + 1) && search(depth + 1)){
+                return true;
+            }
+            System.arraycopy(savedValues[depth], 0, values, 0, 81);
+            System.arraycopy(savedCandidates[depth], 0, candidates, 0, 81);
+        }
+        return false;
+    }
+
+    /**
+     * applies naked and hidden singles until neither finds anything new
+     * @return false if the board ran into a contradiction
+     */
+    private boolean propagate() {
+        boolean changed = true;
+        while (changed){
+            changed = false;
+            // naked singles
+            for (int i = 0; i < 81; i++){
+                if (values[i] == 0){
+                    int options = candidates[i];
+                    if (options == 0){
+                        return false;
+                    }
+                    if ((options & (options - 1)) == 0){
+                        if (!assign(i, Integer.numberOfTrailingZeros(options) + 1)){
+                            return false;
+                        }
+                        changed = true;
+                    }
+                }
+            }
+            // hidden singles
+            for (int[] unit : UNITS){
+                int once = 0;
+                int twice = 0;
+                int placed = 0;
+                for (int cell : unit){
+                    if (values[cell] != 0){
+                        placed |= 1 << (values[cell] - 1);
+                    } else {
+                        twice |= once & candidates[cell];
+                        once |= candidates[cell];
+                    }
+                }
+                if ((once | placed) != ALL){
+                    // a number has nowhere left to go in this unit
+                    return false;
+                }
+                int hidden = once & ~twice & ~placed;
+                while (hidden != 0){
+                    int bit = Integer.lowestOneBit(hidden);
+                    hidden ^= bit;
+                    for (int cell : unit){
+                        if (values[cell] == 0 && (candidates[cell] & bit) != 0){
+                            if (!assign(cell, Integer.numberOfTrailingZeros(bit) + 1)){
+                                return false;
+                            }
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * places the number and removes it from the candidates of the peers
+     * @param cell the cell index
+     * @param number the number to place
+     * @return false if the number is no longer possible or a peer is left without candidates
+     */
+    private boolean assign(int cell, int number) {
+        int bit = 1 << (number - 1);
+        if ((candidates[cell] & bit) == 0){
+            return false;
+        }
+        values[cell] = number;
+        candidates[cell] = 0;
+        boolean ok = true;
+        for (int peer : PEERS[cell]){
+            if (values[peer] == 0){
+                candidates[peer] &= ~bit;
+                if (candidates[peer] == 0){
+                    ok = false;
+                }
+            }
+        }
+        return ok;
+    }
+}
@@ -0,0 +1,150 @@
+import java.nio.ByteBuffer;
+
+/**
+ * This is the common one line puzzle format: 81 characters in row order,
+ * 1 - 9 for a given and 0 or . for an empty cell
+ * larger boards (16 x 16, 25 x 25) use the same format with A - Z for 10 - 35
+ */
+public final class PuzzleFormat {
+    /**
+     * the number of characters of a puzzle line
+     */
+    public static final int LENGTH = 81;
+
+    private PuzzleFormat(){
+    }
+
+    /**
+     * reads the first 81 characters of a line into cells, anything after them is ignored
+     * @param line the puzzle line
+     * @param cells receives the 81 cells in row order, 0 for empty
+     * @return false if the line is too short or has a character that is not a digit or .
+     */
+    public static boolean parse(CharSequence line, int[] cells) {
+        if (line.length() < LENGTH){
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++){
+            char c = line.charAt(i);
+            if (c == '.'){
+                cells[i] = 0;
+            } else if (c >= '0' && c <= '9'){
+                cells[i] = c - '0';
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * reads a puzzle line into a board
+     * @param line the puzzle line
+     * @return the board, 0 for empty
+     * @throws IllegalArgumentException if the line is not a puzzle
+     */
+    public static int[][] toBoard(CharSequence line) {
+        int[] cells = new int[LENGTH];
+        if (!parse(line, cells)){
+            throw new IllegalArgumentException("not an 81 character puzzle: " + line);
+        }
+        int[][] board = new int[9][9];
+        for (int i = 0; i < LENGTH; i++){
+            board[i / 9][i % 9] = cells[i];
+        }
+        return board;
+    }
+
+    /**
+     * writes the cells as a puzzle line, empty cells become .
+     * @param cells the 81 cells in row order
+     * @param out receives the 81 characters, without a line break
+     */
+    public static void append(int[] cells, StringBuilder out) {
+        for (int i = 0; i < LENGTH; i++){
+            out.append(cells[i] == 0 ? '.' : (char) ('0' + cells[i]));
+        }
+    }
+
+    /**
+     * writes the board as a puzzle line
+     * @param board the board, 0 for empty
+     * @return the 81 character line
+     */
+    public static String format(int[][] board) {
+        StringBuilder out = new StringBuilder(LENGTH);
+        for (int[] row : board){
+            for (int number : row){
+                out.append(number == 0 ? '.' : (char) ('0' + number));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * reads the first 81 bytes of a line straight out of a buffer, without making a String
+     * @param bytes the buffer, read with absolute gets so its position is not touched
+     * @param from the index of the first byte of the line
+     * @param to the index just after the last byte of the line, without the line break
+     * @param cells receives the 81 cells in row order, 0 for empty
+     * @return false if the line is too short or has a byte that is not a digit or .
+     */
+    public static boolean parse(ByteBuffer bytes, int from, int to, int[] cells) {
+        if (to - from < LENGTH){
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++){
+            byte b = bytes.get(from + i);
+            if (b == '.'){
+                cells[i] = 0;
+            } else if (b >= '0' && b <= '9'){
+                cells[i] = b - '0';
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * writes the cells as a puzzle line into a byte array, empty cells become .
+     * @param cells the 81 cells in row order
+     * @param out the array to write to
+     * @param offset where the line starts in the array
+     * @return the offset just after the 81 bytes
+     */
+    public static int write(int[] cells, byte[] out, int offset) {
+        for (int i = 0; i < LENGTH; i++){
+            out[offset + i] = cells[i] == 0 ? (byte) '.' : (byte) ('0' + cells[i]);
+        }
+        return offset + LENGTH;
+    }
+
+    /**
+     * @param c a character of a puzzle line
+     * @return the number it stands for, 0 for empty, -1 if it is not a cell
+     */
+    public static int symbolValue(char c) {
+        if (c == '.' || (c >= '0' && c <= '9')){
+            return c == '.' ? 0 : c - '0';
+        }
+        if (c >= 'A' && c <= 'Z'){
+            return c - 'A' + 10;
+        }
+        if (c >= 'a' && c <= 'z'){
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * @param number a number of a cell, 0 - 35
+     * @return the character that stands for it, . for empty
+     */
+    public static char symbol(int number) {
+        if (number == 0){
+            return '.';
+        }
+        return number < 10 ? (char) ('0' + number) : (char) ('A' + number - 10);
+    }
+}
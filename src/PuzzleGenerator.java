@@ -0,0 +1,213 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This generates new puzzles that have exactly one solution, on several threads
+ *
+ * a puzzle is made in two steps:
+ * 1. a random full grid: the three diagonal boxes get random numbers (they do not see each other),
+ *    the solver fills in the rest, and a random relabeling, transposition and band/stack and
+ *    row/col shuffle spread the result over all grids
+ * 2. clue removal: the cells are visited in random order and a clue is taken out
+ *    whenever the puzzle still has exactly one solution without it (a count with limit 2)
+ *
+ * puzzle i of a run only depends on the seed and i, so a run is reproducible whatever the thread count
+ */
+public class PuzzleGenerator {
+    private final int threads;
+    private final long seed;
+    private BatchStats lastStats = new BatchStats();
+
+    /**
+     * constructor for a generator that uses every core and a random seed
+     */
+    public PuzzleGenerator(){
+        this(Runtime.getRuntime().availableProcessors(), System.nanoTime());
+    }
+
+    /**
+     * constructor for a generator
+     * @param threads the number of worker threads
+     * @param seed the seed every puzzle is derived from
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public PuzzleGenerator(int threads, long seed){
+        if (threads < 1){
+            throw new IllegalArgumentException("need at least one thread");
+        }
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * generates puzzles in parallel
+     * @param count the number of puzzles
+     * @return the puzzles, puzzle i at index i
+     */
+    public List<PackedBoard> generate(int count) {
+        PackedBoard[] puzzles = new PackedBoard[count];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        BatchStats total = new BatchStats();
+        long start = System.nanoTime();
+        try {
+            List<Callable<BatchStats>> tasks = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++){
+                tasks.add(() -> {
+                    Worker worker = new Worker();
+                    BatchStats stats = new BatchStats();
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()){
+                        long begin = System.nanoTime();
+                        puzzles[i] = worker.puzzle(new SplittableRandom(seed + i * 0x9E3779B97F4A7C15L));
+                        stats.record(System.nanoTime() - begin, true);
+                    }
+                    return stats;
+                });
+            }
+            for (Future<BatchStats> done : workers.invokeAll(tasks)){
+                total.merge(done.get());
+            }
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("generation interrupted", e);
+        } catch (ExecutionException e){
+            throw new IllegalStateException("generator worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+        total.setElapsedNanos(System.nanoTime() - start);
+        lastStats = total;
+        return List.of(puzzles);
+    }
+
+    /**
+     * generates one puzzle on the calling thread
+     * @param random the source of randomness
+     * @return a puzzle with exactly one solution
+     */
+    public static PackedBoard generate(SplittableRandom random) {
+        return new Worker().puzzle(random);
+    }
+
+    /**
+     * @return the throughput and latency of the last parallel run
+     */
+    public BatchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * prints the throughput of the last parallel run
+     * @param out where to print
+     */
+    public void printStats(PrintStream out) {
+        double perSecond = lastStats.getPuzzlesPerSecond();
+        out.printf("generated: %d puzzles on %d threads%n", lastStats.getPuzzles(), threads);
+        out.printf("throughput: %.1f puzzles/s, %.1f puzzles/s per core%n", perSecond, perSecond / threads);
+        out.printf("latency p50: %.2f ms, p99: %.2f ms%n",
+                lastStats.percentileNanos(0.50) / 1e6, lastStats.percentileNanos(0.99) / 1e6);
+    }
+
+    /**
+     * the solvers of one thread
+     */
+    private static final class Worker {
+        private final BitmaskSolver solver = new BitmaskSolver();
+        private final int[] order = new int[PackedBoard.SIZE];
+
+        /**
+         * @param random the source of randomness
+         * @return a puzzle with exactly one solution
+         */
+        PackedBoard puzzle(SplittableRandom random) {
+            PackedBoard board = fullGrid(random);
+            for (int i = 0; i < order.length; i++){
+                order[i] = i;
+            }
+            shuffle(order, random);
+            for (int cell : order){
+                int number = board.get(cell);
+                board.set(cell, 0);
+                if (solver.countSolutions(board, 2) != 1){
+                    board.set(cell, number);
+                }
+            }
+            return board;
+        }
+
+        /**
+         * @param random the source of randomness
+         * @return a random complete valid grid
+         */
+        private PackedBoard fullGrid(SplittableRandom random) {
+            PackedBoard seedGrid = new PackedBoard();
+            int[] numbers = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+            for (int box = 0; box < 3; box++){
+                shuffle(numbers, random);
+                for (int k = 0; k < 9; k++){
+                    seedGrid.set(box * 3 + k / 3, box * 3 + k % 3, numbers[k]);
+                }
+            }
+            solver.solve(seedGrid);
+
+            int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+            shuffle(digits, 1, random);
+            int[] rows = lineOrder(random);
+            int[] cols = lineOrder(random);
+            boolean transpose = random.nextBoolean();
+            PackedBoard grid = new PackedBoard();
+            for (int r = 0; r < 9; r++){
+                for (int c = 0; c < 9; c++){
+                    int number = digits[seedGrid.get(rows[r], cols[c])];
+                    if (transpose){
+                        grid.set(c, r, number);
+                    } else {
+                        grid.set(r, c, number);
+                    }
+                }
+            }
+            return grid;
+        }
+
+        /**
+         * @return a random order of the 9 rows (or cols) that keeps bands (or stacks) together
+         */
+        private static int[] lineOrder(SplittableRandom random) {
+            int[] bands = {0, 1, 2};
+            shuffle(bands, random);
+            int[] lines = new int[9];
+            int[] inBand = {0, 1, 2};
+            for (int b = 0; b < 3; b++){
+                shuffle(inBand, random);
+                for (int k = 0; k < 3; k++){
+                    lines[b * 3 + k] = bands[b] * 3 + inBand[k];
+                }
+            }
+            return lines;
+        }
+
+        private static void shuffle(int[] values, SplittableRandom random) {
+            shuffle(values, 0, random);
+        }
+
+        /**
+         * Fisher-Yates shuffle of values[from..]
+         */
+        private static void shuffle(int[] values, int from, SplittableRandom random) {
+            for (int i = values.length - 1; i > from; i--){
+                int j = from + random.nextInt(i - from + 1);
+                int swap = values[i];
+                values[i] = values[j];
+                values[j] = swap;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+import java.io.PrintStream;
+
+/**
+ * This is the record of a rating run (see DifficultyRater): for every technique how often it was used
+ * and how many puzzles it was the hardest step of, how many puzzles the techniques could not finish
+ * or were invalid, and the throughput
+ *
+ * an instance is not thread safe, every worker records into its own and they are merged at the end
+ */
+public class RatingStats {
+    private static final Hint.Technique[] TECHNIQUES = Hint.Technique.values();
+
+    private final long[] hits = new long[TECHNIQUES.length];
+    private final long[] hardest = new long[TECHNIQUES.length];
+    private long rated;
+    private long beyond;
+    private long invalid;
+    private long elapsedNanos;
+
+    /**
+     * records one step of a puzzle
+     * @param technique the technique of the step
+     */
+    public void recordHit(Hint.Technique technique) {
+        hits[technique.ordinal()]++;
+    }
+
+    /**
+     * records a puzzle the techniques finished
+     * @param technique the hardest technique it needed, null if it needed none
+     */
+    public void recordRated(Hint.Technique technique) {
+        rated++;
+        if (technique != null){
+            hardest[technique.ordinal()]++;
+        }
+    }
+
+    /**
+     * records a puzzle that needs more than the techniques
+     */
+    public void recordBeyond() {
+        beyond++;
+    }
+
+    /**
+     * records a line that is not a puzzle, or a puzzle that breaks the rules
+     */
+    public void recordInvalid() {
+        invalid++;
+    }
+
+    /**
+     * adds everything another record holds to this one
+     * @param other the record to add
+     */
+    public void merge(RatingStats other) {
+        for (int i = 0; i < TECHNIQUES.length; i++){
+            hits[i] += other.hits[i];
+            hardest[i] += other.hardest[i];
+        }
+        rated += other.rated;
+        beyond += other.beyond;
+        invalid += other.invalid;
+    }
+
+    /**
+     * sets the wall clock time of the whole run
+     * @param elapsedNanos the time of the run
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the number of puzzles recorded, invalid ones included
+     */
+    public long getPuzzles() {
+        return rated + beyond + invalid;
+    }
+
+    /**
+     * @return the number of puzzles the techniques finished
+     */
+    public long getRated() {
+        return rated;
+    }
+
+    /**
+     * @return the number of puzzles that need more than the techniques
+     */
+    public long getBeyond() {
+        return beyond;
+    }
+
+    /**
+     * @return the number of invalid lines and puzzles
+     */
+    public long getInvalid() {
+        return invalid;
+    }
+
+    /**
+     * @param technique a technique
+     * @return how many steps of all puzzles used it
+     */
+    public long getHits(Hint.Technique technique) {
+        return hits[technique.ordinal()];
+    }
+
+    /**
+     * @param technique a technique
+     * @return how many finished puzzles it was the hardest step of
+     */
+    public long getHardest(Hint.Technique technique) {
+        return hardest[technique.ordinal()];
+    }
+
+    /**
+     * @return puzzles per second of wall clock time, 0 before the elapsed time is set
+     */
+    public double getPuzzlesPerSecond() {
+        return elapsedNanos == 0 ? 0 : getPuzzles() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * prints the summary of the run, a line per technique
+     * @param out where to print
+     */
+    public void print(PrintStream out) {
+        out.printf("puzzles: %d, rated: %d, beyond the techniques: %d, invalid: %d%n", getPuzzles(), rated, beyond, invalid);
+        out.printf("elapsed: %.3f s, throughput: %.0f puzzles/s%n", elapsedNanos / 1e9, getPuzzlesPerSecond());
+        out.printf("%-16s %6s %12s %12s%n", "technique", "rating", "hardest", "used");
+        for (Hint.Technique technique : TECHNIQUES){
+            if (technique != Hint.Technique.MISTAKE){
+                out.printf("%-16s %6.1f %12d %12d%n", technique.getName(), technique.getRating(),
+                        hardest[technique.ordinal()], hits[technique.ordinal()]);
+            }
+        }
+    }
+}
@@ -0,0 +1,429 @@
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * This hosts many independent games at once, each one a model, a view and a controller
+ * driven by its own virtual thread
+ * a client sends a session lines of input and drains what its view printed; the controller
+ * blocks for the next line as it does on a console, which parks only the virtual thread
+ *
+ * once the manager is started, a session that gets no input for the idle timeout is closed and
+ * dropped by a sweeper thread; closing a session ends its input, so its controller returns and its thread ends
+ *
+ * the waiting is all on java.util.concurrent locks, not synchronized, so a parked game does not
+ * hold on to a carrier thread; per session there is the model, the controller's scanner,
+ * a queue of pending lines, the printed output and the parked thread's stack
+ */
+public class SessionManager implements AutoCloseable {
+    /**
+     * the most output a session keeps for a client that does not drain it, older lines are dropped
+     */
+    private static final int MAX_OUTPUT = 1 << 16;
+
+    /**
+     * the largest output buffer a session keeps after a drain, a larger one is let go
+     */
+    private static final int KEEP_OUTPUT = 1 << 12;
+
+    private final Supplier<IModel> models;
+    private final long idleNanos;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final LongAdder evictions = new LongAdder();
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /**
+     * constructor for a manager of games on the default board
+     * @param idleTimeout how long a session may go without input
+     */
+    public SessionManager(Duration idleTimeout){
+        this(sudokuModel::new, idleTimeout);
+    }
+
+    /**
+     * constructor for a session manager, idle sessions are not evicted until start is called
+     * @param models makes the model of every new session
+     * @param idleTimeout how long a session may go without input
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public SessionManager(Supplier<IModel> models, Duration idleTimeout){
+        if (idleTimeout.isNegative() || idleTimeout.isZero()){
+            throw new IllegalArgumentException("idle timeout must be positive");
+        }
+        this.models = models;
+        this.idleNanos = idleTimeout.toNanos();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * starts the sweeper, sessions opened before are only evicted from then on
+     * @throws IllegalStateException if the manager was started before
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)){
+            throw new IllegalStateException("session manager already started");
+        }
+        long period = Math.max(1, idleNanos / 2);
+        sweeper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * starts a new game
+     * @return the session of the game
+     */
+    public Session open() {
+        Session session = new Session(nextId.incrementAndGet(), models.get());
+        sessions.put(session.id, session);
+        session.start();
+        return session;
+    }
+
+    /**
+     * @param id the id of a session
+     * @return the session, null if it was closed or evicted
+     */
+    public Session get(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * @return the number of open sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * @return the number of sessions closed for being idle
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * closes every session that had no input for the idle timeout, the sweeper runs this
+     * every half timeout
+     * @return the number of sessions closed
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ){
+            Session session = it.next();
+            if (now - session.lastActive > idleNanos){
+                it.remove();
+                session.end();
+                evicted++;
+            }
+        }
+        evictions.add(evicted);
+        return evicted;
+    }
+
+    /**
+     * closes every session and stops the sweeper
+     */
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+        for (Iterator<Session> it = sessions.values().iterator(); it.hasNext(); ){
+            Session session = it.next();
+            it.remove();
+            session.end();
+        }
+    }
+
+    /**
+     * This is one hosted game
+     */
+    public final class Session {
+        private final long id;
+        private final IModel model;
+        private final LineInput input = new LineInput();
+        private final Output output = new Output();
+        private volatile long lastActive = System.nanoTime();
+        private volatile boolean finished;
+        private Thread thread;
+
+        /**
+         * constructor for a session that is not started yet
+         */
+        private Session(long id, IModel model){
+            this.id = id;
+            this.model = model;
+        }
+
+        /**
+         * starts the controller on a virtual thread
+         */
+        private void start() {
+            IView view = new SudokuView(output);
+            IController controller = new sudokuController(model, input, view);
+            thread = Thread.ofVirtual().name("session-" + id).start(() -> {
+                try {
+                    controller.go();
+                } finally {
+                    finished = true;
+                }
+            });
+        }
+
+        /**
+         * @return the id of the session, see SessionManager.get
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * @return the model of the game
+         */
+        public IModel getModel() {
+            return model;
+        }
+
+        /**
+         * hands the game a line of input, as if typed on the console
+         * @param line the line, without a line break
+         * @throws IllegalStateException if the session is closed or its game is over
+         */
+        public void send(String line) {
+            if (!isOpen()){
+                throw new IllegalStateException("session " + id + " is closed");
+            }
+            lastActive = System.nanoTime();
+            input.add(line);
+        }
+
+        /**
+         * @return everything the view printed since the last drain
+         */
+        public String drainOutput() {
+            return output.drain();
+        }
+
+        /**
+         * @return false once the session is closed or its game is over
+         */
+        public boolean isOpen() {
+            return !finished && !input.isClosed();
+        }
+
+        /**
+         * waits for the controller to finish, after the game is over or the session closed
+         * @param timeout the longest to wait
+         * @return true if the controller finished
+         * @throws InterruptedException if the waiting thread is interrupted
+         */
+        public boolean await(Duration timeout) throws InterruptedException {
+            return thread.join(timeout);
+        }
+
+        /**
+         * ends the game and drops the session from the manager
+         */
+        public void close() {
+            sessions.remove(id, this);
+            end();
+        }
+
+        /**
+         * ends the input, the controller returns once it has read what was sent before
+         */
+        private void end() {
+            input.close();
+        }
+    }
+
+    /**
+     * This is the input of a session: lines queued by the client, read by the controller's scanner
+     */
+    private static final class LineInput implements Readable {
+        /**
+         * queued after the last line to end the input
+         */
+        private static final String END = new String();
+
+        private final LinkedBlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private volatile boolean closed;
+        private String line;
+        private int position;
+
+        /**
+         * queues a line for the scanner
+         */
+        void add(String text) {
+            lines.add(text + "\n");
+        }
+
+        /**
+         * ends the input after the lines already queued
+         */
+        void close() {
+            if (!closed){
+                closed = true;
+                lines.add(END);
+            }
+        }
+
+        /**
+         * @return true once the input is closed
+         */
+        boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * copies the rest of the current line, waiting for the next one when it is used up
+         * @return the number of chars read, -1 at the end of the input
+         */
+        @Override
+        public int read(CharBuffer buffer) {
+            if (line == null || position == line.length()){
+                try {
+                    line = lines.take();
+                } catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    line = END;
+                }
+                position = 0;
+                if (line == END){
+                    lines.add(END);
+                    return -1;
+                }
+            }
+            int count = Math.min(buffer.remaining(), line.length() - position);
+            buffer.put(line, position, position + count);
+            position += count;
+            return count;
+        }
+    }
+
+    /**
+     * This is the output of a session: what its view printed, until the client drains it
+     * only whole lines are dropped when a client falls behind, so it never gets half a line
+     */
+    private static final class Output extends OutputStream {
+        private static final byte[] EMPTY = new byte[0];
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private byte[] bytes = EMPTY;
+        private int size;
+        /**
+         * true while the rest of a dropped line is still coming, it is dropped too
+         */
+        private boolean skipping;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        /**
+         * keeps the bytes, dropping the oldest whole lines when more than MAX_OUTPUT are waiting
+         */
+        @Override
+        public void write(byte[] b, int off, int len) {
+            lock.lock();
+            try {
+                int end = off + len;
+                if (skipping){
+                    int newline = indexOfNewline(b, off, end);
+                    if (newline == -1){
+                        return;
+                    }
+                    off = newline + 1;
+                    skipping = false;
+                }
+                if (end - off > MAX_OUTPUT){
+                    // the write alone is too much, only its last whole lines are kept
+                    size = 0;
+                    off = lineStart(b, end - MAX_OUTPUT, end);
+                } else if (size + end - off > MAX_OUTPUT){
+                    int keep = lineStart(bytes, size + end - off - MAX_OUTPUT, size);
+                    if (keep == -1){
+                        // the waiting output is all one unfinished line, the write starts with its rest
+                        size = 0;
+                        int newline = indexOfNewline(b, off, end);
+                        off = newline == -1 ? -1 : newline + 1;
+                    } else {
+                        System.arraycopy(bytes, keep, bytes, 0, size - keep);
+                        size -= keep;
+                    }
+                }
+                if (off == -1){
+                    skipping = true;
+                    return;
+                }
+                if (size + end - off > bytes.length){
+                    bytes = Arrays.copyOf(bytes, Math.min(MAX_OUTPUT, Math.max(2 * bytes.length, size + end - off)));
+                }
+                System.arraycopy(b, off, bytes, size, end - off);
+                size += end - off;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return the bytes written since the last drain as text, and forgets them;
+         *         a buffer grown for a client that fell behind is let go
+         */
+        String drain() {
+            lock.lock();
+            try {
+                String text = new String(bytes, 0, size, StandardCharsets.UTF_8);
+                size = 0;
+                if (bytes.length > KEEP_OUTPUT){
+                    bytes = EMPTY;
+                }
+                return text;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return the first index from `from` (above 0) on that starts a line, i.e. follows a line break,
+         *         -1 if there is none before end
+         */
+        private static int lineStart(byte[] b, int from, int end) {
+            int newline = indexOfNewline(b, from - 1, end);
+            return newline == -1 ? -1 : newline + 1;
+        }
+
+        /**
+         * @return the index of the first line break in b[from..end), -1 if there is none
+         */
+        private static int indexOfNewline(byte[] b, int from, int end) {
+            for (int i = from; i < end; i++){
+                if (b[i] == '\n'){
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This is a bounded cache of solutions, keyed by the fingerprint of a puzzle's minlex form
+ * (see Canonicalizer), so every relabeled or reordered copy of a puzzle shares one entry
+ *
+ * the entries are spread over segments by fingerprint hash, every segment holds an access ordered
+ * LinkedHashMap with its own lock that drops its least recently used entry when it is full,
+ * so threads only wait for each other when they hit the same segment
+ * it is safe to share one cache between any number of threads
+ */
+public class SolutionCache {
+    /**
+     * the number of solutions a cache holds by default
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final Segment[] segments;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * constructor for a cache of the default capacity with 4 segments per core
+     */
+    public SolutionCache(){
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * constructor for a cache with 4 segments per core
+     * @param capacity the most solutions the cache holds
+     * @throws IllegalArgumentException if the capacity is less than 1
+     */
+    public SolutionCache(int capacity){
+        this(capacity, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * constructor for a cache
+     * @param capacity the most solutions the cache holds
+     * @param segments the number of independently locked segments, rounded up to a power of two
+     *                 and down to the capacity
+     * @throws IllegalArgumentException if the capacity or the number of segments is less than 1
+     */
+    public SolutionCache(int capacity, int segments){
+        if (capacity < 1){
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        if (segments < 1){
+            throw new IllegalArgumentException("need at least one segment");
+        }
+        int count = Integer.highestOneBit(Math.min(capacity, segments));
+        if (count < segments && count * 2 <= capacity){
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int s = 0; s < count; s++){
+            // the first capacity % count segments take one more entry, so the sizes add up to the capacity
+            this.segments[s] = new Segment(capacity / count + (s < capacity % count ? 1 : 0));
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * looks up the solution of a minlex form and marks it as recently used
+     * @param form the minlex form of a puzzle
+     * @return a copy of the solution of the form, null if it is not cached
+     */
+    public PackedBoard get(PackedBoard form) {
+        Fingerprint key = Fingerprint.of(form);
+        PackedBoard solution;
+        Segment segment = segmentOf(key);
+        synchronized (segment){
+            solution = segment.get(key);
+        }
+        if (solution == null){
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return solution.copy();
+    }
+
+    /**
+     * stores the solution of a minlex form, dropping the least recently used entry of its segment if full
+     * @param form the minlex form of a puzzle
+     * @param solution the solution of the form, it is copied
+     */
+    public void put(PackedBoard form, PackedBoard solution) {
+        Fingerprint key = Fingerprint.of(form);
+        PackedBoard copy = solution.copy();
+        Segment segment = segmentOf(key);
+        synchronized (segment){
+            segment.put(key, copy);
+        }
+    }
+
+    /**
+     * drops every entry, the counters keep counting
+     */
+    public void clear() {
+        for (Segment segment : segments){
+            synchronized (segment){
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached solutions
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments){
+            synchronized (segment){
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the most solutions the cache holds
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of lookups that found a solution
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that found nothing
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of solutions dropped to make room
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * prints the size and counters of the cache
+     * @param out where to print
+     */
+    public void printStats(PrintStream out) {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        out.printf("cache: %d of %d solutions, %d hits, %d misses (%.1f%% hit rate), %d evictions%n",
+                size(), capacity, hits, lookups - hits, lookups == 0 ? 0.0 : 100.0 * hits / lookups, getEvictions());
+    }
+
+    /**
+     * @return the segment that owns the key
+     */
+    private Segment segmentOf(Fingerprint key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * a compact, exact key for a board: the 81 cells at 4 bits each in 6 longs
+     */
+    static final class Fingerprint {
+        private final long[] bits = new long[6];
+        private final int hash;
+
+        private Fingerprint(PackedBoard board) {
+            for (int i = 0; i < PackedBoard.SIZE; i++){
+                bits[i >>> 4] |= (long) board.get(i) << ((i & 15) << 2);
+            }
+            this.hash = Arrays.hashCode(bits);
+        }
+
+        /**
+         * @param board the board
+         * @return the fingerprint of the board
+         */
+        static Fingerprint of(PackedBoard board) {
+            return new Fingerprint(board);
+        }
+
+        /**
+         * @param o the other object
+         * @return true if o is the fingerprint of the same board
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fingerprint && hash == ((Fingerprint) o).hash && Arrays.equals(bits, ((Fingerprint) o).bits);
+        }
+
+        /**
+         * @return the hash of the fingerprint
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * one independently locked part of the cache, an access ordered map in least recently used first order
+     */
+    private final class Segment {
+        private final LinkedHashMap<Fingerprint, PackedBoard> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int limit;
+
+        Segment(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * @return the solution of the key, now the most recently used, or null
+         */
+        PackedBoard get(Fingerprint key) {
+            return entries.get(key);
+        }
+
+        /**
+         * stores a solution and drops the least recently used entry once the segment is over its limit
+         */
+        void put(Fingerprint key, PackedBoard solution) {
+            entries.put(key, solution);
+            if (entries.size() > limit){
+                Iterator<Fingerprint> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        /**
+         * drops every entry
+         */
+        void clear() {
+            entries.clear();
+        }
+
+        /**
+         * @return the number of entries
+         */
+        int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This serves the solver over HTTP with the JDK's built-in server, one virtual thread per request
+ * a puzzle is a line in the one line format (see PuzzleFormat), sent as the request body
+ * or as the puzzle query parameter, every answer is text/plain:
+ * - /solve the solution line, 422 if the puzzle has no solution
+ * - /count?limit=n the number of solutions, counting stops at the limit (default 2, at most 1000)
+ * - /validate the verdict of a puzzle (see GridValidator), e.g. "valid" or "row 4": a puzzle with empty
+ *   cells is valid when no row, col or box repeats a given, a completed grid when it is solved
+ * - /batch newline separated puzzles in the body, one solution line per puzzle streamed back
+ *   in input order, a puzzle that cannot be parsed or solved is written back as it was read
+ * a request that is not a puzzle gets 400, a single puzzle request longer than a line gets 413
+ *
+ * the JDK server writes the headers and the body apart, so with Nagle on every answer of a kept-alive
+ * connection waits for the client's delayed ack, about 40 ms; launch with -Dsun.net.httpserver.nodelay=true
+ * to turn it off, the property is read once for every server of the JVM so it is left to the launcher
+ *
+ * the engines are not safe to share between threads, so every request makes its own;
+ * they are a few hundred bytes, far less than the request itself
+ */
+public class SolveServer implements AutoCloseable {
+    /**
+     * the most bytes a single puzzle request may have
+     */
+    private static final int MAX_BODY = 1024;
+
+    /**
+     * the default and the largest solution count limit
+     */
+    private static final int DEFAULT_LIMIT = 2;
+    private static final int MAX_LIMIT = 1000;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * constructor for a server on every interface of the local machine
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public SolveServer(int port) throws IOException {
+        this(new InetSocketAddress(port));
+    }
+
+    /**
+     * constructor for a server, it does not answer until start is called
+     * @param address the address to bind
+     * @throws IOException if the address cannot be bound
+     */
+    public SolveServer(InetSocketAddress address) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/solve", exchange -> handle(exchange, "/solve", this::solve));
+        server.createContext("/count", exchange -> handle(exchange, "/count", this::count));
+        server.createContext("/validate", exchange -> handle(exchange, "/validate", this::validate));
+        server.createContext("/batch", exchange -> handle(exchange, "/batch", this::batch));
+    }
+
+    /**
+     * starts answering requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return the number of requests answered so far
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * stops the server, requests in flight get a second to finish
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    /**
+     * what an endpoint does with a request
+     */
+    private interface Endpoint {
+        void answer(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * runs an endpoint for its exact path, anything below it is 404
+     */
+    private void handle(HttpExchange exchange, String path, Endpoint endpoint) throws IOException {
+        try (exchange){
+            String method = exchange.getRequestMethod();
+            if (!exchange.getRequestURI().getPath().equals(path)){
+                reply(exchange, 404, "no such endpoint");
+            } else if (!method.equals("GET") && !method.equals("POST")){
+                exchange.getResponseHeaders().set("Allow", "GET, POST");
+                reply(exchange, 405, "use GET or POST");
+            } else {
+                endpoint.answer(exchange);
+            }
+            requests.increment();
+        }
+    }
+
+    /**
+     * answers /solve
+     */
+    private void solve(HttpExchange exchange) throws IOException {
+        PackedBoard board = puzzle(exchange);
+        if (board == null){
+            return;
+        }
+        if (!new BitmaskSolver().solve(board)){
+            reply(exchange, 422, "no solution");
+            return;
+        }
+        reply(exchange, 200, board.toString());
+    }
+
+    /**
+     * answers /count
+     */
+    private void count(HttpExchange exchange) throws IOException {
+        int limit;
+        try {
+            String value = query(exchange.getRequestURI(), "limit");
+            limit = value == null ? DEFAULT_LIMIT : Integer.parseInt(value);
+        } catch (NumberFormatException e){
+            limit = 0;
+        }
+        if (limit < 1 || limit > MAX_LIMIT){
+            reply(exchange, 400, "limit must be 1 - " + MAX_LIMIT);
+            return;
+        }
+        PackedBoard board = puzzle(exchange);
+        if (board == null){
+            return;
+        }
+        reply(exchange, 200, Integer.toString(new BitmaskSolver().countSolutions(board, limit)));
+    }
+
+    /**
+     * answers /validate
+     */
+    private void validate(HttpExchange exchange) throws IOException {
+        PackedBoard board = puzzle(exchange);
+        if (board == null){
+            return;
+        }
+        GridValidator validator = new GridValidator();
+        int verdict = board.emptyCount() == 0 ? validator.validate(board) : validator.validateGivens(board);
+        reply(exchange, 200, GridValidator.describe(verdict));
+    }
+
+    /**
+     * answers /batch, the solutions go out as the puzzles come in
+     */
+    private void batch(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+        exchange.sendResponseHeaders(200, 0);
+        BitmaskSolver solver = new BitmaskSolver();
+        BufferedReader in = new BufferedReader(new InputStreamReader(exchange.getRequestBody(),
+                StandardCharsets.US_ASCII), 1 << 14);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(),
+                StandardCharsets.US_ASCII), 1 << 14);
+        String line;
+        while ((line = in.readLine()) != null){
+            line = line.strip();
+            if (line.isEmpty()){
+                continue;
+            }
+            out.write(solveLine(solver, line));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * @return the solution of a batch line, or the line itself if it cannot be parsed or solved
+     */
+    private static String solveLine(BitmaskSolver solver, String line) {
+        if (line.length() != PuzzleFormat.LENGTH){
+            return line;
+        }
+        PackedBoard board;
+        try {
+            board = PackedBoard.parse(line);
+        } catch (IllegalArgumentException e){
+            return line;
+        }
+        return solver.solve(board) ? board.toString() : line;
+    }
+
+    /**
+     * reads the puzzle of a single puzzle request, from the body or else the puzzle parameter
+     * @return the puzzle, or null once the request is answered with an error
+     */
+    private static PackedBoard puzzle(HttpExchange exchange) throws IOException {
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY + 1);
+        if (body.length > MAX_BODY){
+            reply(exchange, 413, "one puzzle per request, use /batch for more");
+            return null;
+        }
+        String line = new String(body, StandardCharsets.US_ASCII).strip();
+        if (line.isEmpty()){
+            String value = query(exchange.getRequestURI(), "puzzle");
+            line = value == null ? "" : value;
+        }
+        if (line.length() != PuzzleFormat.LENGTH){
+            reply(exchange, 400, "a puzzle is " + PuzzleFormat.LENGTH + " characters");
+            return null;
+        }
+        try {
+            return PackedBoard.parse(line);
+        } catch (IllegalArgumentException e){
+            reply(exchange, 400, "a puzzle is 1 - 9 and 0 or . for an empty cell");
+            return null;
+        }
+    }
+
+    /**
+     * @return the value of a query parameter, null if the query does not have it
+     */
+    private static String query(URI uri, String name) {
+        String query = uri.getQuery();
+        if (query == null){
+            return null;
+        }
+        for (String pair : query.split("&")){
+            if (pair.startsWith(name + "=")){
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * sends a whole text answer
+     */
+    private static void reply(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = (text + "\n").getBytes(StandardCharsets.US_ASCII);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()){
+            out.write(body);
+        }
+    }
+}
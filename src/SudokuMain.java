@@ -1,11 +1,195 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
 /**
  * The main function that runs the sudoku game
+ *
+ * with the arguments batch input [output] it solves a file of puzzle lines instead,
+ * writing the solutions to output (or standard out) and the throughput to the console
+ * with the arguments generate count [output] it makes count new puzzles with one solution each
+ * with the arguments serve [port] it answers solve requests over HTTP until it is stopped,
+ * run it with -Dsun.net.httpserver.nodelay=true for kept-alive clients (see SolveServer)
+ * with the arguments moves [port] it plays a game per socket connection (see MoveServer)
+ * with the arguments replay file it plays the moves of a file (see MoveParser) on the default board
+ * with the arguments rate input [output] it rates every puzzle of a file (see DifficultyRater),
+ * writing the rated lines to output (or standard out) and the per technique record to the console
  */
 public class SudokuMain {
-    public static void main(String[] args){
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("batch")){
+            batch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("generate")){
+            generate(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")){
+            serve(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("moves")){
+            moves(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("replay")){
+            replay(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("rate")){
+            rate(args);
+            return;
+        }
         IModel model = new sudokuModel();
-        IView view = new SudokuView(System.out);
+        // redraw only the changed cells when playing on a terminal that understands ANSI escapes
+        String term = System.getenv("TERM");
+        boolean ansi = System.console() != null && term != null && !term.equals("dumb");
+        IView view = new SudokuView(System.out, ansi);
         IController controller = new sudokuController(model, System.in, view);
         controller.go();
     }
+
+    /**
+     * runs the batch solver, - as input reads standard in
+     * @param args batch input [output]
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void batch(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3){
+            System.err.println("usage: SudokuMain batch <input|-> [output]");
+            System.exit(2);
+        }
+        // keep standard out clean for the solutions when they go there
+        PrintStream report = args.length == 3 ? System.out : System.err;
+        if (args[1].equals("-")){
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(System.in), 1 << 16);
+                 Writer out = args.length == 3
+                         ? new BufferedWriter(new FileWriter(args[2]), 1 << 16)
+                         : new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16)){
+                new BatchSolver().run(in, out).print(report);
+            }
+            return;
+        }
+        // files are memory mapped and parsed chunk by chunk on the workers
+        try (MappedPuzzleReader in = new MappedPuzzleReader(Path.of(args[1]));
+             OutputStream out = args.length == 3
+                     ? new BufferedOutputStream(new FileOutputStream(args[2]), 1 << 16)
+                     : new BufferedOutputStream(System.out, 1 << 16)){
+            new BatchSolver().run(in, out).print(report);
+        }
+    }
+
+    /**
+     * rates a file of puzzles on every core
+     * @param args rate input [output]
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void rate(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3){
+            System.err.println("usage: SudokuMain rate <input> [output]");
+            System.exit(2);
+        }
+        PrintStream report = args.length == 3 ? System.out : System.err;
+        try (MappedPuzzleReader in = new MappedPuzzleReader(Path.of(args[1]));
+             OutputStream out = args.length == 3
+                     ? new BufferedOutputStream(new FileOutputStream(args[2]), 1 << 16)
+                     : new BufferedOutputStream(System.out, 1 << 16)){
+            new BatchRater().run(in, out).print(report);
+        }
+    }
+
+    /**
+     * runs the puzzle generator on every core
+     * @param args generate count [output]
+     * @throws IOException if the output cannot be written
+     */
+    private static void generate(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3){
+            System.err.println("usage: SudokuMain generate <count> [output]");
+            System.exit(2);
+        }
+        PrintStream report = args.length == 3 ? System.out : System.err;
+        PuzzleGenerator generator = new PuzzleGenerator();
+        List<PackedBoard> puzzles = generator.generate(Integer.parseInt(args[1]));
+        try (Writer out = args.length == 3
+                ? new BufferedWriter(new FileWriter(args[2]), 1 << 16)
+                : new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16)){
+            for (PackedBoard puzzle : puzzles){
+                out.write(puzzle.toString());
+                out.write('\n');
+            }
+        }
+        generator.printStats(report);
+    }
+
+    /**
+     * runs the HTTP solve service, the default port is 8080
+     * @param args serve [port]
+     * @throws IOException if the port cannot be bound
+     */
+    private static void serve(String[] args) throws IOException {
+        if (args.length > 2){
+            System.err.println("usage: SudokuMain serve [port]");
+            System.exit(2);
+        }
+        SolveServer server = new SolveServer(args.length == 2 ? Integer.parseInt(args[1]) : 8080);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("serving on port " + server.getPort());
+    }
+
+    /**
+     * runs the socket move server, the default port is 9090
+     * @param args moves [port]
+     * @throws IOException if the port cannot be bound
+     */
+    private static void moves(String[] args) throws IOException {
+        if (args.length > 2){
+            System.err.println("usage: SudokuMain moves [port]");
+            System.exit(2);
+        }
+        MoveServer server = new MoveServer(args.length == 2 ? Integer.parseInt(args[1]) : 9090);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        System.out.println("playing on port " + server.getPort());
+    }
+
+    /**
+     * plays a file of moves as one batch, then shows the board and the result if the game is over
+     * @param args replay file
+     * @throws IOException if the file cannot be read
+     */
+    private static void replay(String[] args) throws IOException {
+        if (args.length != 2){
+            System.err.println("usage: SudokuMain replay file");
+            System.exit(2);
+        }
+        byte[] bytes = Files.readAllBytes(Path.of(args[1]));
+        MoveParser parser = new MoveParser();
+        IModel model = new sudokuModel();
+        IView view = new SudokuView(System.out);
+        try {
+            int count = parser.parse(bytes, 0, bytes.length);
+            model.moveAll(parser.moves(), count);
+        } catch (IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException e){
+            System.err.println("cannot replay " + args[1] + ": " + e.getMessage());
+            System.exit(1);
+        }
+        view.displayBoard(model.getBoardView());
+        if (model.isGameOver()){
+            view.showResultMessage(model.result(model.copyBoard()));
+        }
+    }
 }
@@ -1,21 +1,53 @@
-import java.io.PrintStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * This is the main class of the view which presents the message and the board
+ * everything goes to the injected stream and is flushed at the end of every message;
+ * any OutputStream will do, a PrintStream such as System.out is one, but a game server
+ * can hand in a plain stream and skip the buffers a PrintStream carries
+ * the board is formatted into a reused buffer and written in one call (see BoardRenderer)
+ * in ANSI mode the first frame clears the screen, so instructions shown before it are held back
+ * and written under the board once it is drawn
  */
 public class SudokuView implements IView{
 
     /**
      * a private member variable to get it out the players
      */
-    private PrintStream out;
+    private OutputStream out;
+
+    /**
+     * formats the board into one buffer, reused for every frame
+     */
+    private final BoardRenderer renderer;
+    private final boolean ansi;
+
+    /**
+     * instructions that wait for the first ANSI frame, null if there are none
+     */
+    private String pending;
 
     /**
      * Constructor for the sudoku view that has a parameter of a generalized print
-     * @param out at a higher level of abstract printing
+     * @param out at a higher level of abstract printing, e.g. System.out
+     */
+    public SudokuView(OutputStream out){
+        this(out, false);
+    }
+
+    /**
+     * Constructor for the sudoku view
+     * @param out at a higher level of abstract printing, e.g. System.out
+     * @param ansi true for a terminal that understands ANSI escapes: the board stays at the top of
+     *             the screen and a redraw only rewrites the cells that changed
      */
-    public SudokuView(PrintStream out){
+    public SudokuView(OutputStream out, boolean ansi){
         this.out = out;
+        this.renderer = new BoardRenderer(ansi);
+        this.ansi = ansi;
     }
 
     /**
@@ -23,10 +55,18 @@ public class SudokuView implements IView{
      */
     @Override
     public void showInstruction() {
-        out.println("""
+        String text = """
                     Please enter the number and location you would like to place:
                     e.g. number = 1, row = 0, col = 0, enter: 100
-                    """);
+                    enter u to take back a move, r to put it back, h for a hint
+                    """ + "\n";
+        if (ansi && !renderer.isShowing()){
+            // the first frame would clear them off the screen
+            pending = text;
+            return;
+        }
+        print(text);
+        flush();
     }
 
     /**
@@ -34,28 +74,42 @@ public class SudokuView implements IView{
      */
     @Override
     public void showEntryMessage() {
-        out.println("Please enter the number and location you would like to place: ");
+        print("Please enter the number and location you would like to place: \n");
+        flush();
     }
 
     /**
-     * This displays the current state of the board
+     * This displays the current state of the board, as one write to the stream
+     * the box size is the square root of the board size, numbers of boards larger than 9 x 9
+     * get two columns each and a space between them
      * @param board current status of the board
+     * @throws UncheckedIOException if the stream fails
      */
     @Override
     public void displayBoard(int[][] board) {
-        // printing the board
-        for (int row = 0; row < 9; row++){
-            if (row % 3 == 0 && row != 0){
-                System.out.println("----+-----+----");
-            }
-            for (int col = 0; col < 9; col++){
-                if (col % 3 == 0 && col != 0){
-                    System.out.print(" | ");
-                }
-                System.out.print(board[row][col]);
-            }
-            System.out.println();
+        try {
+            renderer.render(board, out);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        printPending();
+        flush();
+    }
+
+    /**
+     * This displays the current state of the board, read through the view, as one write to the stream
+     * @param board current status of the board
+     * @throws UncheckedIOException if the stream fails
+     */
+    @Override
+    public void displayBoard(IBoardView board) {
+        try {
+            renderer.render(board, out);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
         }
+        printPending();
+        flush();
     }
 
     /**
@@ -64,12 +118,19 @@ public class SudokuView implements IView{
      */
     @Override
     public void showResultMessage(boolean result) {
+        try {
+            renderer.release(out);
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+        printPending();
         if (result){
-            System.out.println("Congratulations, you won!");
+            print("Congratulations, you won!\n");
         }
         else{
-            System.out.println("You messed up!");
+            print("You messed up!\n");
         }
+        flush();
     }
 
     /**
@@ -77,6 +138,50 @@ public class SudokuView implements IView{
      */
     @Override
     public void showErrorMessage() {
-        out.print("Invalid input. Try again!\n");
+        print("Invalid input. Try again!\n");
+        flush();
+    }
+
+    /**
+     * shows a hint with its reason, or that there is none
+     */
+    @Override
+    public void showHint(Hint hint) {
+        print(hint == null ? "No hint, the board is full or too hard for the hints.\n" : "Hint: " + hint + "\n");
+        flush();
+    }
+
+    /**
+     * writes text to the stream
+     * @throws UncheckedIOException if the stream fails
+     */
+    private void print(String text) {
+        try {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * writes the instructions held back for the first frame, if any
+     */
+    private void printPending() {
+        if (pending != null){
+            print(pending);
+            pending = null;
+        }
+    }
+
+    /**
+     * pushes what was written out of any buffer of the stream
+     * @throws UncheckedIOException if the stream fails
+     */
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException e){
+            throw new UncheckedIOException(e);
+        }
     }
 }
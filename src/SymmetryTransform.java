@@ -0,0 +1,110 @@
+import java.util.Arrays;
+
+/**
+ * This is one of the validity preserving transformations of a sudoku board:
+ * an optional transposition, then a row order that keeps bands together, a col order that keeps
+ * stacks together, and a relabeling of the numbers
+ *
+ * cell (row, col) of the result is digits[oriented(rows[row], cols[col])],
+ * where oriented is the board, or its transpose if transpose is set
+ */
+public final class SymmetryTransform {
+    private final boolean transpose;
+    private final int[] rows;
+    private final int[] cols;
+    private final int[] digits;
+    private final int[] inverseDigits = new int[10];
+
+    /**
+     * constructor for a transform
+     * @param transpose true if the board is transposed first
+     * @param rows the source row of every result row
+     * @param cols the source col of every result col
+     * @param digits the new number of every number, digits[0] is 0
+     */
+    SymmetryTransform(boolean transpose, int[] rows, int[] cols, int[] digits){
+        this.transpose = transpose;
+        this.rows = rows.clone();
+        this.cols = cols.clone();
+        this.digits = digits.clone();
+        for (int n = 0; n < 10; n++){
+            inverseDigits[digits[n]] = n;
+        }
+    }
+
+    /**
+     * @param board the board to transform
+     * @return a new board with the transform applied
+     */
+    public PackedBoard apply(PackedBoard board) {
+        PackedBoard out = new PackedBoard();
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                out.set(row, col, digits[board.get(source(row, col))]);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * undoes the transform, e.g. to map the solution of a canonical form back to the original puzzle
+     * @param board a board in transformed orientation
+     * @return a new board in the original orientation
+     */
+    public PackedBoard revert(PackedBoard board) {
+        PackedBoard out = new PackedBoard();
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                out.set(source(row, col), inverseDigits[board.get(row, col)]);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return true if the board is transposed before the rows and cols are reordered
+     */
+    public boolean isTranspose() {
+        return transpose;
+    }
+
+    /**
+     * @param row a row of the result
+     * @return the row of the (transposed) board it comes from
+     */
+    public int sourceRow(int row) {
+        return rows[row];
+    }
+
+    /**
+     * @param col a col of the result
+     * @return the col of the (transposed) board it comes from
+     */
+    public int sourceCol(int col) {
+        return cols[col];
+    }
+
+    /**
+     * @param number a number of the board, 0 - 9
+     * @return the number it becomes, 0 stays 0
+     */
+    public int digit(int number) {
+        return digits[number];
+    }
+
+    /**
+     * @return the transform as text, for debugging
+     */
+    @Override
+    public String toString() {
+        return "SymmetryTransform{transpose=" + transpose + ", rows=" + Arrays.toString(rows)
+                + ", cols=" + Arrays.toString(cols) + ", digits=" + Arrays.toString(digits) + "}";
+    }
+
+    /**
+     * @return the index of the board cell that result cell (row, col) comes from
+     */
+    private int source(int row, int col) {
+        return transpose ? cols[col] * 9 + rows[row] : rows[row] * 9 + cols[col];
+    }
+}
@@ -0,0 +1,127 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This is the SIMD check of GridValidator, built on the jdk.incubator.vector module
+ * the cells are widened to shorts and turned into the bits 1 << (number - 1) with one vector shift,
+ * since the cells are checked to be 1 - 9 first, 9 distinct bits in a unit means every number once
+ *
+ * with 512 bit vectors a band (3 rows, 27 cells) is one 32 byte load, and its units are folded
+ * together with lane shuffles instead of reductions:
+ * - lanes i, i + 1, i + 2 and then i, i + 3, i + 6 give the row masks in lanes 0, 9 and 18
+ * - lanes i, i + 9, i + 18 give the col masks of the band in lanes 0 - 8,
+ *   and those folded over i, i + 1, i + 2 the box masks in lanes 0, 3 and 6
+ * with 256 bit vectors a row is one 16 byte load: its mask is a reduction over lanes 0 - 8,
+ * the cols an OR of the rows and the boxes a fold of the 3 rows of a band
+ *
+ * the check only answers valid or not, GridValidator finds the first violation of a grid that fails;
+ * only GridValidator touches this class, and only once it knows the module is there
+ */
+final class VectorGridValidator {
+    /**
+     * the bytes a check may read from the first cell of a grid: the last row load starts at cell 72
+     */
+    static final int READ = 72 + 16;
+
+    private static final boolean WIDE = ShortVector.SPECIES_PREFERRED.vectorBitSize() >= 512;
+
+    private static final VectorSpecies<Byte> BAND_BYTES = ByteVector.SPECIES_256;
+    private static final VectorSpecies<Short> BAND_SHORTS = ShortVector.SPECIES_512;
+    private static final VectorMask<Byte> BAND_CELLS = BAND_BYTES.indexInRange(0, 27);
+    private static final VectorMask<Short> BAND_ROWS = VectorMask.fromLong(BAND_SHORTS, 1L | 1L << 9 | 1L << 18);
+    private static final VectorMask<Short> BAND_COLS = BAND_SHORTS.indexInRange(0, 9);
+    private static final VectorMask<Short> BAND_BOXES = VectorMask.fromLong(BAND_SHORTS, 0b1001001);
+    private static final ShortVector BAND_ONES = ShortVector.broadcast(BAND_SHORTS, (short) 1);
+    private static final VectorShuffle<Short> BAND_PLUS_1 = VectorShuffle.iota(BAND_SHORTS, 1, 1, true);
+    private static final VectorShuffle<Short> BAND_PLUS_2 = VectorShuffle.iota(BAND_SHORTS, 2, 1, true);
+    private static final VectorShuffle<Short> BAND_PLUS_3 = VectorShuffle.iota(BAND_SHORTS, 3, 1, true);
+    private static final VectorShuffle<Short> BAND_PLUS_6 = VectorShuffle.iota(BAND_SHORTS, 6, 1, true);
+    private static final VectorShuffle<Short> BAND_PLUS_9 = VectorShuffle.iota(BAND_SHORTS, 9, 1, true);
+    private static final VectorShuffle<Short> BAND_PLUS_18 = VectorShuffle.iota(BAND_SHORTS, 18, 1, true);
+
+    private static final VectorSpecies<Byte> ROW_BYTES = ByteVector.SPECIES_128;
+    private static final VectorSpecies<Short> ROW_SHORTS = ShortVector.SPECIES_256;
+    private static final VectorMask<Byte> ROW_CELLS = ROW_BYTES.indexInRange(0, 9);
+    private static final VectorMask<Short> ROW_COLS = ROW_SHORTS.indexInRange(0, 9);
+    private static final VectorMask<Short> ROW_BOXES = VectorMask.fromLong(ROW_SHORTS, 0b1001001);
+    private static final ShortVector ROW_ONES = ShortVector.broadcast(ROW_SHORTS, (short) 1);
+    private static final ShortVector ROW_KEEP = ShortVector.zero(ROW_SHORTS).blend((short) -1, ROW_COLS);
+    private static final VectorShuffle<Short> ROW_PLUS_1 = VectorShuffle.iota(ROW_SHORTS, 1, 1, true);
+    private static final VectorShuffle<Short> ROW_PLUS_2 = VectorShuffle.iota(ROW_SHORTS, 2, 1, true);
+
+    private VectorGridValidator(){
+    }
+
+    /**
+     * @return true if the hardware has vectors of 256 bits or more, below that the API runs in plain java
+     */
+    static boolean isSupported() {
+        return ShortVector.SPECIES_PREFERRED.vectorBitSize() >= 256;
+    }
+
+    /**
+     * @param grids the packed grids
+     * @param offset the index of the first cell of the grid, READ bytes from it must be in the array
+     * @return true if every row, col and box of the grid holds 1 - 9 exactly once
+     */
+    static boolean isValid(byte[] grids, int offset) {
+        return WIDE ? isValidByBand(grids, offset) : isValidByRow(grids, offset);
+    }
+
+    /**
+     * the check with 512 bit vectors, one band at a time
+     */
+    static boolean isValidByBand(byte[] grids, int offset) {
+        ShortVector cols = ShortVector.zero(BAND_SHORTS);
+        for (int band = 0; band < 81; band += 27){
+            ByteVector shifts = ByteVector.fromArray(BAND_BYTES, grids, offset + band).sub((byte) 1);
+            if (shifts.compare(VectorOperators.UNSIGNED_GT, (byte) 8, BAND_CELLS).anyTrue()){
+                return false;
+            }
+            ShortVector bits = BAND_ONES.lanewise(VectorOperators.LSHL,
+                    shifts.convertShape(VectorOperators.B2S, BAND_SHORTS, 0));
+            ShortVector triples = bits.or(bits.rearrange(BAND_PLUS_1)).or(bits.rearrange(BAND_PLUS_2));
+            ShortVector rows = triples.or(triples.rearrange(BAND_PLUS_3)).or(triples.rearrange(BAND_PLUS_6));
+            ShortVector bandCols = bits.or(bits.rearrange(BAND_PLUS_9)).or(bits.rearrange(BAND_PLUS_18));
+            ShortVector boxes = bandCols.or(bandCols.rearrange(BAND_PLUS_1)).or(bandCols.rearrange(BAND_PLUS_2));
+            if (rows.compare(VectorOperators.NE, (short) 0x1FF, BAND_ROWS)
+                    .or(boxes.compare(VectorOperators.NE, (short) 0x1FF, BAND_BOXES)).anyTrue()){
+                return false;
+            }
+            cols = cols.or(bandCols);
+        }
+        return !cols.compare(VectorOperators.NE, (short) 0x1FF, BAND_COLS).anyTrue();
+    }
+
+    /**
+     * the check with 256 bit vectors, one row at a time
+     */
+    static boolean isValidByRow(byte[] grids, int offset) {
+        ShortVector cols = ShortVector.zero(ROW_SHORTS);
+        for (int band = 0; band < 9; band += 3){
+            ShortVector boxes = ShortVector.zero(ROW_SHORTS);
+            for (int row = band; row < band + 3; row++){
+                ByteVector shifts = ByteVector.fromArray(ROW_BYTES, grids, offset + row * 9).sub((byte) 1);
+                if (shifts.compare(VectorOperators.UNSIGNED_GT, (byte) 8, ROW_CELLS).anyTrue()){
+                    return false;
+                }
+                ShortVector bits = ROW_ONES.lanewise(VectorOperators.LSHL,
+                        shifts.convertShape(VectorOperators.B2S, ROW_SHORTS, 0)).and(ROW_KEEP);
+                if (bits.reduceLanes(VectorOperators.OR) != 0x1FF){
+                    return false;
+                }
+                cols = cols.or(bits);
+                boxes = boxes.or(bits);
+            }
+            boxes = boxes.or(boxes.rearrange(ROW_PLUS_1)).or(boxes.rearrange(ROW_PLUS_2));
+            if (boxes.compare(VectorOperators.NE, (short) 0x1FF, ROW_BOXES).anyTrue()){
+                return false;
+            }
+        }
+        return !cols.compare(VectorOperators.NE, (short) 0x1FF, ROW_COLS).anyTrue();
+    }
+}
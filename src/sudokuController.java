@@ -1,4 +1,5 @@
 import java.io.InputStream;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Scanner;
 
@@ -12,6 +13,7 @@ public class sudokuController implements IController{
     private Scanner in;
     private IView view;
     private IModel model;
+    private final MoveParser parser = new MoveParser();
 
     /**
      * The constructor of the controller for sudoku that passes in the in, view, and model for the class
@@ -26,41 +28,79 @@ public class sudokuController implements IController{
     }
 
     /**
-     * The go function runs the game
+     * The constructor of the controller for input that is already characters, e.g. the lines a
+     * game server queues for a session, so no byte decoder is kept per game
+     * @param model passes in the model to interact with model
+     * @param in an input for players to enter
+     * @param view interacts with the view portion
+     */
+    public sudokuController(IModel model, Readable in, IView view) {
+        this.model = model;
+        this.view = view;
+        this.in = new Scanner(in);
+    }
+
+    /**
+     * The go function runs the game, until the game is over or the input ends
      */
     @Override
     public void go(){
         view.showInstruction();
         while (!model.isGameOver()){
-            view.displayBoard(this.model.copyBoard());
+            view.displayBoard(model.getBoardView());
             view.showEntryMessage();
 
-            String position = in.nextLine();
+            String position;
+            try {
+                position = in.nextLine();
+            } catch (NoSuchElementException e){
+                // the player left (or the session was closed) before the game was over
+                return;
+            }
+
+            String command = position.strip();
+            if (command.equals("u") || command.equals("r")){
+                // take back the last move, or put it back
+                if (!(command.equals("u") ? model.undo() : model.redo())){
+                    view.showErrorMessage();
+                }
+                continue;
+            }
+            if (command.equals("h")){
+                // the engine follows the board, so this is not a solve, see HintEngine
+                view.showHint(model.getHint());
+                continue;
+            }
 
             try{
-                // making sure the input is a number and within 3 digits, so it doesn't come up as e.g. 9999
-                if (position.length() == 3) {
-                    // parsing the first three inputs
-                  int number = Integer.parseInt(String.valueOf(position.charAt(0)));
-                  int row = Integer.parseInt(String.valueOf(position.charAt(1)));
-                  int col = Integer.parseInt(String.valueOf(position.charAt(2)));
-                  // testing if it's a valid placement before placing it on the board
-                    if (this.model.copyBoard()[row][col] == 0){
+                // a line is one move (e.g. 123 or 16 0 12) or many (e.g. a whole solution path),
+                // read straight from the characters, see MoveParser
+                int count = parser.parse(position);
+                int[] moves = parser.moves();
+                if (count == 1){
+                    int number = MoveParser.numberOf(moves[0]);
+                    int row = MoveParser.rowOf(moves[0]);
+                    int col = MoveParser.colOf(moves[0]);
+                    // testing if it's a valid placement before placing it on the board
+                    if (model.getMarkAt(row, col) == 0){
                         model.move(number, row, col);
-                        this.model.copyBoard()[row][col] = number;
                     }
                     else {
                         view.showErrorMessage();
                     }
+                } else if (count > 1) {
+                    // the whole batch is checked before any move is placed
+                    model.moveAll(moves, count);
                 } else {
                     view.showErrorMessage();
                 }
-            } catch(NumberFormatException e)
+            } catch(IllegalArgumentException | IllegalStateException | IndexOutOfBoundsException e)
             {
+                // not a move, a number the board cannot hold, a cell off the board or a bad batch
                 view.showErrorMessage();
             }
         }
-        view.displayBoard(this.model.copyBoard());
+        view.displayBoard(model.getBoardView());
         view.showResultMessage(this.model.result(this.model.copyBoard()));
     }
 }
@@ -1,13 +1,25 @@
+import java.util.Arrays;
+
 /**
  * This is the model class for sudoku that is hidden from the player
  * it generates the board and has the rule for the players
+ * the board is 9 x 9 by default, or the size of the puzzle it is given (16 x 16, 25 x 25, ...)
  */
 public class sudokuModel implements IModel{
     /**
-     * private default board in our tic-tac-toe
+     * private default board in our tic-tac-toe, packed one byte per cell
      */
-    private int[][] board;
-    private int move;
+    private PackedBoard board;
+    private IBoardView boardView;
+    private MoveHistory history;
+    private HintEngine hints;
+    private ISolver solver;
+    private BitmaskSolver counter;
+    private LargeBoardSolver largeCounter;
+    private int side;
+    private Occupancy occupancy;
+    private int emptyCells;
+    private long[] batched;
 
     /**
      * default constructor for the model of sudoku
@@ -15,7 +27,17 @@ public class sudokuModel implements IModel{
      *
      */
     public sudokuModel(){
-        this.board = new int[][]{
+        this(new BitmaskSolver());
+    }
+
+    /**
+     * constructor for the model of sudoku that picks the solver engine used by solveBoard
+     * e.g. new BitmaskSolver(), new DancingLinksSolver() or new BacktrackingSolver()
+     *
+     * @param solver the engine that solves the board
+     */
+    public sudokuModel(ISolver solver){
+        this(PackedBoard.of(new int[][]{
                                     {3, 0, 0, 7, 0, 1, 9, 2, 0},
                                     {7, 0, 6, 0, 0, 9, 8, 0, 0},
                                     {8, 9, 0, 0, 2, 6, 4, 0, 3},
@@ -25,7 +47,38 @@ public class sudokuModel implements IModel{
                                     {9, 1, 0, 2, 4, 0, 0, 6, 0},
                                     {0, 8, 0, 0, 0, 0, 3, 4, 0},
                                     {2, 0, 4, 8, 0, 3, 1, 0, 0}
-                                };
+                                }), solver);
+    }
+
+    /**
+     * constructor for the model of sudoku on any puzzle, with the default solver engine
+     * for its size: the bitmask solver for 9 x 9, the large board solver for anything else
+     *
+     * @param puzzle the starting board, 0 for empty, it is copied
+     * @throws IllegalArgumentException if the puzzle has no solution
+     */
+    public sudokuModel(PackedBoard puzzle){
+        this(puzzle, puzzle.side() == 9 ? new BitmaskSolver() : new LargeBoardSolver());
+    }
+
+    /**
+     * constructor for the model of sudoku on any puzzle
+     * a puzzle may have more than one solution, any full board that breaks no rule wins
+     *
+     * @param puzzle the starting board, 0 for empty, it is copied
+     * @param solver the engine that solves the board, it must handle the size of the puzzle
+     * @throws IllegalArgumentException if the puzzle has no solution
+     */
+    public sudokuModel(PackedBoard puzzle, ISolver solver){
+        this.board = puzzle.copy();
+        this.boardView = board.view();
+        this.side = puzzle.side();
+        this.solver = solver;
+        this.occupancy = new Occupancy(board);
+        this.emptyCells = board.emptyCount();
+        if (!solver.solve(puzzle.copy())){
+            throw new IllegalArgumentException("puzzle has no solution");
+        }
     }
 
     /**
@@ -33,33 +86,220 @@ public class sudokuModel implements IModel{
      */
     @Override
     public int[][] copyBoard() {
-        return board.clone();
+        return board.toArray();
+    }
+
+    /**
+     * getting the copy of the sudoku grid in packed form
+     */
+    @Override
+    public PackedBoard copyPackedBoard() {
+        return board.copy();
+    }
+
+    /**
+     * getting the sudoku grid itself, read-only and without copying it
+     */
+    @Override
+    public IBoardView getBoardView() {
+        return boardView;
     }
 
     /**
-     * Places 1 - 9 in the specified cell
+     * Places 1 - side (1 - 9 on a 9 x 9 board) in the specified cell
      *
      * @param row the row of the cell
      * @param col the col of the cell
      * @throws IllegalStateException     if the game is over, or if there is already a mark in the cell
      * @throws IndexOutOfBoundsException if the cell is out of bounds
-     *                                   Legal values for col and row would are 0 - 8
+     *                                   Legal values for col and row would are 0 - side - 1
+     * @throws IllegalArgumentException  if the number is not 1 - side
      */
     @Override
     public void move(int number, int row, int col) throws IllegalStateException, IndexOutOfBoundsException {
-        if (row < 0 || row > 8 || col < 0 || col > 8){
-            throw new IndexOutOfBoundsException("cell is out of bound");
-        }
-        else if (isGameOver()){
+        checkCell(row, col);
+        checkNumber(number);
+        if (isGameOver()){
             throw new IllegalStateException("It's game over");
         }
-        else if (board[row][col] != 0){
+        else if (board.get(row, col) != 0){
             throw new IllegalStateException("cell is occupied!");
         }
         else{
-            board[row][col] = number;
-            move++;
+            MoveHistory history = history();
+            setCell(row, col, number);
+            history.record(MoveParser.pack(number, row, col), board);
+        }
+    }
+
+    /**
+     * Places a batch of moves, all or none of them, see IModel.moveAll
+     * one pass checks every move against the board and a bitset of the cells of the batch,
+     * a second pass places them
+     *
+     * @param moves the moves packed by MoveParser.pack
+     * @param count the number of moves, starting at index 0
+     * @throws IllegalStateException if the game is over, or a cell is occupied or in the batch twice
+     * @throws IndexOutOfBoundsException if a cell is out of bounds, or the moves are shorter than count
+     * @throws IllegalArgumentException if a number is not 1 - side
+     */
+    @Override
+    public void moveAll(int[] moves, int count) throws IllegalStateException, IndexOutOfBoundsException {
+        if (count < 0 || count > moves.length){
+            throw new IndexOutOfBoundsException("cannot place " + count + " of " + moves.length + " moves");
+        }
+        if (count == 0){
+            return;
+        }
+        if (isGameOver()){
+            throw new IllegalStateException("It's game over");
+        }
+        if (batched == null){
+            batched = new long[(side * side + 63) / 64];
+        }
+        Arrays.fill(batched, 0);
+        for (int i = 0; i < count; i++){
+            int row = MoveParser.rowOf(moves[i]);
+            int col = MoveParser.colOf(moves[i]);
+            checkCell(row, col);
+            checkNumber(MoveParser.numberOf(moves[i]));
+            int cell = row * side + col;
+            if (board.get(cell) != 0){
+                throw new IllegalStateException("cell is occupied!");
+            }
+            if ((batched[cell >>> 6] & 1L << cell) != 0){
+                throw new IllegalStateException("cell " + row + " " + col + " is in the batch twice");
+            }
+            batched[cell >>> 6] |= 1L << cell;
+        }
+        MoveHistory history = history();
+        for (int i = 0; i < count; i++){
+            setCell(MoveParser.rowOf(moves[i]), MoveParser.colOf(moves[i]), MoveParser.numberOf(moves[i]));
+            history.record(moves[i], board);
+        }
+    }
+
+    /**
+     * takes back the last move, the game goes on if it was over
+     *
+     * @return false if there is no move to take back
+     */
+    @Override
+    public boolean undo() {
+        if (getHistoryPosition() == 0){
+            return false;
+        }
+        goTo(getHistoryPosition() - 1);
+        return true;
+    }
+
+    /**
+     * puts back the last move taken back
+     *
+     * @return false if there is no move to put back
+     */
+    @Override
+    public boolean redo() {
+        if (getHistoryPosition() == getHistorySize()){
+            return false;
+        }
+        goTo(getHistoryPosition() + 1);
+        return true;
+    }
+
+    /**
+     * @return the number of moves on the board, the point of the history the game is at
+     */
+    @Override
+    public int getHistoryPosition() {
+        return history == null ? 0 : history.position();
+    }
+
+    /**
+     * @return the number of moves in the history, the ones taken back included
+     */
+    @Override
+    public int getHistorySize() {
+        return history == null ? 0 : history.size();
+    }
+
+    /**
+     * moves the game to any point of its history, e.g. 0 for the puzzle as it was given
+     * it starts from the current board or from the closest snapshot of the history, whichever is
+     * fewer moves away, and steps over the journal from there
+     *
+     * @param position the number of moves to have on the board, 0 - getHistorySize()
+     * @throws IndexOutOfBoundsException if the history has no such point
+     */
+    @Override
+    public void goTo(int position) throws IndexOutOfBoundsException {
+        if (position < 0 || position > getHistorySize()){
+            throw new IndexOutOfBoundsException("no point " + position + " in a history of " + getHistorySize() + " moves");
+        }
+        if (history == null){
+            return;
+        }
+        int snapshot = history.closestSnapshot(position);
+        if (Math.abs(snapshot - position) < Math.abs(history.position() - position)){
+            byte[][] rows = history.snapshotAt(snapshot);
+            for (int row = 0; row < side; row++){
+                for (int col = 0; col < side; col++){
+                    if (board.get(row, col) != rows[row][col]){
+                        setCell(row, col, rows[row][col]);
+                    }
+                }
+            }
+            history.jumpTo(snapshot);
+        }
+        while (history.position() < position){
+            int move = history.redo();
+            setCell(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+        }
+        while (history.position() > position){
+            int move = history.undo();
+            setCell(MoveParser.rowOf(move), MoveParser.colOf(move), 0);
+        }
+    }
+
+    /**
+     * the simplest step the player can take now without guessing, and why
+     * the engine is made on the first hint and follows the board from then on, so a hint
+     * after a move only catches up with that move
+     *
+     * @return the hint, null if the board is full or needs more than the techniques of the engine
+     */
+    @Override
+    public Hint getHint() {
+        if (hints == null){
+            hints = new HintEngine(boardView);
         }
+        return hints.next();
+    }
+
+    /**
+     * puts a number in a cell, or empties it with 0, and keeps the occupancy and the empty count up to date
+     */
+    private void setCell(int row, int col, int number) {
+        int old = board.get(row, col);
+        if (old != 0){
+            occupancy.remove(row, col, old);
+            emptyCells++;
+        }
+        board.set(row, col, number);
+        if (number != 0){
+            occupancy.add(row, col, number);
+            emptyCells--;
+        }
+    }
+
+    /**
+     * @return the history of the game, started with the board as it is before the first move
+     */
+    private MoveHistory history() {
+        if (history == null){
+            history = new MoveHistory(board);
+        }
+        return history;
     }
 
     /**
@@ -72,7 +312,7 @@ public class sudokuModel implements IModel{
      */
     @Override
     public boolean isNumberInRow(int[][] board, int number, int row) {
-        for (int i = 0; i < 9; i++){
+        for (int i = 0; i < board[row].length; i++){
             if (board[row][i] == number){
                 return true;
             }
@@ -90,7 +330,7 @@ public class sudokuModel implements IModel{
      */
     @Override
     public boolean isNumberInCol(int[][] board, int number, int col) {
-        for (int i = 0; i < 9; i++){
+        for (int i = 0; i < board.length; i++){
             if (board[i][col] == number){
                 return true;
             }
@@ -99,7 +339,7 @@ public class sudokuModel implements IModel{
     }
 
     /**
-     * checks if the number exist in the box
+     * checks if the number exist in the box, the box size is the square root of the board size
      *
      * @param board  current board
      * @param number number plugging in the board
@@ -109,11 +349,12 @@ public class sudokuModel implements IModel{
      */
     @Override
     public boolean isNumberInBox(int[][] board, int number, int row, int col) {
-        int localBoxRow = row - row % 3;
-        int localBoxCol = col - col % 3;
+        int box = (int) Math.round(Math.sqrt(board.length));
+        int localBoxRow = row - row % box;
+        int localBoxCol = col - col % box;
 
-        for (int i = localBoxRow; i < localBoxRow + 3; i++){
-            for (int j = localBoxCol; j < localBoxCol + 3; j++){
+        for (int i = localBoxRow; i < localBoxRow + box; i++){
+            for (int j = localBoxCol; j < localBoxCol + box; j++){
                 if (board[i][j] == number){
                     return true;
                 }
@@ -138,54 +379,153 @@ public class sudokuModel implements IModel{
                 !isNumberInBox(board, number, row, col);
     }
 
-  /**
-   * check if the player solved the board
-   *
-   * citation courtesy of:
-   * (adapted from various tutorials as the following)
-   * https://www.baeldung.com/java-sudoku
-   * https://www.geeksforgeeks.org/backtracking-algorithms/.
-   * https://leetcode.com/problems/sudoku-solver/solution/
-   * https://www.youtube.com/watch?v=tvP_FZ-D9Ng&t=23s
-   * https://www.youtube.com/watch?v=G_UYXzGuqvM
-   * https://www.youtube.com/watch?v=eAFcj_2quWI&t=254s
-   * https://www.youtube.com/watch?v=mcXc8Mva2bA&t=732s
-   * https://www.youtube.com/watch?v=eqUwSA0xI-s
-   * https://www.youtube.com/watch?v=lK4N8E6uNr4
-   * https://www.youtube.com/watch?v=JzONv5kaPJM
-   *
-   *
-   * @param board the current board
-   * @return true if the player successfully solved the board
-   */
-  @Override
-  public boolean solveBoard(int[][] board) {
-        for (int row = 0; row < 9; row++){
-            for (int col = 0; col < 9; col++){
-                if (board[row][col] == 0){
-                  // start trying all the numbers 1 - 9 to see if it's valid
-                  for (int numberToTry = 1; numberToTry <= 9; numberToTry++) {
-                    // check if the number to try is valid
-                    if (isValidPlacement(board, numberToTry, row, col)) {
-                      board[row][col] = numberToTry;
-                      if (solveBoard(board)) {
-                        // recursively trying to solve
-                        return true;
-                      } else {
-                        // we cannot solve the rest of the board with
-                        // the current number we are trying to plug in
-                        // thus, we clear out and resets that cell,
-                        // and it tries again from the for loop
-                        // where it's going to try another number
-                        board[row][col] = 0;
-                      }
-                    }
-                  }
-                  return false; // unable to solve the board
-                }
-            }
+    /**
+     * check if the number can go in the cell of the model's board without repeating in its row, col or box
+     * answered from the occupancy the model keeps up to date in move, without scanning the board
+     *
+     * @param number number the player wants to place, 1 - side
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return true if it's valid
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     * @throws IllegalArgumentException if the number is not 1 - side
+     */
+    @Override
+    public boolean canPlace(int number, int row, int col) {
+        checkCell(row, col);
+        checkNumber(number);
+        return occupancy.canPlace(number, row, col);
+    }
+
+    /**
+     * check if the number in the cell repeats in its row, col or box
+     *
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return true if the cell is filled and a peer holds the same number
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     */
+    @Override
+    public boolean hasConflict(int row, int col) {
+        checkCell(row, col);
+        int number = board.get(row, col);
+        return number != 0 && occupancy.hasConflict(row, col, number);
+    }
+
+    /**
+     * finds every peer (same row, col or box) that holds the same number as the cell,
+     * so a view can highlight the mistake
+     *
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return the cell indexes (row * side + col) of the conflicting peers in row order,
+     * empty if the cell is empty or has no conflict
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     */
+    @Override
+    public int[] conflictingPeers(int row, int col) {
+        checkCell(row, col);
+        int number = board.get(row, col);
+        if (number == 0 || !occupancy.hasConflict(row, col, number)){
+            return new int[0];
         }
-        return true;
+        return occupancy.peersHolding(board, number, row, col);
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException if the cell is out of bounds
+     */
+    private void checkCell(int row, int col) {
+        if (row < 0 || row >= side || col < 0 || col >= side){
+            throw new IndexOutOfBoundsException("cell is out of bound");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the number is not 1 - side
+     */
+    private void checkNumber(int number) {
+        if (number < 1 || number > side){
+            throw new IllegalArgumentException("number must be 1 - " + side);
+        }
+    }
+
+    /**
+     * check if the player solved the board
+     * the search itself is done by the solver engine of the model
+     *
+     * @param board the current board
+     * @return true if the player successfully solved the board
+     */
+    @Override
+    public boolean solveBoard(int[][] board) {
+        return solver.solve(board);
+    }
+
+    /**
+     * check if the player solved the packed board
+     * the search itself is done by the solver engine of the model
+     *
+     * @param board the current board
+     * @return true if the player successfully solved the board
+     */
+    @Override
+    public boolean solveBoard(PackedBoard board) {
+        return solver.solve(board);
+    }
+
+    /**
+     * counts the solutions of the board, stopping as soon as the limit is reached
+     * counting always uses the bitmask engine, whichever solver the model was given,
+     * because it is the fastest at enumerating and does not allocate
+     * boards of other sizes than 9 x 9 are counted by the large board engine
+     *
+     * @param board the board to count, it is not changed
+     * @param limit the most solutions to look for, 2 for a uniqueness check
+     * @return the number of solutions found, at most limit
+     */
+    @Override
+    public int countSolutions(int[][] board, int limit) {
+        if (board.length != 9){
+            return largeCounter().countSolutions(board, limit);
+        }
+        return counter().countSolutions(board, limit);
+    }
+
+    /**
+     * counts the solutions of the packed board, stopping as soon as the limit is reached
+     *
+     * @param board the board to count, it is not changed
+     * @param limit the most solutions to look for, 2 for a uniqueness check
+     * @return the number of solutions found, at most limit
+     */
+    @Override
+    public int countSolutions(PackedBoard board, int limit) {
+        if (board.side() != 9){
+            return largeCounter().countSolutions(board, limit);
+        }
+        return counter().countSolutions(board, limit);
+    }
+
+    /**
+     * @return the bitmask engine for counting, made on first use so a model that never counts
+     * (e.g. one of many hosted games) does not carry its scratch arrays
+     */
+    private BitmaskSolver counter() {
+        if (counter == null){
+            counter = new BitmaskSolver();
+        }
+        return counter;
+    }
+
+    /**
+     * @return the large board engine for counting, made on first use
+     */
+    private LargeBoardSolver largeCounter() {
+        if (largeCounter == null){
+            largeCounter = new LargeBoardSolver();
+        }
+        return largeCounter;
     }
 
     /**
@@ -199,86 +539,36 @@ public class sudokuModel implements IModel{
      */
     @Override
     public int getMarkAt(int row, int col) {
-        if (row < 0 || row > 8 || col < 0 || col > 8){
-            throw new IndexOutOfBoundsException("cell is out of bound");
-        }
-        if (board[row][col] == 0){
-            return 0;
-        }
-        return board[row][col];
+        checkCell(row, col);
+        return board.get(row, col);
     }
 
     /**
-     * helps to check if the player wins, the winning board matches with the player's move
+     * helps to check if the player wins, the winning board is full and repeats no number
+     * in a row, col or box, so every solution of a puzzle with more than one wins
+     * the check is on the model's own board, which is the board the player moves on,
+     * and is O(1) from the counts the model keeps as the player moves
+     *
      * @param board current board
      * @return true if the player wins
      */
     @Override
     public boolean winningBoard(int [][] board) {
-        return (1 == getMarkAt(2, 2) &&
-        4 == getMarkAt(0, 1) &&
-        5 == getMarkAt(0, 2) &&
-        2 == getMarkAt(1, 1) &&
-        6 == getMarkAt(0, 8) &&
-        8 == getMarkAt(0, 4) &&
-        4 == getMarkAt(1, 3) &&
-        3 == getMarkAt(1, 4) &&
-        5 == getMarkAt(2, 3) &&
-        7 == getMarkAt(2, 7) &&
-        5 == getMarkAt(1, 7) &&
-        1 == getMarkAt(1, 8) &&
-        9 == getMarkAt(8, 7) &&
-        8 == getMarkAt(4, 7) &&
-        2 == getMarkAt(7, 8) &&
-        8 == getMarkAt(6, 8) &&
-        5 == getMarkAt(8, 1) &&
-        5 == getMarkAt(6, 6) &&
-        7 == getMarkAt(8, 8) &&
-        6 == getMarkAt(8, 4) &&
-        3 == getMarkAt(5, 1) &&
-        6 == getMarkAt(3, 1) &&
-        3 == getMarkAt(6, 2) &&
-        7 == getMarkAt(6, 5) &&
-        7 == getMarkAt(7, 2) &&
-        6 == getMarkAt(7, 0) &&
-        4 == getMarkAt(4, 0) &&
-        1 == getMarkAt(3, 0) &&
-        9 == getMarkAt(4, 2) &&
-        8 == getMarkAt(5, 2) &&
-        1 == getMarkAt(7, 3) &&
-        9 == getMarkAt(7, 4) &&
-        5 == getMarkAt(7, 5) &&
-        4 == getMarkAt(5, 5) &&
-        2 == getMarkAt(4, 5) &&
-        7 == getMarkAt(3, 6) &&
-        6 == getMarkAt(4, 6) &&
-        5 == getMarkAt(4, 8) &&
-        9 == getMarkAt(5, 8) &&
-        9 == getMarkAt(3, 3) &&
-        6 == getMarkAt(5, 3) &&
-        7 == getMarkAt(5, 4) &&
-        5 == getMarkAt(3, 4));
+        return emptyCells == 0 && !occupancy.hasRepeats();
     }
 
     /**
      * Determines if the game is over
-     * the board should only consist of numbers 1 - 9, 0 represents empty
+     * the model counts the empty cells as the player fills them, so this is O(1)
      *
      * @return boolean, true iff the game is over, either because the player wins or there are no
      * squares left empty
      */
     @Override
     public boolean isGameOver() {
-        for (int row = 0; row < 9; row++){
-            for (int col = 0; col < 9; col++){
-                if (board[row][col] == 0){
-                    return false;
-                }
-            }
-        }
-        // total empty slots = 43
-        return winningBoard(board) || move == 43;
+        return emptyCells == 0;
     }
+
     /**
      * Determines if the player wins the game
      *
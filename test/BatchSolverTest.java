@@ -0,0 +1,102 @@
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the batch solver
+ */
+public class BatchSolverTest {
+
+    /**
+     * solutions come back in input order, bad lines come back unchanged and are counted as failed
+     */
+    @Test
+    public void runTest() throws IOException {
+        String demoSolution = PuzzleFormat.format(solved(SolverTest.DEMO));
+        String inkalaSolution = PuzzleFormat.format(solved(SolverTest.INKALA));
+        String input = SolverTest.DEMO + "\n"
+                + "not a puzzle\n"
+                + "\n"
+                + SolverTest.INKALA + "\n"
+                + "33" + SolverTest.DEMO.substring(2) + "\n";
+
+        StringWriter out = new StringWriter();
+        BatchStats stats = new BatchSolver(3).run(new BufferedReader(new StringReader(input)), out);
+
+        assertEquals(demoSolution + "\n"
+                + "not a puzzle\n"
+                + inkalaSolution + "\n"
+                + "33" + SolverTest.DEMO.substring(2) + "\n", out.toString());
+        assertEquals(4, stats.getPuzzles());
+        assertEquals(2, stats.getSolved());
+        assertTrue(stats.getPuzzlesPerSecond() > 0);
+        assertTrue(stats.percentileNanos(0.99) >= stats.percentileNanos(0.5));
+    }
+
+    /**
+     * the order holds across several chunks and workers
+     */
+    @Test
+    public void runManyTest() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        String[] puzzles = {SolverTest.DEMO, SolverTest.ESCARGOT, SolverTest.ANTI_BRUTE_FORCE};
+        for (int i = 0; i < 40000; i++){
+            String puzzle = puzzles[i % 3];
+            input.append(puzzle).append('\n');
+            expected.append(PuzzleFormat.format(solved(puzzle))).append('\n');
+        }
+        StringWriter out = new StringWriter();
+        BatchStats stats = new BatchSolver(4).run(new BufferedReader(new StringReader(input.toString())), out);
+        assertEquals(expected.toString(), out.toString());
+        assertEquals(40000, stats.getSolved());
+    }
+
+    /**
+     * @param puzzle a puzzle line
+     * @return the solved board
+     */
+    private static int[][] solved(String puzzle) {
+        int[][] board = PuzzleFormat.toBoard(puzzle);
+        assertTrue(new BitmaskSolver().solve(board));
+        return board;
+    }
+
+    /**
+     * the memory mapped path writes the same lines as the reader path
+     */
+    @Test
+    public void runMappedTest() throws IOException {
+        StringBuilder input = new StringBuilder();
+        String[] puzzles = {SolverTest.DEMO, SolverTest.ESCARGOT, "not a puzzle", SolverTest.ANTI_BRUTE_FORCE};
+        for (int i = 0; i < 5000; i++){
+            input.append(puzzles[i % 4]).append('\n');
+        }
+        StringWriter expected = new StringWriter();
+        new BatchSolver(2).run(new BufferedReader(new StringReader(input.toString())), expected);
+
+        Path file = Files.createTempFile("puzzles", ".txt");
+        try {
+            Files.write(file, input.toString().getBytes(StandardCharsets.US_ASCII));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BatchStats stats;
+            try (MappedPuzzleReader reader = new MappedPuzzleReader(file, 4096)){
+                stats = new BatchSolver(3).run(reader, out);
+            }
+            assertEquals(expected.toString(), out.toString(StandardCharsets.US_ASCII));
+            assertEquals(5000, stats.getPuzzles());
+            assertEquals(3750, stats.getSolved());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
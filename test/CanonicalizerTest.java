@@ -0,0 +1,158 @@
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the minlex canonicalizer
+ */
+public class CanonicalizerTest {
+    private static final String[] PUZZLES = {
+            SolverTest.DEMO, SolverTest.INKALA, SolverTest.ESCARGOT, SolverTest.ANTI_BRUTE_FORCE
+    };
+
+    /**
+     * a random transform: transposition, band/stack and row/col orders and a relabeling
+     */
+    static SymmetryTransform randomTransform(SplittableRandom random) {
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = 9; i > 1; i--){
+            int j = 1 + random.nextInt(i);
+            int swap = digits[i];
+            digits[i] = digits[j];
+            digits[j] = swap;
+        }
+        return new SymmetryTransform(random.nextBoolean(), lineOrder(random), lineOrder(random), digits);
+    }
+
+    /**
+     * a random order of the 9 rows (or cols) that keeps bands (or stacks) together,
+     * any of the 6 band orders and 6 orders within each band
+     */
+    private static int[] lineOrder(SplittableRandom random) {
+        int[] bands = {0, 1, 2};
+        shuffle(bands, random);
+        int[] lines = new int[9];
+        int[] inBand = {0, 1, 2};
+        for (int b = 0; b < 3; b++){
+            shuffle(inBand, random);
+            for (int i = 0; i < 3; i++){
+                lines[b * 3 + i] = bands[b] * 3 + inBand[i];
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Fisher-Yates shuffle
+     */
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--){
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * relabels the numbers 1, 2, 3 ... in the order they first appear
+     */
+    private static String relabel(PackedBoard board) {
+        int[] labels = new int[10];
+        int next = 1;
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < PackedBoard.SIZE; i++){
+            int number = board.get(i);
+            if (number != 0 && labels[number] == 0){
+                labels[number] = next++;
+            }
+            out.append(labels[number]);
+        }
+        return out.toString();
+    }
+
+    /**
+     * every transformed copy of a puzzle has the same minlex form
+     */
+    @Test
+    public void invariantTest() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        SplittableRandom random = new SplittableRandom(1);
+        for (String puzzle : PUZZLES){
+            PackedBoard board = PackedBoard.parse(puzzle);
+            PackedBoard form = canonicalizer.minlex(board);
+            for (int i = 0; i < 50; i++){
+                PackedBoard copy = randomTransform(random).apply(board);
+                assertEquals(form, canonicalizer.minlex(copy));
+            }
+        }
+    }
+
+    /**
+     * swapping two bands or two stacks, an odd permutation no rotation gives, keeps the form
+     */
+    @Test
+    public void bandSwapTest() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        int[] identity = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+        int[] swapped = {3, 4, 5, 0, 1, 2, 6, 7, 8};
+        int[] digits = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (String puzzle : PUZZLES){
+            PackedBoard board = PackedBoard.parse(puzzle);
+            PackedBoard form = canonicalizer.minlex(board);
+            assertEquals(form, canonicalizer.minlex(new SymmetryTransform(false, swapped, identity, digits).apply(board)));
+            assertEquals(form, canonicalizer.minlex(new SymmetryTransform(false, identity, swapped, digits).apply(board)));
+        }
+    }
+
+    /**
+     * no transformed copy is lexicographically smaller than the minlex form
+     */
+    @Test
+    public void minimalTest() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        SplittableRandom random = new SplittableRandom(2);
+        for (String puzzle : PUZZLES){
+            PackedBoard board = PackedBoard.parse(puzzle);
+            String form = relabel(canonicalizer.minlex(board));
+            assertEquals(form, canonicalizer.minlex(board).toString().replace('.', '0'));
+            for (int i = 0; i < 1000; i++){
+                assertTrue(form.compareTo(relabel(randomTransform(random).apply(board))) <= 0);
+            }
+        }
+    }
+
+    /**
+     * different puzzles have different forms
+     */
+    @Test
+    public void distinctTest() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        assertNotEquals(canonicalizer.minlex(PackedBoard.parse(SolverTest.INKALA)),
+                canonicalizer.minlex(PackedBoard.parse(SolverTest.ESCARGOT)));
+        assertEquals(new PackedBoard(), canonicalizer.minlex(new PackedBoard()));
+    }
+
+    /**
+     * the solution of the minlex form maps back to the solution of the puzzle
+     */
+    @Test
+    public void revertTest() {
+        Canonicalizer canonicalizer = new Canonicalizer();
+        BitmaskSolver solver = new BitmaskSolver();
+        for (String puzzle : PUZZLES){
+            PackedBoard board = PackedBoard.parse(puzzle);
+            SymmetryTransform transform = canonicalizer.canonicalize(board);
+            PackedBoard form = transform.apply(board);
+            assertEquals(board, transform.revert(form));
+
+            assertTrue(solver.solve(form));
+            int[][] solved = transform.revert(form).toArray();
+            SolverTest.assertSolved(puzzle, solved);
+            // the transform of a solution is the same kind of transform, so it is solved form too
+            assertEquals(form, transform.apply(PackedBoard.of(solved)));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the difficulty rater and the batch rater
+ */
+public class DifficultyRaterTest {
+    /**
+     * a puzzle that needs an x-wing
+     */
+    static final String X_WING = "....6.4......81...4..9....5.7......3....5...2.16....747..6..1....2147.........3..";
+
+    /**
+     * a puzzle that needs claiming
+     */
+    static final String CLAIMING = "26..9.53......261..5..8..9..4...98.68.94..............61....3..4..6...5.........7";
+
+    /**
+     * the rating is the hardest technique a puzzle needs
+     */
+    @Test
+    public void rateTest() {
+        DifficultyRater rater = new DifficultyRater();
+        assertEquals(1.2, rater.rate(PackedBoard.parse(SolverTest.DEMO)), 0);
+        assertEquals(Hint.Technique.HIDDEN_SINGLE_IN_BOX, rater.getHardest());
+        assertEquals(2.3, rater.rate(PackedBoard.parse(SolverTest.ANTI_BRUTE_FORCE)), 0);
+        assertEquals(2.8, rater.rate(PackedBoard.parse(CLAIMING)), 0);
+        assertEquals(Hint.Technique.CLAIMING, rater.getHardest());
+        assertEquals(3.2, rater.rate(PackedBoard.parse(X_WING)), 0);
+        assertEquals(Hint.Technique.X_WING, rater.getHardest());
+
+        // the puzzle is not changed, and a full board needs nothing
+        PackedBoard puzzle = PackedBoard.parse(X_WING);
+        rater.rate(puzzle);
+        assertEquals(PackedBoard.parse(X_WING), puzzle);
+        assertTrue(new BitmaskSolver().solve(puzzle));
+        assertEquals(0, rater.rate(puzzle), 0);
+        assertNull(rater.getHardest());
+    }
+
+    /**
+     * puzzles the techniques cannot finish are beyond them, puzzles that break the rules are invalid
+     */
+    @Test
+    public void beyondAndInvalidTest() {
+        DifficultyRater rater = new DifficultyRater();
+        assertEquals(DifficultyRater.BEYOND, rater.rate(PackedBoard.parse(SolverTest.ESCARGOT)), 0);
+        assertEquals(DifficultyRater.INVALID, rater.rate(PackedBoard.parse("33" + SolverTest.DEMO.substring(2))), 0);
+        assertNull(rater.getHardest());
+
+        RatingStats stats = rater.getStats();
+        assertEquals(2, stats.getPuzzles());
+        assertEquals(0, stats.getRated());
+        assertEquals(1, stats.getBeyond());
+        assertEquals(1, stats.getInvalid());
+        assertEquals("beyond", DifficultyRater.format(DifficultyRater.BEYOND));
+        assertEquals("invalid", DifficultyRater.format(DifficultyRater.INVALID));
+        assertEquals("3.2", DifficultyRater.format(3.2));
+    }
+
+    /**
+     * a rater gives a puzzle the same rating whatever it rated before
+     */
+    @Test
+    public void reuseTest() {
+        DifficultyRater fresh = new DifficultyRater();
+        DifficultyRater used = new DifficultyRater();
+        for (PackedBoard puzzle : new PuzzleGenerator(1, 11).generate(30)){
+            int[] cells = new int[PuzzleFormat.LENGTH];
+            assertTrue(PuzzleFormat.parse(puzzle.toString(), cells));
+            assertEquals(new DifficultyRater().rate(puzzle), used.rate(cells), 0);
+            assertEquals(fresh.rate(puzzle), used.rate(puzzle), 0);
+        }
+    }
+
+    /**
+     * every line comes back with its rating in input order, and the stats of the workers add up
+     */
+    @Test
+    public void batchTest() throws IOException {
+        String[] puzzles = {SolverTest.DEMO, X_WING, "not a puzzle", SolverTest.ESCARGOT, CLAIMING};
+        String[] ratings = {"1.2", "3.2", "invalid", "beyond", "2.8"};
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 2000; i++){
+            input.append(puzzles[i % 5]).append('\n');
+            expected.append(puzzles[i % 5]).append(',').append(ratings[i % 5]).append('\n');
+        }
+        Path file = Files.createTempFile("puzzles", ".txt");
+        try {
+            Files.write(file, input.toString().getBytes(StandardCharsets.US_ASCII));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            RatingStats stats;
+            try (MappedPuzzleReader reader = new MappedPuzzleReader(file, 4096)){
+                stats = new BatchRater(3).run(reader, out);
+            }
+            assertEquals(expected.toString(), out.toString(StandardCharsets.US_ASCII));
+            assertEquals(2000, stats.getPuzzles());
+            assertEquals(1200, stats.getRated());
+            assertEquals(400, stats.getBeyond());
+            assertEquals(400, stats.getInvalid());
+            assertEquals(400, stats.getHardest(Hint.Technique.X_WING));
+            assertEquals(400, stats.getHardest(Hint.Technique.CLAIMING));
+            assertTrue(stats.getHits(Hint.Technique.HIDDEN_SINGLE_IN_BOX) > 1200);
+            assertTrue(stats.getPuzzlesPerSecond() > 0);
+        } finally {
+            Files.delete(file);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BatchRater(0));
+    }
+}
@@ -0,0 +1,182 @@
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the bulk grid validator
+ */
+public class GridValidatorTest {
+
+    /**
+     * the solution of the demo board
+     */
+    private static PackedBoard solved() {
+        PackedBoard board = PackedBoard.parse(SolverTest.DEMO);
+        assertTrue(new BitmaskSolver().solve(board));
+        return board;
+    }
+
+    /**
+     * packs count grids back to back, every one a relabeled or reordered copy of the solution
+     * with some cells broken at random
+     */
+    private static byte[] batch(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        PackedBoard solution = solved();
+        byte[] grids = new byte[count * 81];
+        for (int i = 0; i < count; i++){
+            PackedBoard grid = CanonicalizerTest.randomTransform(random).apply(solution);
+            for (int b = 0; b < 81; b++){
+                grids[i * 81 + b] = (byte) grid.get(b);
+            }
+            switch (random.nextInt(4)){
+                case 1 -> grids[i * 81 + random.nextInt(81)] = (byte) (random.nextInt(1, 10));
+                case 2 -> grids[i * 81 + random.nextInt(81)] = (byte) (random.nextInt(256) - 128);
+                case 3 -> {
+                    int a = i * 81 + random.nextInt(81);
+                    int b = i * 81 + random.nextInt(81);
+                    byte t = grids[a];
+                    grids[a] = grids[b];
+                    grids[b] = t;
+                }
+                default -> { }
+            }
+        }
+        return grids;
+    }
+
+    /**
+     * solved grids are valid
+     */
+    @Test
+    public void validTest() {
+        GridValidator validator = new GridValidator();
+        assertEquals(GridValidator.VALID, validator.validate(solved()));
+        assertEquals("valid", GridValidator.describe(GridValidator.VALID));
+    }
+
+    /**
+     * the verdict names the first violation: bad cells, then rows, cols and boxes
+     */
+    @Test
+    public void firstViolationTest() {
+        GridValidator validator = new GridValidator();
+        PackedBoard grid = solved();
+        grid.set(4, 4, 0);
+        grid.set(7, 2, 0);
+        int verdict = validator.validate(grid);
+        assertEquals(GridValidator.CELL, GridValidator.kindOf(verdict));
+        assertEquals(4 * 9 + 4, GridValidator.indexOf(verdict));
+        assertEquals("cell 40", GridValidator.describe(verdict));
+
+        // swapping two cells of a row keeps the rows, breaks two cols and maybe boxes
+        grid = solved();
+        int a = grid.get(2, 1);
+        grid.set(2, 1, grid.get(2, 7));
+        grid.set(2, 7, a);
+        assertEquals("col 1", GridValidator.describe(validator.validate(grid)));
+
+        // swapping the first two cols keeps rows and cols, only the boxes are wrong
+        grid = solved();
+        for (int row = 0; row < 9; row++){
+            int t = grid.get(row, 2);
+            grid.set(row, 2, grid.get(row, 3));
+            grid.set(row, 3, t);
+        }
+        assertEquals("box 0", GridValidator.describe(validator.validate(grid)));
+
+        grid = solved();
+        grid.set(5, 0, grid.get(5, 1));
+        assertEquals("row 5", GridValidator.describe(validator.validate(grid)));
+    }
+
+    /**
+     * empty cells of a puzzle are allowed, repeated givens are not
+     */
+    @Test
+    public void givensTest() {
+        GridValidator validator = new GridValidator();
+        PackedBoard puzzle = PackedBoard.parse(SolverTest.DEMO);
+        assertEquals(GridValidator.VALID, validator.validateGivens(puzzle));
+        assertEquals(GridValidator.VALID, validator.validateGivens(new PackedBoard()));
+        assertEquals(GridValidator.VALID, validator.validateGivens(solved()));
+
+        // 9 twice in box 8, in different rows and cols
+        PackedBoard broken = new PackedBoard();
+        broken.set(6, 6, 9);
+        broken.set(8, 8, 9);
+        assertEquals("box 8", GridValidator.describe(validator.validateGivens(broken)));
+        // and twice in col 8, which comes before the box
+        broken.set(3, 8, 9);
+        assertEquals("col 8", GridValidator.describe(validator.validateGivens(broken)));
+        // and twice in row 3, which comes before the col
+        broken.set(3, 0, 9);
+        assertEquals("row 3", GridValidator.describe(validator.validateGivens(broken)));
+        assertThrows(IllegalArgumentException.class, () -> validator.validateGivens(new PackedBoard(4)));
+    }
+
+    /**
+     * the vector and scalar paths give the same verdicts, including grids at the end of the array
+     */
+    @Test
+    public void vectorMatchesScalarTest() {
+        byte[] grids = batch(2000, 7);
+        int[] vector = new int[2000];
+        int[] scalar = new int[2000];
+        int valid = new GridValidator(true).validateAll(grids, 2000, vector);
+        assertEquals(valid, new GridValidator(false).validateAll(grids, 2000, scalar));
+        assertArrayEquals(scalar, vector);
+        assertTrue(valid > 400 && valid < 1000);
+
+        // both kernels, whichever one the hardware picks
+        if (new GridValidator().isVectorized()){
+            for (int i = 0; i < 1990; i++){
+                assertEquals(scalar[i] == GridValidator.VALID, VectorGridValidator.isValidByBand(grids, i * 81));
+                assertEquals(scalar[i] == GridValidator.VALID, VectorGridValidator.isValidByRow(grids, i * 81));
+            }
+        }
+    }
+
+    /**
+     * packed boards are checked one by one
+     */
+    @Test
+    public void packedBoardsTest() {
+        PackedBoard broken = solved();
+        broken.set(0, 0, 0);
+        int[] verdicts = new int[3];
+        assertEquals(2, new GridValidator().validateAll(new PackedBoard[]{solved(), broken, solved()}, verdicts));
+        assertArrayEquals(new int[]{GridValidator.VALID, GridValidator.CELL << 8, GridValidator.VALID}, verdicts);
+    }
+
+    /**
+     * only 9 x 9 grids are validated
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void largeGridTest() {
+        new GridValidator().validate(new PackedBoard(4));
+    }
+
+    /**
+     * a batch cannot claim more grids than it holds
+     */
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void shortBatchTest() {
+        new GridValidator().validateAll(new byte[81 * 2 - 1], 2, new int[2]);
+    }
+
+    /**
+     * a grid read through a read-only view gets the same verdict as the board
+     */
+    @Test
+    public void boardViewTest() {
+        GridValidator validator = new GridValidator();
+        PackedBoard board = solved();
+        assertEquals(GridValidator.VALID, validator.validate(board.view()));
+        board.set(4, 4, board.get(4, 5));
+        assertEquals(validator.validate(board), validator.validate(board.view()));
+        assertEquals(GridValidator.ROW, GridValidator.kindOf(validator.validate(board.view())));
+    }
+}
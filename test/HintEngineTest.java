@@ -0,0 +1,230 @@
+import org.junit.Test;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the hint engine
+ */
+public class HintEngineTest {
+
+    /**
+     * the first hint on the default puzzle is the hidden single of 1 in box 0
+     */
+    @Test
+    public void hiddenSingleTest() {
+        sudokuModel model = new sudokuModel();
+        Hint hint = model.getHint();
+        assertEquals(Hint.Technique.HIDDEN_SINGLE_IN_BOX, hint.getTechnique());
+        assertTrue(hint.isPlacement());
+        assertEquals(MoveParser.pack(1, 2, 2), hint.getMove());
+        assertEquals(0, hint.getEliminations().length);
+        assertEquals("hidden single: 1 goes in row 2 col 2, the only place left for it in box 0", hint.toString());
+        // asking again without a move gives the same hint
+        assertEquals(hint.toString(), model.getHint().toString());
+    }
+
+    /**
+     * following the hints wins the default puzzle
+     */
+    @Test
+    public void followHintsTest() {
+        sudokuModel model = new sudokuModel();
+        Hint hint;
+        while ((hint = model.getHint()) != null){
+            if (hint.isPlacement()){
+                int move = hint.getMove();
+                model.move(MoveParser.numberOf(move), MoveParser.rowOf(move), MoveParser.colOf(move));
+            }
+        }
+        assertTrue(model.isGameOver());
+        assertTrue(model.result(model.copyBoard()));
+    }
+
+    /**
+     * no hint on generated puzzles goes against their solution, and the harder techniques show up
+     */
+    @Test
+    public void soundTest() {
+        List<PackedBoard> puzzles = new PuzzleGenerator(1, 7).generate(40);
+        Set<Hint.Technique> seen = EnumSet.noneOf(Hint.Technique.class);
+        for (PackedBoard puzzle : puzzles){
+            PackedBoard solution = puzzle.copy();
+            assertTrue(new BitmaskSolver().solve(solution));
+            PackedBoard board = puzzle.copy();
+            HintEngine engine = new HintEngine(board);
+            Hint hint;
+            while ((hint = engine.next()) != null){
+                seen.add(hint.getTechnique());
+                if (hint.isPlacement()){
+                    int move = hint.getMove();
+                    assertEquals(hint.toString(), solution.get(MoveParser.rowOf(move), MoveParser.colOf(move)), MoveParser.numberOf(move));
+                    board.set(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+                } else {
+                    assertTrue(hint.getEliminations().length > 0);
+                    for (int move : hint.getEliminations()){
+                        assertNotEquals(hint.toString(), solution.get(MoveParser.rowOf(move), MoveParser.colOf(move)), MoveParser.numberOf(move));
+                    }
+                }
+            }
+        }
+        assertFalse(seen.contains(Hint.Technique.MISTAKE));
+        assertTrue(seen.contains(Hint.Technique.POINTING));
+        assertTrue(seen.contains(Hint.Technique.NAKED_PAIR));
+        assertTrue(seen.contains(Hint.Technique.X_WING));
+    }
+
+    /**
+     * every elimination of a pointing or claiming hint is of its number and in the unit it names,
+     * none is left over from an earlier hint
+     */
+    @Test
+    public void lockedCandidatesTest() {
+        Pattern pointing = Pattern.compile("pointing: in box (\\d+), (\\d+) is only in (row|col) (\\d+),.*");
+        Pattern claiming = Pattern.compile("claiming: in (row|col) (\\d+), (\\d+) is only in box (\\d+),.*");
+        int checked = 0;
+        for (PackedBoard puzzle : new PuzzleGenerator(1, 5).generate(60)){
+            PackedBoard board = puzzle.copy();
+            HintEngine engine = new HintEngine(board);
+            Hint hint;
+            while ((hint = engine.next()) != null){
+                Matcher m;
+                int number;
+                int box;
+                boolean row;
+                int line;
+                if ((m = pointing.matcher(hint.toString())).matches()){
+                    box = Integer.parseInt(m.group(1));
+                    number = Integer.parseInt(m.group(2));
+                    row = m.group(3).equals("row");
+                    line = Integer.parseInt(m.group(4));
+                } else if ((m = claiming.matcher(hint.toString())).matches()){
+                    row = m.group(1).equals("row");
+                    line = Integer.parseInt(m.group(2));
+                    number = Integer.parseInt(m.group(3));
+                    box = Integer.parseInt(m.group(4));
+                } else {
+                    if (hint.isPlacement()){
+                        int move = hint.getMove();
+                        board.set(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+                    }
+                    continue;
+                }
+                boolean isPointing = hint.getTechnique() == Hint.Technique.POINTING;
+                for (int move : hint.getEliminations()){
+                    int r = MoveParser.rowOf(move);
+                    int c = MoveParser.colOf(move);
+                    boolean inLine = (row ? r : c) == line;
+                    boolean inBox = (r / 3) * 3 + c / 3 == box;
+                    assertEquals(hint.toString(), number, MoveParser.numberOf(move));
+                    // pointing clears the line outside the box, claiming the box outside the line
+                    assertTrue(hint.toString(), isPointing ? inLine && !inBox : inBox && !inLine);
+                }
+                checked++;
+            }
+        }
+        assertTrue(checked > 20);
+    }
+
+    /**
+     * the singles and mistakes the engine keeps up move by move are the ones a fresh engine finds,
+     * also after a wrong move; the comparison stops at the first elimination, which only the
+     * engine that made it remembers
+     */
+    @Test
+    public void incrementalTest() {
+        SplittableRandom random = new SplittableRandom(3);
+        Set<String> mistakes = new HashSet<>();
+        int compared = 0;
+        for (PackedBoard puzzle : new PuzzleGenerator(1, 9).generate(60)){
+            PackedBoard solution = puzzle.copy();
+            assertTrue(new BitmaskSolver().solve(solution));
+            PackedBoard board = puzzle.copy();
+            HintEngine engine = new HintEngine(board);
+            int wrongAt = random.nextInt(board.emptyCount());
+            for (int step = 0; ; step++){
+                if (step == wrongAt){
+                    // a number the cell can take that is not its solution
+                    for (int i = 0; i < board.length(); i++){
+                        long wrong = engine.candidatesAt(i / 9, i % 9) & ~(1L << (solution.get(i) - 1));
+                        if (board.get(i) == 0 && wrong != 0){
+                            board.set(i, Long.numberOfTrailingZeros(wrong) + 1);
+                            break;
+                        }
+                    }
+                }
+                HintEngine fresh = new HintEngine(board.copy());
+                for (int i = 0; i < board.length(); i++){
+                    assertEquals(fresh.candidatesAt(i / 9, i % 9), engine.candidatesAt(i / 9, i % 9));
+                }
+                Hint hint = engine.next();
+                Hint expected = fresh.next();
+                assertEquals(expected == null, hint == null);
+                if (hint != null){
+                    assertEquals(expected.getTechnique(), hint.getTechnique());
+                    // a board with several mistakes may be told by another one of them
+                    if (hint.getTechnique() != Hint.Technique.MISTAKE){
+                        assertEquals(expected.toString(), hint.toString());
+                    }
+                }
+                compared++;
+                if (hint == null || !hint.isPlacement()){
+                    if (hint != null && hint.getTechnique() == Hint.Technique.MISTAKE){
+                        mistakes.add(hint.toString().replaceAll(".* (is already|has no number|has no place).*", "$1"));
+                    }
+                    break;
+                }
+                int move = hint.getMove();
+                board.set(MoveParser.rowOf(move), MoveParser.colOf(move), MoveParser.numberOf(move));
+            }
+        }
+        assertTrue(compared > 1000);
+        assertEquals(Set.of("has no number", "has no place"), mistakes);
+    }
+
+    /**
+     * the candidates follow moves and undos of the board
+     */
+    @Test
+    public void followBoardTest() {
+        sudokuModel model = new sudokuModel();
+        HintEngine engine = new HintEngine(model.getBoardView());
+        // row 0 col 1 is 4 or 5
+        assertEquals(0b11000, engine.candidatesAt(0, 1));
+        model.move(5, 0, 2);
+        assertEquals(0b01000, engine.candidatesAt(0, 1));
+        assertEquals(0, engine.candidatesAt(0, 2));
+        model.undo();
+        assertEquals(0b11000, engine.candidatesAt(0, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.candidatesAt(9, 0));
+    }
+
+    /**
+     * a number twice in a unit, or a cell with no number left, is a mistake
+     */
+    @Test
+    public void mistakeTest() {
+        PackedBoard board = new sudokuModel().copyPackedBoard();
+        HintEngine engine = new HintEngine(board);
+        engine.next();
+        board.set(0, 1, 7);
+        Hint hint = engine.next();
+        assertEquals(Hint.Technique.MISTAKE, hint.getTechnique());
+        assertFalse(hint.isPlacement());
+        assertEquals("the 7 at row 0 col 1 is already in its row, col or box, take it back", hint.toString());
+
+        board.set(0, 1, 0);
+        assertEquals(Hint.Technique.HIDDEN_SINGLE_IN_BOX, engine.next().getTechnique());
+        // 4 and 5 both taken away from row 0 col 1 by its peers
+        board.set(0, 2, 5);
+        board.set(1, 1, 4);
+        assertEquals("row 0 col 1 has no number left, a move before was wrong", engine.next().toString());
+    }
+}
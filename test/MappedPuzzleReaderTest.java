@@ -0,0 +1,103 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the memory mapped puzzle reader
+ */
+public class MappedPuzzleReaderTest {
+
+    Path file;
+
+    /**
+     * creating the puzzle file
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("puzzles", ".txt");
+    }
+
+    /**
+     * removing the puzzle file
+     */
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * every line is read exactly once in order, over many chunks and regions,
+     * with windows line breaks, empty lines, lines of only spaces and tabs, and a last line without a line break
+     */
+    @Test
+    public void chunksTest() throws IOException {
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++){
+            String puzzle = i % 2 == 0 ? SolverTest.DEMO : SolverTest.INKALA;
+            text.append(puzzle).append(i % 3 == 0 ? "\r\n" : "\n");
+            expected.add(puzzle.replace('.', '0'));
+            if (i % 7 == 0){
+                text.append("\n");
+            }
+            if (i % 11 == 0){
+                text.append(" \t \r\n");
+            }
+        }
+        text.append("bad line\n").append(SolverTest.ESCARGOT);
+        expected.add("invalid");
+        expected.add(SolverTest.ESCARGOT.replace('.', '0'));
+        Files.write(file, text.toString().getBytes(StandardCharsets.US_ASCII));
+
+        for (long regionBytes : new long[]{500, 1000, MappedPuzzleReader.MAX_REGION_BYTES}){
+            try (MappedPuzzleReader reader = new MappedPuzzleReader(file, 300, regionBytes)){
+                assertTrue(reader.chunks().size() > 1);
+                assertEquals(expected, readAll(reader));
+                // a chunk can be read again after a rewind
+                assertEquals(expected, readAll(reader));
+            }
+        }
+    }
+
+    /**
+     * a line that does not fit in a region cannot be mapped
+     */
+    @Test (expected = IOException.class)
+    public void lineLongerThanRegionTest() throws IOException {
+        Files.write(file, (SolverTest.DEMO + "\n" + SolverTest.DEMO + "\n").getBytes(StandardCharsets.US_ASCII));
+        new MappedPuzzleReader(file, 100, 50).close();
+    }
+
+    /**
+     * @return every line of every chunk, puzzles with 0 for empty, other lines as invalid
+     */
+    private static List<String> readAll(MappedPuzzleReader reader) {
+        List<String> lines = new ArrayList<>();
+        int[] cells = new int[PuzzleFormat.LENGTH];
+        for (MappedPuzzleReader.Chunk chunk : reader.chunks()){
+            chunk.rewind();
+            int kind;
+            while ((kind = chunk.next(cells)) != MappedPuzzleReader.Chunk.END){
+                if (kind == MappedPuzzleReader.Chunk.PUZZLE){
+                    StringBuilder line = new StringBuilder();
+                    for (int cell : cells){
+                        line.append(cell);
+                    }
+                    lines.add(line.toString());
+                } else {
+                    lines.add("invalid");
+                }
+            }
+        }
+        return lines;
+    }
+}
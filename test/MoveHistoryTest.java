@@ -0,0 +1,66 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the move history
+ */
+public class MoveHistoryTest {
+
+    /**
+     * snapshots share the rows that did not change since the one before
+     */
+    @Test
+    public void sharedRowsTest() {
+        PackedBoard board = new PackedBoard(4);
+        MoveHistory history = new MoveHistory(board);
+        // every move of the first interval goes to row 0
+        for (int col = 0; col < MoveHistory.INTERVAL; col++){
+            board.set(0, col, col + 1);
+            history.record(MoveParser.pack(col + 1, 0, col), board);
+        }
+        byte[][] start = history.snapshotAt(0);
+        byte[][] first = history.snapshotAt(MoveHistory.INTERVAL);
+        assertNotSame(start[0], first[0]);
+        for (int row = 1; row < 16; row++){
+            assertSame(start[row], first[row]);
+        }
+        assertEquals(16, first[0][15]);
+        assertEquals(0, start[0][15]);
+    }
+
+    /**
+     * a jump starts from the closest snapshot that exists
+     */
+    @Test
+    public void closestSnapshotTest() {
+        PackedBoard board = new PackedBoard();
+        MoveHistory history = new MoveHistory(board);
+        for (int i = 0; i < 40; i++){
+            board.set(i, 1 + i % 9);
+            history.record(MoveParser.pack(1 + i % 9, i / 9, i % 9), board);
+        }
+        assertEquals(0, history.closestSnapshot(5));
+        assertEquals(16, history.closestSnapshot(10));
+        assertEquals(32, history.closestSnapshot(39));
+        assertEquals(32, history.closestSnapshot(40));
+
+        // taking back moves and making a new one drops the snapshots after it
+        for (int i = 0; i < 25; i++){
+            history.undo();
+        }
+        // the board follows the undos, then 2 goes where the 7 of move 15 was
+        for (int i = 15; i < 40; i++){
+            board.set(i, 0);
+        }
+        board.set(15, 2);
+        history.record(MoveParser.pack(2, 1, 6), board);
+        assertEquals(16, history.size());
+        assertEquals(16, history.closestSnapshot(16));
+        byte[][] snapshot = history.snapshotAt(16);
+        assertEquals(2, snapshot[1][6]);
+        assertEquals(6, snapshot[1][5]);
+        assertEquals(0, snapshot[1][7]);
+        assertThrows(IllegalStateException.class, history::redo);
+    }
+}
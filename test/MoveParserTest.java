@@ -0,0 +1,96 @@
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the move parser
+ */
+public class MoveParserTest {
+
+    /**
+     * @return the moves of the last parse as number row col triples
+     */
+    private static int[][] moves(MoveParser parser, int count) {
+        int[][] moves = new int[count][];
+        for (int i = 0; i < count; i++){
+            int move = parser.moves()[i];
+            moves[i] = new int[]{MoveParser.numberOf(move), MoveParser.rowOf(move), MoveParser.colOf(move)};
+        }
+        return moves;
+    }
+
+    /**
+     * a console move is three digits or three numbers
+     */
+    @Test
+    public void singleMoveTest() {
+        MoveParser parser = new MoveParser();
+        assertEquals(1, parser.parse("123"));
+        assertArrayEquals(new int[][]{{1, 2, 3}}, moves(parser, 1));
+        assertEquals(1, parser.parse(" 16 0\t12 "));
+        assertArrayEquals(new int[][]{{16, 0, 12}}, moves(parser, 1));
+        assertEquals(1, parser.parse("1 2 3"));
+        assertArrayEquals(new int[][]{{1, 2, 3}}, moves(parser, 1));
+        assertEquals(0, parser.parse(""));
+        assertEquals(0, parser.parse(" ;\r\n"));
+    }
+
+    /**
+     * many moves go on one line, or on many, and the two forms mix between line parts
+     */
+    @Test
+    public void manyMovesTest() {
+        MoveParser parser = new MoveParser();
+        assertEquals(3, parser.parse("123 456,789"));
+        assertArrayEquals(new int[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}}, moves(parser, 3));
+        assertEquals(4, parser.parse("123\r\n16 0 12; 456\n25 24 1"));
+        assertArrayEquals(new int[][]{{1, 2, 3}, {16, 0, 12}, {4, 5, 6}, {25, 24, 1}}, moves(parser, 4));
+        // three three digit numbers are three moves
+        assertEquals(3, parser.parse("100 200 300"));
+
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < 81; i++){
+            path.append(i % 9 + 1).append(i / 9).append(i % 9).append(' ');
+        }
+        assertEquals(81, parser.parse(path));
+        assertArrayEquals(new int[]{9, 8, 8}, moves(parser, 81)[80]);
+    }
+
+    /**
+     * bytes are read without decoding them, from a range of the array
+     */
+    @Test
+    public void bytesTest() {
+        MoveParser parser = new MoveParser();
+        byte[] bytes = "xx301 502\nyy".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(2, parser.parse(bytes, 2, 8));
+        assertArrayEquals(new int[][]{{3, 0, 1}, {5, 0, 2}}, moves(parser, 2));
+        assertThrows(IllegalArgumentException.class, () -> parser.parse(bytes, 0, 8));
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.parse(bytes, 4, 9));
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.parse(bytes, -1, 2));
+    }
+
+    /**
+     * anything that is not moves is rejected
+     */
+    @Test
+    public void badMovesTest() {
+        MoveParser parser = new MoveParser();
+        for (String bad : new String[]{"def", "12345", "1234", "12", "1 2", "1 2 3 4", "123 4", "12a", "1-2-3", "1 2 3 456 7"}){
+            assertThrows(bad, IllegalArgumentException.class, () -> parser.parse(bad));
+        }
+    }
+
+    /**
+     * a packed move keeps its number, row and col
+     */
+    @Test
+    public void packTest() {
+        int move = MoveParser.pack(999, 64, 7);
+        assertEquals(999, MoveParser.numberOf(move));
+        assertEquals(64, MoveParser.rowOf(move));
+        assertEquals(7, MoveParser.colOf(move));
+    }
+}
@@ -0,0 +1,195 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the socket move server
+ */
+public class MoveServerTest {
+
+    private MoveServer server;
+
+    /**
+     * starts a server with two selector threads on a free port, its models judge a win by the board
+     * they are handed, as a model that does not keep its own board would
+     */
+    @Before
+    public void setUp() throws Exception {
+        server = new MoveServer(new InetSocketAddress("localhost", 0), 2, () -> new sudokuModel(){
+            @Override
+            public boolean winningBoard(int[][] board) {
+                return board != null && Arrays.deepEquals(board, copyBoard()) && super.winningBoard(board);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * stops the server
+     */
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    /**
+     * a client of the server
+     */
+    private final class Client implements AutoCloseable {
+        private final Socket socket;
+        private final OutputStream out;
+        private final BufferedReader in;
+
+        private Client() throws IOException {
+            socket = new Socket("localhost", server.getPort());
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        }
+
+        private void send(String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        private String read() throws IOException {
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    /**
+     * a game is played to the end, with the moves sent in pieces that split lines
+     */
+    @Test
+    public void playTest() throws Exception {
+        int[][] puzzle = new sudokuModel().copyBoard();
+        int[][] solution = new sudokuModel().copyBoard();
+        assertTrue(new BitmaskSolver().solve(solution));
+        StringBuilder moves = new StringBuilder();
+        int count = 0;
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                if (puzzle[row][col] == 0){
+                    moves.append(solution[row][col]).append(row).append(col).append(row % 2 == 0 ? "\n" : "\r\n");
+                    count++;
+                }
+            }
+        }
+        try (Client client = new Client()){
+            client.send("b\n");
+            assertEquals(PackedBoard.parse(SolverTest.DEMO).toString(), client.read());
+            client.send("999\n\n0100\n");
+            assertEquals("invalid", client.read());
+            assertEquals("invalid", client.read());
+            int half = moves.length() / 2 + 1;
+            client.send(moves.substring(0, half));
+            Thread.sleep(50);
+            client.send(moves.substring(half));
+            for (int i = 0; i < count; i++){
+                assertEquals("ok", client.read());
+            }
+            assertEquals("won", client.read());
+            client.send(moves.substring(0, 4));
+            assertEquals("invalid", client.read());
+        }
+    }
+
+    /**
+     * a taken cell, a number or cell out of range and anything that is not a move are invalid
+     */
+    @Test
+    public void invalidTest() throws Exception {
+        try (Client client = new Client()){
+            client.send("500\n001\n501\n501\nabc\n12\n1234\nbb\n5a1\n591\n519\n");
+            assertEquals("invalid", client.read());
+            assertEquals("invalid", client.read());
+            assertEquals("ok", client.read());
+            for (int i = 0; i < 8; i++){
+                assertEquals("invalid", client.read());
+            }
+        }
+    }
+
+    /**
+     * many connections on a few threads each play their own game
+     */
+    @Test
+    public void independentTest() throws Exception {
+        Client[] clients = new Client[200];
+        try {
+            for (int i = 0; i < clients.length; i++){
+                clients[i] = new Client();
+                // cell (0, 1) of the demo board is empty, every game gets its own number there
+                clients[i].send((i % 9 + 1) + "01\nb\n");
+            }
+            for (int i = 0; i < clients.length; i++){
+                assertEquals("ok", clients[i].read());
+                assertEquals(i % 9 + 1, clients[i].read().charAt(1) - '0');
+            }
+            assertEquals(200, server.getConnections());
+        } finally {
+            for (Client client : clients){
+                if (client != null){
+                    client.close();
+                }
+            }
+        }
+        for (int i = 0; i < 100 && server.getConnections() > 0; i++){
+            Thread.sleep(20);
+        }
+        assertEquals(0, server.getConnections());
+    }
+
+    /**
+     * a server needs a selector thread
+     */
+    @Test
+    public void badThreadsTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MoveServer(new InetSocketAddress("localhost", 0), 0, sudokuModel::new));
+    }
+
+    /**
+     * moves are taken back and put back over the socket
+     */
+    @Test
+    public void undoTest() throws Exception {
+        try (Client client = new Client()){
+            client.send("u\n501\nu\nu\nr\nr\nb\n");
+            assertEquals("invalid", client.read());
+            assertEquals("ok", client.read());
+            assertEquals("ok", client.read());
+            assertEquals("invalid", client.read());
+            assertEquals("ok", client.read());
+            assertEquals("invalid", client.read());
+            assertEquals('5', client.read().charAt(1));
+        }
+    }
+
+    /**
+     * h answers with the simplest next step in one line
+     */
+    @Test
+    public void hintTest() throws Exception {
+        try (Client client = new Client()){
+            client.send("h\n");
+            assertEquals("hidden single: 1 goes in row 2 col 2, the only place left for it in box 0", client.read());
+        }
+    }
+}
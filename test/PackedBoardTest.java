@@ -0,0 +1,152 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the packed board
+ */
+public class PackedBoardTest {
+
+    /**
+     * packing and unpacking gives back the same board
+     */
+    @Test
+    public void roundTripTest() {
+        int[][] board = SolverTest.parse(SolverTest.DEMO);
+        PackedBoard packed = PackedBoard.of(board);
+        assertArrayEquals(board, packed.toArray());
+        assertEquals(3, packed.get(0, 0));
+        assertEquals(0, packed.get(1));
+        assertEquals(43, packed.emptyCount());
+        assertEquals(SolverTest.DEMO.replace('0', '.'), packed.toString());
+        assertEquals(packed, PackedBoard.parse(SolverTest.DEMO));
+    }
+
+    /**
+     * a copy is equal but independent
+     */
+    @Test
+    public void copyTest() {
+        PackedBoard packed = PackedBoard.parse(SolverTest.DEMO);
+        PackedBoard copy = packed.copy();
+        assertEquals(packed, copy);
+        assertEquals(packed.hashCode(), copy.hashCode());
+
+        copy.set(0, 1, 4);
+        assertNotEquals(packed, copy);
+        assertEquals(0, packed.get(0, 1));
+
+        packed.copyFrom(copy);
+        assertEquals(copy, packed);
+    }
+
+    /**
+     * a cell only holds 0 - 9
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void setOutOfRangeTest() {
+        new PackedBoard().set(0, 10);
+    }
+
+    /**
+     * only n² x n² boards can be packed
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void ofWrongShapeTest() {
+        PackedBoard.of(new int[8][9]);
+    }
+
+    /**
+     * a 16 x 16 board holds 1 - 16 and reads and writes letters past 9
+     */
+    @Test
+    public void largeBoardTest() {
+        PackedBoard board = PackedBoard.parse(SolverTest.HEX, 4);
+        assertEquals(4, board.boxSize());
+        assertEquals(16, board.side());
+        assertEquals(256, board.length());
+        assertEquals(15, board.get(0, 5));
+        assertEquals(SolverTest.HEX, board.toString());
+        assertEquals(board, PackedBoard.of(board.toArray()));
+
+        board.set(15, 15, 16);
+        assertEquals(16, board.get(255));
+        assertEquals(4, PackedBoard.boxSizeOf(16));
+        assertEquals(5, PackedBoard.boxSizeOf(25));
+        assertEquals(0, PackedBoard.boxSizeOf(10));
+        assertEquals(0, new PackedBoard(5).get(624));
+    }
+
+    /**
+     * a cell of a 16 x 16 board only holds 0 - 16
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void largeSetOutOfRangeTest() {
+        new PackedBoard(4).set(0, 17);
+    }
+
+    /**
+     * boards of different sizes do not copy into each other
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void copyFromOtherSizeTest() {
+        new PackedBoard().copyFrom(new PackedBoard(4));
+    }
+
+    /**
+     * a puzzle line must have a cell for every cell of the board
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void parseWrongLengthTest() {
+        PackedBoard.parse(SolverTest.DEMO, 4);
+    }
+
+    /**
+     * a view reads the live board, and its version moves with every change
+     */
+    @Test
+    public void viewTest() {
+        PackedBoard board = PackedBoard.parse(SolverTest.DEMO);
+        IBoardView view = board.view();
+        assertFalse(view instanceof PackedBoard);
+        assertEquals(9, view.side());
+        assertEquals(3, view.boxSize());
+        assertEquals(7, view.get(0, 3));
+        assertEquals(7, view.get(3));
+        long version = view.version();
+        board.set(0, 1, 5);
+        assertEquals(5, view.get(0, 1));
+        assertNotEquals(version, view.version());
+        assertEquals(board.version(), view.version());
+
+        PackedBoard snapshot = view.snapshot();
+        assertEquals(board, snapshot);
+        board.set(0, 2, 4);
+        assertEquals(0, snapshot.get(0, 2));
+    }
+
+    /**
+     * rows, cols and boxes are visited in order
+     */
+    @Test
+    public void forEachTest() {
+        IBoardView view = PackedBoard.parse(SolverTest.DEMO).view();
+        StringBuilder row = new StringBuilder();
+        view.forEachInRow(1, (index, number) -> row.append(index).append('=').append(number).append(' '));
+        assertEquals("9=7 10=0 11=6 12=0 13=0 14=9 15=8 16=0 17=0 ", row.toString());
+        StringBuilder col = new StringBuilder();
+        view.forEachInCol(8, (index, number) -> col.append(number));
+        assertEquals("003400000", col.toString());
+        StringBuilder box = new StringBuilder();
+        view.forEachInBox(5, (index, number) -> box.append(index).append(' '));
+        assertEquals("33 34 35 42 43 44 51 52 53 ", box.toString());
+
+        int[] sum = new int[1];
+        PackedBoard large = new PackedBoard(4);
+        large.set(15, 15, 16);
+        large.view().forEachInBox(15, (index, number) -> sum[0] += index == 255 ? number : 100);
+        assertEquals(16 + 15 * 100, sum[0]);
+        assertThrows(IndexOutOfBoundsException.class, () -> view.forEachInRow(9, (index, number) -> { }));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.forEachInBox(-1, (index, number) -> { }));
+    }
+}
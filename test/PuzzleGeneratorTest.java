@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the puzzle generator
+ */
+public class PuzzleGeneratorTest {
+
+    /**
+     * every generated puzzle has exactly one solution and no clue can be taken out
+     */
+    @Test
+    public void uniqueAndMinimalTest() {
+        DancingLinksSolver counter = new DancingLinksSolver();
+        List<PackedBoard> puzzles = new PuzzleGenerator(2, 42).generate(10);
+        assertEquals(10, puzzles.size());
+        for (PackedBoard puzzle : puzzles){
+            assertEquals(1, counter.countSolutions(puzzle, 2));
+            for (int i = 0; i < PackedBoard.SIZE; i++){
+                if (puzzle.get(i) != 0){
+                    PackedBoard fewer = puzzle.copy();
+                    fewer.set(i, 0);
+                    assertEquals(2, counter.countSolutions(fewer, 2));
+                }
+            }
+        }
+    }
+
+    /**
+     * the same seed gives the same puzzles whatever the thread count
+     */
+    @Test
+    public void reproducibleTest() {
+        PuzzleGenerator generator = new PuzzleGenerator(3, 7);
+        List<PackedBoard> puzzles = generator.generate(6);
+        assertEquals(puzzles, new PuzzleGenerator(1, 7).generate(6));
+        assertNotEquals(puzzles, new PuzzleGenerator(1, 8).generate(6));
+        assertEquals(6, generator.getLastStats().getPuzzles());
+        assertTrue(generator.getLastStats().getPuzzlesPerSecond() > 0);
+    }
+
+    /**
+     * one puzzle on the calling thread is also unique
+     */
+    @Test
+    public void singleTest() {
+        PackedBoard puzzle = PuzzleGenerator.generate(new SplittableRandom(1));
+        assertEquals(1, new DancingLinksSolver().countSolutions(puzzle, 2));
+        assertTrue(puzzle.emptyCount() > 45);
+    }
+}
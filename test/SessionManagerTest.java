@@ -0,0 +1,135 @@
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the session manager
+ */
+public class SessionManagerTest {
+
+    /**
+     * a hosted game is played to the end through its session
+     */
+    @Test
+    public void playTest() throws Exception {
+        try (SessionManager manager = new SessionManager(Duration.ofMinutes(1))){
+            manager.start();
+            SessionManager.Session session = manager.open();
+            assertSame(session, manager.get(session.getId()));
+            int[][] puzzle = session.getModel().copyBoard();
+            int[][] solution = session.getModel().copyBoard();
+            assertTrue(new BitmaskSolver().solve(solution));
+
+            session.send("999");
+            for (int row = 0; row < 9; row++){
+                for (int col = 0; col < 9; col++){
+                    if (puzzle[row][col] == 0){
+                        session.send("" + solution[row][col] + row + col);
+                    }
+                }
+            }
+            assertTrue(session.await(Duration.ofSeconds(10)));
+            assertFalse(session.isOpen());
+            String output = session.drainOutput();
+            assertTrue(output.startsWith("Please enter"));
+            assertTrue(output.contains("Invalid input. Try again!"));
+            assertTrue(output.endsWith("Congratulations, you won!\n"));
+            assertEquals("", session.drainOutput());
+            assertThrows(IllegalStateException.class, () -> session.send("100"));
+        }
+    }
+
+    /**
+     * many games run side by side without mixing up their moves
+     */
+    @Test
+    public void independentTest() throws Exception {
+        try (SessionManager manager = new SessionManager(Duration.ofMinutes(1))){
+            manager.start();
+            SessionManager.Session[] sessions = new SessionManager.Session[1000];
+            for (int i = 0; i < sessions.length; i++){
+                sessions[i] = manager.open();
+            }
+            assertEquals(1000, manager.size());
+            // cell (0, 1) of the demo board is empty, every game gets its own number there
+            for (int i = 0; i < sessions.length; i++){
+                sessions[i].send((i % 9 + 1) + "01");
+            }
+            for (int i = 0; i < sessions.length; i++){
+                sessions[i].close();
+                assertTrue(sessions[i].await(Duration.ofSeconds(10)));
+                assertEquals(i % 9 + 1, sessions[i].getModel().getMarkAt(0, 1));
+            }
+            assertEquals(0, manager.size());
+        }
+    }
+
+    /**
+     * a client that does not drain loses the oldest whole lines, never part of one
+     */
+    @Test
+    public void laggingClientTest() throws Exception {
+        try (SessionManager manager = new SessionManager(Duration.ofMinutes(1))){
+            manager.start();
+            SessionManager.Session few = manager.open();
+            SessionManager.Session many = manager.open();
+            for (int i = 0; i < 3; i++){
+                few.send("999");
+            }
+            // far more than the 64 KB a session keeps
+            for (int i = 0; i < 5000; i++){
+                many.send("999");
+            }
+            few.close();
+            many.close();
+            assertTrue(few.await(Duration.ofSeconds(10)));
+            assertTrue(many.await(Duration.ofSeconds(10)));
+            Set<String> lines = new HashSet<>(Arrays.asList(few.drainOutput().split("\n")));
+            String output = many.drainOutput();
+            assertTrue(output.length() <= 1 << 16);
+            assertTrue(output.length() > 1 << 15);
+            assertTrue(output.endsWith("\n"));
+            for (String line : output.split("\n")){
+                assertTrue(line, lines.contains(line));
+            }
+            assertEquals("", many.drainOutput());
+        }
+    }
+
+    /**
+     * sessions without input for the idle timeout are closed and dropped
+     */
+    @Test
+    public void evictionTest() throws Exception {
+        try (SessionManager manager = new SessionManager(Duration.ofMillis(200))){
+            manager.start();
+            SessionManager.Session idle = manager.open();
+            SessionManager.Session busy = manager.open();
+            assertEquals(0, manager.evictIdle());
+            assertThrows(IllegalStateException.class, manager::start);
+            for (int i = 0; i < 6; i++){
+                Thread.sleep(100);
+                busy.send("def");
+            }
+            assertTrue(idle.await(Duration.ofSeconds(10)));
+            assertFalse(idle.isOpen());
+            assertNull(manager.get(idle.getId()));
+            assertSame(busy, manager.get(busy.getId()));
+            assertTrue(busy.isOpen());
+            assertEquals(1, manager.getEvictions());
+        }
+    }
+
+    /**
+     * the idle timeout must be positive
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void badTimeoutTest() {
+        new SessionManager(Duration.ZERO);
+    }
+}
@@ -0,0 +1,132 @@
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the solution cache and the caching solver
+ */
+public class SolutionCacheTest {
+
+    /**
+     * a board whose first cell holds the number, as a distinct key
+     */
+    private static PackedBoard key(int number) {
+        PackedBoard board = new PackedBoard();
+        board.set(number / 9, number % 9 + 1);
+        return board;
+    }
+
+    /**
+     * the least recently used entry is dropped first
+     */
+    @Test
+    public void lruTest() {
+        SolutionCache cache = new SolutionCache(2, 1);
+        cache.put(key(0), key(10));
+        cache.put(key(1), key(11));
+        assertEquals(key(10), cache.get(key(0)));
+        cache.put(key(2), key(12));
+
+        assertNull(cache.get(key(1)));
+        assertEquals(key(10), cache.get(key(0)));
+        assertEquals(key(12), cache.get(key(2)));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.get(key(0)));
+    }
+
+    /**
+     * the segments together never hold more than the capacity
+     */
+    @Test
+    public void capacityTest() {
+        SolutionCache cache = new SolutionCache(10, 4);
+        for (int i = 0; i < 60; i++){
+            cache.put(key(i), key(i));
+        }
+        assertEquals(10, cache.getCapacity());
+        assertTrue(cache.size() <= 10);
+        assertEquals(60 - cache.size(), cache.getEvictions());
+    }
+
+    /**
+     * bad sizes are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void badCapacityTest() {
+        new SolutionCache(0);
+    }
+
+    /**
+     * a transformed copy of a solved puzzle is answered from the cache, in its own orientation
+     */
+    @Test
+    public void cachingSolverTest() {
+        CachingSolver solver = new CachingSolver(new BitmaskSolver(), new SolutionCache(100));
+        PackedBoard board = PackedBoard.parse(SolverTest.INKALA);
+        assertTrue(solver.solve(board));
+        SolverTest.assertSolved(SolverTest.INKALA, board.toArray());
+        assertEquals(0, solver.getCache().getHits());
+
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 10; i++){
+            PackedBoard copy = CanonicalizerTest.randomTransform(random).apply(PackedBoard.parse(SolverTest.INKALA));
+            String puzzle = copy.toString();
+            int[][] grid = copy.toArray();
+            assertTrue(solver.solve(grid));
+            SolverTest.assertSolved(puzzle, grid);
+        }
+        assertEquals(10, solver.getCache().getHits());
+        assertEquals(1, solver.getCache().size());
+
+        int[][] invalid = SolverTest.parse(SolverTest.DEMO);
+        invalid[0][1] = 3;
+        assertFalse(solver.solve(invalid));
+        assertEquals(1, solver.getCache().size());
+    }
+
+    /**
+     * many threads with their own caching solvers share one cache
+     */
+    @Test
+    public void concurrentTest() throws Exception {
+        SolutionCache cache = new SolutionCache(8, 4);
+        List<PackedBoard> puzzles = new PuzzleGenerator(1, 5).generate(12);
+        ExecutorService workers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 4; t++){
+                done.add(workers.submit(() -> {
+                    CachingSolver solver = new CachingSolver(new BitmaskSolver(), cache);
+                    for (int round = 0; round < 5; round++){
+                        for (PackedBoard puzzle : puzzles){
+                            PackedBoard board = puzzle.copy();
+                            assertTrue(solver.solve(board));
+                            SolverTest.assertSolved(puzzle.toString(), board.toArray());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done){
+                future.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        assertEquals(4 * 5 * 12, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 8);
+    }
+}
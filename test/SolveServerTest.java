@@ -0,0 +1,142 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the HTTP solve service
+ */
+public class SolveServerTest {
+
+    private SolveServer server;
+    private HttpClient client;
+
+    /**
+     * starts a server on a free port
+     */
+    @Before
+    public void setUp() throws Exception {
+        server = new SolveServer(0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    /**
+     * stops the server
+     */
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    /**
+     * posts a body to an endpoint
+     */
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * gets an endpoint
+     */
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * a puzzle comes back solved, from the body or the query
+     */
+    @Test
+    public void solveTest() throws Exception {
+        HttpResponse<String> response = post("/solve", SolverTest.INKALA + "\n");
+        assertEquals(200, response.statusCode());
+        SolverTest.assertSolved(SolverTest.INKALA, SolverTest.parse(response.body().strip()));
+
+        response = get("/solve?puzzle=" + SolverTest.DEMO);
+        assertEquals(200, response.statusCode());
+        SolverTest.assertSolved(SolverTest.DEMO, SolverTest.parse(response.body().strip()));
+
+        String invalid = "33" + SolverTest.DEMO.substring(2);
+        assertEquals(422, post("/solve", invalid).statusCode());
+        assertEquals(3, server.getRequests());
+    }
+
+    /**
+     * solutions are counted up to the limit
+     */
+    @Test
+    public void countTest() throws Exception {
+        assertEquals("1", post("/count", SolverTest.INKALA).body().strip());
+        String open = "." + SolverTest.DEMO.substring(1, 40) + ".".repeat(41);
+        assertEquals("2", post("/count", open).body().strip());
+        assertEquals("50", post("/count?limit=50", open).body().strip());
+        assertEquals(400, post("/count?limit=0", open).statusCode());
+        assertEquals(400, post("/count?limit=x", open).statusCode());
+    }
+
+    /**
+     * a completed grid gets the verdict of the grid validator
+     */
+    @Test
+    public void validateTest() throws Exception {
+        String solution = post("/solve", SolverTest.DEMO).body().strip();
+        assertEquals("valid", post("/validate", solution).body().strip());
+        String swapped = solution.charAt(1) + "" + solution.charAt(0) + solution.substring(2);
+        assertEquals("col 0", post("/validate", swapped).body().strip());
+    }
+
+    /**
+     * a puzzle with empty cells is checked for repeated givens only
+     */
+    @Test
+    public void validatePuzzleTest() throws Exception {
+        assertEquals("valid", post("/validate", SolverTest.DEMO).body().strip());
+        assertEquals("valid", post("/validate", SolverTest.ESCARGOT).body().strip());
+        assertEquals("row 0", post("/validate", "33" + SolverTest.DEMO.substring(2)).body().strip());
+        // the 3 of row 0 col 0 again below it in row 1
+        String repeated = SolverTest.DEMO.substring(0, 9) + "3" + SolverTest.DEMO.substring(10);
+        assertEquals("col 0", post("/validate", repeated).body().strip());
+    }
+
+    /**
+     * a batch is answered line by line in input order, bad lines come back as they were
+     */
+    @Test
+    public void batchTest() throws Exception {
+        String invalid = "33" + SolverTest.DEMO.substring(2);
+        String body = SolverTest.DEMO + "\n\n" + "not a puzzle\n" + SolverTest.ESCARGOT + "\n" + invalid + "\n";
+        HttpResponse<String> response = post("/batch", body);
+        assertEquals(200, response.statusCode());
+        String[] lines = response.body().split("\n");
+        assertEquals(4, lines.length);
+        SolverTest.assertSolved(SolverTest.DEMO, SolverTest.parse(lines[0]));
+        assertEquals("not a puzzle", lines[1]);
+        SolverTest.assertSolved(SolverTest.ESCARGOT, SolverTest.parse(lines[2]));
+        assertEquals(invalid, lines[3]);
+    }
+
+    /**
+     * bad requests are turned down
+     */
+    @Test
+    public void badRequestTest() throws Exception {
+        assertEquals(400, post("/solve", "123").statusCode());
+        assertEquals(400, post("/solve", "x".repeat(81)).statusCode());
+        assertEquals(413, post("/solve", "1".repeat(5000)).statusCode());
+        assertEquals(404, post("/solved", SolverTest.DEMO).statusCode());
+        assertEquals(404, get("/").statusCode());
+        HttpRequest delete = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/solve"))
+                .DELETE().build();
+        assertEquals(405, client.send(delete, HttpResponse.BodyHandlers.ofString()).statusCode());
+    }
+}
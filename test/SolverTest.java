@@ -0,0 +1,373 @@
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the solver engines
+ */
+public class SolverTest {
+
+    // the default board of the model
+    static final String DEMO =
+            "300701920706009800890026403002008034070310000500000210910240060080000340204803100";
+    // hard puzzles that make the plain backtracking slow
+    static final String INKALA =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+    static final String ESCARGOT =
+            "1....7.9..3..2...8..96..5....53..9...1..8...26....4...3......1..4......7..7...3..";
+    // 17 clues, built so that brute force in row-major order has to walk almost the whole tree
+    static final String ANTI_BRUTE_FORCE =
+            "..............3.85..1.2.......5.7.....4...1...9.......5......73..2.1........4...9";
+    // a 16 x 16 puzzle with a unique solution, 1 - 9 then A - G
+    static final String HEX =
+            ".....F...1.......F...1..B2DE....3.A4B2.E..8...C7B.D.....G...3.A4"
+            + "........1A4B.DE..C.........95.6G....2...5......32..9.86..C7....."
+            + "86GFC.......DE..........D....6.F..B2..9..6.....1D...8....731..B."
+            + "..F.73.A4......8..1A..2.E95.6G......E....G.C..1A.........31.4..D";
+
+    /**
+     * turns an 81 character puzzle into a board, 0 or . is empty
+     * @param puzzle the puzzle line
+     * @return the board
+     */
+    static int[][] parse(String puzzle) {
+        int[][] board = new int[9][9];
+        for (int i = 0; i < 81; i++){
+            char c = puzzle.charAt(i);
+            board[i / 9][i % 9] = c == '.' ? 0 : c - '0';
+        }
+        return board;
+    }
+
+    /**
+     * checks that the solution is complete, valid and keeps the givens of the puzzle
+     * @param puzzle the original puzzle
+     * @param board the solved board
+     */
+    static void assertSolved(String puzzle, int[][] board) {
+        for (int i = 0; i < 9; i++){
+            int rowMask = 0;
+            int colMask = 0;
+            int boxMask = 0;
+            for (int j = 0; j < 9; j++){
+                rowMask |= 1 << board[i][j];
+                colMask |= 1 << board[j][i];
+                boxMask |= 1 << board[(i / 3) * 3 + j / 3][(i % 3) * 3 + j % 3];
+            }
+            assertEquals(0x3FE, rowMask);
+            assertEquals(0x3FE, colMask);
+            assertEquals(0x3FE, boxMask);
+        }
+        int[][] givens = parse(puzzle);
+        for (int i = 0; i < 81; i++){
+            if (givens[i / 9][i % 9] != 0){
+                assertEquals(givens[i / 9][i % 9], board[i / 9][i % 9]);
+            }
+        }
+    }
+
+    /**
+     * testing the bitmask solver on the demo board and the hard puzzles
+     */
+    @Test
+    public void bitmaskSolveTest() {
+        ISolver solver = new BitmaskSolver();
+        for (String puzzle : new String[]{DEMO, INKALA, ESCARGOT, ANTI_BRUTE_FORCE}){
+            int[][] board = parse(puzzle);
+            assertTrue(solver.solve(board));
+            assertSolved(puzzle, board);
+        }
+    }
+
+    /**
+     * the bitmask solver finds the same solution as the original backtracking
+     */
+    @Test
+    public void bitmaskMatchesBacktrackingTest() {
+        int[][] expected = parse(DEMO);
+        int[][] actual = parse(DEMO);
+        assertTrue(new BacktrackingSolver().solve(expected));
+        assertTrue(new BitmaskSolver().solve(actual));
+        assertArrayEquals(expected, actual);
+    }
+
+    /**
+     * givens that break a rule cannot be solved and the board is left as it was
+     */
+    @Test
+    public void bitmaskInvalidBoardTest() {
+        int[][] board = parse(DEMO);
+        board[0][1] = 3;
+        int[][] before = parse(DEMO);
+        before[0][1] = 3;
+        assertFalse(new BitmaskSolver().solve(board));
+        assertArrayEquals(before, board);
+    }
+
+    /**
+     * testing the dancing links solver on the demo board and the hard puzzles,
+     * reusing one instance so the matrix has to be restored after each solve
+     */
+    @Test
+    public void dancingLinksSolveTest() {
+        ISolver solver = new DancingLinksSolver();
+        for (String puzzle : new String[]{DEMO, INKALA, ESCARGOT, ANTI_BRUTE_FORCE, DEMO}){
+            int[][] board = parse(puzzle);
+            assertTrue(solver.solve(board));
+            assertSolved(puzzle, board);
+        }
+        int[][] board = parse(DEMO);
+        board[0][1] = 3;
+        assertFalse(solver.solve(board));
+    }
+
+    /**
+     * testing the solution count of unique, ambiguous and invalid boards
+     */
+    @Test
+    public void dancingLinksCountTest() {
+        DancingLinksSolver solver = new DancingLinksSolver();
+        int[][] board = parse(INKALA);
+        assertEquals(1, solver.countSolutions(board, 2));
+        // counting leaves the board as it was
+        assertArrayEquals(parse(INKALA), board);
+
+        assertEquals(2, solver.countSolutions(new int[9][9], 2));
+        assertEquals(100, solver.countSolutions(new int[9][9], 100));
+
+        board[0][1] = 8;
+        assertEquals(0, solver.countSolutions(board, 2));
+    }
+
+    /**
+     * testing the propagation solver, the demo board needs no guesses at all
+     */
+    @Test
+    public void propagationSolveTest() {
+        PropagationSolver solver = new PropagationSolver();
+        int[][] board = parse(DEMO);
+        assertTrue(solver.solve(board));
+        assertSolved(DEMO, board);
+        assertEquals(0, solver.getGuessCount());
+
+        // the puzzle that defeats row-major brute force falls to singles alone
+        board = parse(ANTI_BRUTE_FORCE);
+        assertTrue(solver.solve(board));
+        assertSolved(ANTI_BRUTE_FORCE, board);
+        assertEquals(0, solver.getGuessCount());
+
+        for (String puzzle : new String[]{INKALA, ESCARGOT}){
+            board = parse(puzzle);
+            assertTrue(solver.solve(board));
+            assertSolved(puzzle, board);
+            assertTrue(solver.getGuessCount() > 0);
+        }
+
+        board = parse(DEMO);
+        board[0][1] = 3;
+        assertFalse(solver.solve(board));
+    }
+
+    /**
+     * testing the fork join solver with several split depths on its own pool
+     */
+    @Test
+    public void parallelSolveTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int splitDepth : new int[]{0, 2, 5}){
+                ISolver solver = new ParallelSolver(pool, splitDepth);
+                for (String puzzle : new String[]{DEMO, INKALA, ESCARGOT, ANTI_BRUTE_FORCE}){
+                    int[][] board = parse(puzzle);
+                    assertTrue(solver.solve(board));
+                    assertSolved(puzzle, board);
+                }
+                int[][] board = parse(DEMO);
+                board[0][1] = 3;
+                assertFalse(solver.solve(board));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * a negative split depth is rejected
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void parallelNegativeSplitDepthTest() {
+        new ParallelSolver(-1);
+    }
+
+    /**
+     * every solver solves packed boards in place and leaves unsolvable ones unchanged
+     */
+    @Test
+    public void packedSolveTest() {
+        ISolver[] solvers = {new BitmaskSolver(), new DancingLinksSolver(), new PropagationSolver(),
+                new ParallelSolver(), new BacktrackingSolver()};
+        for (ISolver solver : solvers){
+            for (String puzzle : new String[]{DEMO, INKALA, ESCARGOT}){
+                PackedBoard board = PackedBoard.parse(puzzle);
+                assertTrue(solver.solve(board));
+                assertSolved(puzzle, board.toArray());
+            }
+            PackedBoard invalid = PackedBoard.parse(DEMO);
+            invalid.set(0, 1, 3);
+            PackedBoard before = invalid.copy();
+            assertFalse(solver.solve(invalid));
+            assertEquals(before, invalid);
+        }
+    }
+
+    /**
+     * the bitmask engine counts like the dancing links engine and leaves the board unchanged
+     */
+    @Test
+    public void bitmaskCountTest() {
+        BitmaskSolver solver = new BitmaskSolver();
+        PackedBoard board = PackedBoard.parse(INKALA);
+        assertEquals(1, solver.countSolutions(board, 2));
+        assertEquals(PackedBoard.parse(INKALA), board);
+
+        assertEquals(2, solver.countSolutions(new int[9][9], 2));
+        assertEquals(1000, solver.countSolutions(new int[9][9], 1000));
+        assertEquals(0, solver.countSolutions(new int[9][9], 0));
+
+        // taking two clues out of the demo board leaves it ambiguous
+        DancingLinksSolver reference = new DancingLinksSolver();
+        PackedBoard open = PackedBoard.parse(DEMO);
+        for (int i = 0; i < 30; i++){
+            open.set(i, 0);
+            assertEquals(reference.countSolutions(open, 50), solver.countSolutions(open, 50));
+        }
+
+        board.set(0, 1, 8);
+        assertEquals(0, solver.countSolutions(board, 2));
+    }
+
+    /**
+     * checks that every unit of a board of any size holds every number and the givens are kept
+     * @param puzzle the original puzzle
+     * @param board the solved board
+     */
+    static void assertSolved(PackedBoard puzzle, PackedBoard board) {
+        int box = board.boxSize();
+        int side = board.side();
+        long all = (1L << side) - 1;
+        for (int i = 0; i < side; i++){
+            long rowMask = 0;
+            long colMask = 0;
+            long boxMask = 0;
+            for (int j = 0; j < side; j++){
+                rowMask |= 1L << (board.get(i, j) - 1);
+                colMask |= 1L << (board.get(j, i) - 1);
+                boxMask |= 1L << (board.get((i / box) * box + j / box, (i % box) * box + j % box) - 1);
+            }
+            assertEquals(all, rowMask);
+            assertEquals(all, colMask);
+            assertEquals(all, boxMask);
+        }
+        for (int i = 0; i < puzzle.length(); i++){
+            if (puzzle.get(i) != 0){
+                assertEquals(puzzle.get(i), board.get(i));
+            }
+        }
+    }
+
+    /**
+     * a puzzle of any size made from a patterned full grid with most cells taken out,
+     * it has at least one solution but not always one
+     */
+    static PackedBoard openPuzzle(int box, long seed, double empty) {
+        int side = box * box;
+        SplittableRandom random = new SplittableRandom(seed);
+        PackedBoard board = new PackedBoard(box);
+        for (int row = 0; row < side; row++){
+            for (int col = 0; col < side; col++){
+                board.set(row, col, (box * (row % box) + row / box + col) % side + 1);
+            }
+        }
+        for (int i = 0; i < board.length(); i++){
+            if (random.nextDouble() < empty){
+                board.set(i, 0);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * the large board solver solves 9 x 9, 16 x 16 and 25 x 25 boards in place
+     */
+    @Test
+    public void largeBoardSolveTest() {
+        LargeBoardSolver solver = new LargeBoardSolver();
+        for (String puzzle : new String[]{DEMO, INKALA, ESCARGOT}){
+            int[][] board = parse(puzzle);
+            assertTrue(solver.solve(board));
+            assertSolved(puzzle, board);
+        }
+
+        PackedBoard hex = PackedBoard.parse(HEX, 4);
+        PackedBoard board = hex.copy();
+        assertTrue(solver.solve(board));
+        assertSolved(hex, board);
+
+        PackedBoard[] open = {openPuzzle(2, 1, 0.65), openPuzzle(4, 4, 0.65), openPuzzle(5, 2, 0.5)};
+        for (PackedBoard puzzle : open){
+            board = puzzle.copy();
+            assertTrue(solver.solve(board));
+            assertSolved(puzzle, board);
+            int[][] grid = puzzle.toArray();
+            assertTrue(solver.solve(grid));
+            assertSolved(puzzle, PackedBoard.of(grid));
+        }
+    }
+
+    /**
+     * the large board solver counts like the other engines and rejects broken boards
+     */
+    @Test
+    public void largeBoardCountTest() {
+        LargeBoardSolver solver = new LargeBoardSolver();
+        PackedBoard hex = PackedBoard.parse(HEX, 4);
+        assertEquals(1, solver.countSolutions(hex, 2));
+        assertEquals(PackedBoard.parse(HEX, 4), hex);
+        // a 4 x 4 board has 288 solutions
+        assertEquals(288, solver.countSolutions(new int[4][4], 1000));
+        assertEquals(2, solver.countSolutions(new PackedBoard(4), 2));
+
+        DancingLinksSolver reference = new DancingLinksSolver();
+        PackedBoard open = PackedBoard.parse(DEMO);
+        for (int i = 0; i < 30; i++){
+            open.set(i, 0);
+            assertEquals(reference.countSolutions(open, 50), solver.countSolutions(open, 50));
+        }
+
+        hex.set(0, 0, hex.get(0, 5));
+        PackedBoard before = hex.copy();
+        assertEquals(0, solver.countSolutions(hex, 2));
+        assertFalse(solver.solve(hex));
+        assertEquals(before, hex);
+        assertFalse(solver.solve(new int[10][10]));
+    }
+
+    /**
+     * the 9 x 9 engines turn down other sizes instead of failing
+     */
+    @Test
+    public void nineByNineOnlyTest() {
+        ISolver[] solvers = {new BitmaskSolver(), new DancingLinksSolver(), new PropagationSolver(),
+                new ParallelSolver(), new BacktrackingSolver()};
+        for (ISolver solver : solvers){
+            PackedBoard hex = PackedBoard.parse(HEX, 4);
+            assertFalse(solver.solve(hex));
+            assertEquals(PackedBoard.parse(HEX, 4), hex);
+            assertFalse(solver.solve(new int[16][16]));
+        }
+        assertEquals(0, new BitmaskSolver().countSolutions(new int[16][16], 2));
+    }
+}
@@ -0,0 +1,177 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * unit test for the sudoku view and its board renderer
+ */
+public class SudokuViewTest {
+
+    /**
+     * counts the writes to a stream
+     */
+    private static final class CountingStream extends ByteArrayOutputStream {
+        private int writes;
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            super.write(b, off, len);
+        }
+
+        @Override
+        public void write(int b) {
+            writes++;
+            super.write(b);
+        }
+
+        @Override
+        public void write(byte[] b) throws IOException {
+            write(b, 0, b.length);
+        }
+    }
+
+    /**
+     * @return what the stream got as text
+     */
+    private static String text(ByteArrayOutputStream out) {
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * a 9 x 9 board is drawn with box lines in a single write
+     */
+    @Test
+    public void displayBoardTest() {
+        CountingStream out = new CountingStream();
+        IView view = new SudokuView(out);
+        int[][] board = new sudokuModel().copyBoard();
+        view.displayBoard(board);
+        assertEquals(1, out.writes);
+        String[] lines = text(out).split("\n");
+        assertEquals(11, lines.length);
+        assertEquals("300 | 701 | 920", lines[0]);
+        assertEquals("----+-----+----", lines[3]);
+        assertEquals("204 | 803 | 100", lines[10]);
+
+        // the layout is reused, only the numbers change
+        out.reset();
+        board[0][1] = 5;
+        view.displayBoard(board);
+        assertEquals("350 | 701 | 920", text(out).split("\n")[0]);
+    }
+
+    /**
+     * numbers of a 16 x 16 board get two columns each
+     */
+    @Test
+    public void largeBoardTest() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int[][] board = new int[16][16];
+        board[0][0] = 16;
+        board[0][4] = 7;
+        new SudokuView(out).displayBoard(board);
+        String[] lines = text(out).split("\n");
+        assertEquals(19, lines.length);
+        assertEquals("16  0  0  0 |  7  0  0  0 |  0  0  0  0 |  0  0  0  0", lines[0]);
+        assertEquals(lines[0].length(), lines[4].length());
+        assertTrue(lines[4].matches("-+\\+-+\\+-+\\+-+"));
+    }
+
+    /**
+     * in ANSI mode the first frame is drawn in full, later ones only rewrite the changed cells
+     */
+    @Test
+    public void ansiTest() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IView view = new SudokuView(out, true);
+        int[][] board = new sudokuModel().copyBoard();
+        view.displayBoard(board);
+        String first = text(out);
+        assertTrue(first.startsWith("\033[H\033[2J300 | 701 | 920\n"));
+        assertTrue(first.endsWith("204 | 803 | 100\n\033[12r\033[12;1H"));
+
+        out.reset();
+        view.displayBoard(board);
+        assertEquals("", text(out));
+
+        // cell (0, 1) is on line 1, col 2; cell (4, 5) is under a box line and after a " | "
+        board[0][1] = 5;
+        board[4][5] = 9;
+        view.displayBoard(board);
+        assertEquals("\0337\033[1;2H5\033[6;9H9\0338", text(out));
+
+        out.reset();
+        view.showResultMessage(true);
+        assertEquals("\0337\033[r\0338Congratulations, you won!\n", text(out));
+
+        // after the game the next board is drawn in full again
+        out.reset();
+        view.displayBoard(board);
+        assertTrue(text(out).startsWith("\033[H\033[2J350 | 701 | 920\n"));
+    }
+
+    /**
+     * in ANSI mode instructions given before the first frame are written under it, not cleared away
+     */
+    @Test
+    public void ansiInstructionTest() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IView view = new SudokuView(out, true);
+        view.showInstruction();
+        assertEquals("", text(out));
+        view.displayBoard(new sudokuModel().copyBoard());
+        String first = text(out);
+        assertTrue(first.startsWith("\033[H\033[2J300 | 701 | 920\n"));
+        assertTrue(first.contains("\033[12;1HPlease enter"));
+        assertTrue(first.endsWith("enter u to take back a move, r to put it back, h for a hint\n\n"));
+
+        // once the board is up they are written straight away
+        out.reset();
+        view.showInstruction();
+        assertTrue(text(out).startsWith("Please enter"));
+    }
+
+    /**
+     * a failing stream is reported unchecked
+     */
+    @Test
+    public void failingStreamTest() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("closed");
+            }
+        };
+        assertThrows(java.io.UncheckedIOException.class,
+                () -> new SudokuView(broken).displayBoard(new int[9][9]));
+    }
+
+    /**
+     * a board read through a view looks the same, and in ANSI mode an unchanged view is not even compared
+     */
+    @Test
+    public void boardViewTest() {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream array = new ByteArrayOutputStream();
+        IModel model = new sudokuModel();
+        new SudokuView(plain).displayBoard(model.getBoardView());
+        new SudokuView(array).displayBoard(model.copyBoard());
+        assertEquals(text(array), text(plain));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IView view = new SudokuView(out, true);
+        view.displayBoard(model.getBoardView());
+        out.reset();
+        view.displayBoard(model.getBoardView());
+        assertEquals("", text(out));
+        model.move(5, 0, 1);
+        view.displayBoard(model.getBoardView());
+        assertEquals("\0337\033[1;2H5\0338", text(out));
+    }
+}
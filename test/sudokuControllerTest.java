@@ -46,6 +46,72 @@ class MockModel implements IModel{
         return board.clone();
     }
 
+    /**
+     * getting the copy of the sudoku grid in packed form
+     */
+    @Override
+    public PackedBoard copyPackedBoard() {
+        return PackedBoard.of(board);
+    }
+
+    /**
+     * the mock keeps no history
+     */
+    @Override
+    public boolean undo() {
+        return false;
+    }
+
+    /**
+     * the mock keeps no history
+     */
+    @Override
+    public boolean redo() {
+        return false;
+    }
+
+    /**
+     * the mock keeps no history
+     */
+    @Override
+    public int getHistoryPosition() {
+        return 0;
+    }
+
+    /**
+     * the mock keeps no history
+     */
+    @Override
+    public int getHistorySize() {
+        return 0;
+    }
+
+    /**
+     * the mock keeps no history, only point 0 exists
+     */
+    @Override
+    public void goTo(int position) {
+        if (position != 0){
+            throw new IndexOutOfBoundsException("no history");
+        }
+    }
+
+    /**
+     * a hint for the mock board as it is now, from an engine made for it
+     */
+    @Override
+    public Hint getHint() {
+        return new HintEngine(PackedBoard.of(board)).next();
+    }
+
+    /**
+     * getting the sudoku grid as a view, a fresh one every time for the mock
+     */
+    @Override
+    public IBoardView getBoardView() {
+        return PackedBoard.of(board);
+    }
+
     /**
      * Places 1 - 9 in the specified cell
      *
@@ -74,6 +140,21 @@ class MockModel implements IModel{
         moved = true;
     }
 
+    /**
+     * Places a batch of moves, logging each like move
+     *
+     * @param moves the moves packed by MoveParser.pack
+     * @param count the number of moves
+     */
+    @Override
+    public void moveAll(int[] moves, int count) throws IllegalStateException, IndexOutOfBoundsException {
+        for (int i = 0; i < count; i++){
+            int move = moves[i];
+            moved = false;
+            move(MoveParser.numberOf(move), MoveParser.rowOf(move), MoveParser.colOf(move));
+        }
+    }
+
     /**
      * checks if the number exist in the row
      *
@@ -150,6 +231,43 @@ class MockModel implements IModel{
                 !isNumberInBox(board, number, row, col);
     }
 
+    /**
+     * check if the number can go in the cell without repeating in its row, col or box
+     *
+     * @param number number the player wants to place
+     * @param row    row of the cell
+     * @param col    col of the cell
+     * @return true if it's valid
+     */
+    @Override
+    public boolean canPlace(int number, int row, int col) {
+        return isValidPlacement(board, number, row, col);
+    }
+
+    /**
+     * the mock never reports conflicts
+     *
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return false
+     */
+    @Override
+    public boolean hasConflict(int row, int col) {
+        return false;
+    }
+
+    /**
+     * the mock never reports conflicts
+     *
+     * @param row row of the cell
+     * @param col col of the cell
+     * @return an empty array
+     */
+    @Override
+    public int[] conflictingPeers(int row, int col) {
+        return new int[0];
+    }
+
     /**
      * check if the player solved the board
      *
@@ -187,6 +305,48 @@ class MockModel implements IModel{
         return true;
     }
 
+    /**
+     * check if the player solved the packed board
+     *
+     * @param board the current board
+     * @return true if the player successfully solved the board
+     */
+    @Override
+    public boolean solveBoard(PackedBoard board) {
+        int[][] unpacked = board.toArray();
+        if (!solveBoard(unpacked)){
+            return false;
+        }
+        for (int i = 0; i < 81; i++){
+            board.set(i, unpacked[i / 9][i % 9]);
+        }
+        return true;
+    }
+
+    /**
+     * counts the solutions of the board with the bitmask engine
+     *
+     * @param board the board to count
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    @Override
+    public int countSolutions(int[][] board, int limit) {
+        return new BitmaskSolver().countSolutions(board, limit);
+    }
+
+    /**
+     * counts the solutions of the packed board with the bitmask engine
+     *
+     * @param board the board to count
+     * @param limit the most solutions to look for
+     * @return the number of solutions found, at most limit
+     */
+    @Override
+    public int countSolutions(PackedBoard board, int limit) {
+        return new BitmaskSolver().countSolutions(board, limit);
+    }
+
     /**
      * Returns the Player whose mark is in the cell at the given coordinates
      * 0 if the cell is empty.
@@ -358,4 +518,82 @@ public class sudokuControllerTest {
         assertEquals("Input: number 1 row: 2 col: 3", model.getLog());
         assertEquals(1, model.getMarkAt(2, 3), 0.01);
     }
-}
\ No newline at end of file
+
+    /**
+     * the game ends quietly when the input runs out before the board is full
+     */
+    @Test
+    public void controllerTestEndOfInput(){
+        MockModel model = new MockModel();
+        InputStream in = new ByteArrayInputStream("def".getBytes());
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        IView view = new SudokuView(new PrintStream(outStream));
+
+        IController controller = new sudokuController(model, in, view);
+        controller.go();
+        assertEquals("", model.getLog());
+        assertTrue(outStream.toString().endsWith("Please enter the number and location you would like to place: \n"));
+    }
+
+    /**
+     * many moves on one line are placed as one batch, and a bad batch places none of them
+     */
+    @Test
+    public void controllerTestBatch(){
+        IModel model = new sudokuModel();
+        int[][] puzzle = model.copyBoard();
+        int[][] solution = model.copyBoard();
+        assertTrue(new BitmaskSolver().solve(solution));
+        StringBuilder path = new StringBuilder();
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                if (puzzle[row][col] == 0){
+                    path.append(solution[row][col]).append(row).append(col).append(' ');
+                }
+            }
+        }
+        // the second line repeats a cell, so none of its moves count
+        String input = "512 513,412\n" + path;
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        IView view = new SudokuView(outStream);
+
+        IController controller = new sudokuController(model, new ByteArrayInputStream(input.getBytes()), view);
+        controller.go();
+        String output = outStream.toString();
+        assertEquals(1, output.split("Invalid input. Try again!", -1).length - 1);
+        assertTrue(output.endsWith("Congratulations, you won!\n"));
+        assertArrayEquals(solution, model.copyBoard());
+    }
+
+    /**
+     * u takes back a move and r puts it back, with nothing to take back either is an error
+     */
+    @Test
+    public void controllerTestUndo(){
+        IModel model = new sudokuModel();
+        String input = "u\n501\n402\nu\nu\nr\n";
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        IController controller = new sudokuController(model, new ByteArrayInputStream(input.getBytes()),
+                new SudokuView(outStream));
+        controller.go();
+        assertEquals(1, outStream.toString().split("Invalid input. Try again!", -1).length - 1);
+        assertEquals(5, model.getMarkAt(0, 1));
+        assertEquals(0, model.getMarkAt(0, 2));
+        assertEquals(1, model.getHistoryPosition());
+        assertEquals(2, model.getHistorySize());
+    }
+
+    /**
+     * h shows the simplest next step, and does not change the board
+     */
+    @Test
+    public void controllerTestHint(){
+        IModel model = new sudokuModel();
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        IController controller = new sudokuController(model, new ByteArrayInputStream("h\n".getBytes()),
+                new SudokuView(outStream));
+        controller.go();
+        assertTrue(outStream.toString().contains("Hint: hidden single: 1 goes in row 2 col 2, the only place left for it in box 0\n"));
+        assertEquals(0, model.getMarkAt(2, 2));
+    }
+}
@@ -1,6 +1,9 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
 import static org.junit.Assert.*;
 
 /**
@@ -50,6 +53,28 @@ public class sudokuModelTest {
         assertArrayEquals(board, game1.copyBoard());
     }
 
+    /**
+     * testing if it returns an independent packed copy of the board
+     */
+    @Test
+    public void copyPackedBoardTest() {
+        PackedBoard copy = game1.copyPackedBoard();
+        assertArrayEquals(board, copy.toArray());
+        copy.set(0, 1, 4);
+        assertEquals(0, game1.getMarkAt(0, 1));
+    }
+
+    /**
+     * checks that the model solves a packed board
+     */
+    @Test
+    public void solvePackedBoardTest() {
+        PackedBoard packed = game1.copyPackedBoard();
+        assertTrue(game1.solveBoard(packed));
+        assertEquals(0, packed.emptyCount());
+        assertEquals(4, packed.get(0, 1));
+    }
+
     /**
      * testing if 1 - 9 is able to be placed at the right cell
      */
@@ -130,6 +155,17 @@ public class sudokuModelTest {
         game1.move(1, 0, 0);
     }
 
+    /**
+     * a number that is not 1 - 9 is turned down and not recorded as a move
+     */
+    @Test
+    public void moveTestBadNumber(){
+        assertThrows(IllegalArgumentException.class, () -> game1.move(0, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> game1.move(10, 0, 1));
+        assertEquals(0, game1.getMarkAt(0, 1));
+        assertFalse(game1.undo());
+    }
+
     /**
      * testing if the check of if number in row is valid
      */
@@ -166,6 +202,84 @@ public class sudokuModelTest {
         assertFalse(game1.isValidPlacement(board, 3, 0, 1));
     }
 
+    /**
+     * testing the O(1) placement check follows the moves
+     */
+    @Test
+    public void canPlaceTest() {
+        assertTrue(game1.canPlace(1, 2, 2));
+        assertFalse(game1.canPlace(3, 0, 1));
+        // 4 is free for (0, 1) until it is placed in the same box
+        assertTrue(game1.canPlace(4, 0, 1));
+        game1.move(4, 1, 1);
+        assertFalse(game1.canPlace(4, 0, 1));
+        assertFalse(game1.canPlace(4, 1, 8));
+        assertFalse(game1.canPlace(4, 7, 1));
+        assertTrue(game1.canPlace(4, 4, 5));
+    }
+
+    /**
+     * testing the conflicts of a cell, including a number placed twice in a row
+     */
+    @Test
+    public void conflictingPeersTest() {
+        assertFalse(game1.hasConflict(0, 0));
+        assertArrayEquals(new int[0], game1.conflictingPeers(0, 0));
+        assertArrayEquals(new int[0], game1.conflictingPeers(0, 1));
+
+        // 3 is already at (0, 0) in the same row
+        game1.move(3, 0, 4);
+        assertTrue(game1.hasConflict(0, 4));
+        assertTrue(game1.hasConflict(0, 0));
+        assertArrayEquals(new int[]{0}, game1.conflictingPeers(0, 4));
+        assertArrayEquals(new int[]{4}, game1.conflictingPeers(0, 0));
+
+        // 9 is already at (0, 6) in the same row and at (2, 1) in the same box
+        game1.move(9, 0, 2);
+        assertArrayEquals(new int[]{0 * 9 + 6, 2 * 9 + 1}, game1.conflictingPeers(0, 2));
+    }
+
+    /**
+     * failed test for the placement check out of bounds
+     */
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void canPlaceOutOfBoundsTest() {
+        game1.canPlace(1, 9, 0);
+    }
+
+    /**
+     * a 16 x 16 game takes moves and checks placements over its whole size
+     */
+    @Test
+    public void largeBoardTest() {
+        PackedBoard puzzle = PackedBoard.parse(SolverTest.HEX, 4);
+        IModel game = new sudokuModel(puzzle);
+        assertEquals(15, game.getMarkAt(0, 5));
+        assertFalse(game.canPlace(15, 0, 0));
+        assertEquals(1, game.countSolutions(puzzle, 2));
+
+        PackedBoard solution = puzzle.copy();
+        assertTrue(game.solveBoard(solution));
+        for (int i = 0; i < solution.length(); i++){
+            if (puzzle.get(i) == 0){
+                assertTrue(game.canPlace(solution.get(i), i / 16, i % 16));
+                game.move(solution.get(i), i / 16, i % 16);
+            }
+        }
+        assertTrue(game.isGameOver());
+        assertTrue(game.result(game.copyBoard()));
+    }
+
+    /**
+     * a 16 x 16 game has cells up to row and col 15 and no further
+     */
+    @Test (expected = IndexOutOfBoundsException.class)
+    public void largeBoardOutOfBoundsTest() {
+        IModel game = new sudokuModel(PackedBoard.parse(SolverTest.HEX, 4));
+        game.canPlace(16, 15, 15);
+        game.canPlace(1, 16, 0);
+    }
+
     /**
      * checks if the player is able to solve the board
      */
@@ -221,6 +335,21 @@ public class sudokuModelTest {
         assertFalse(game1.solveBoard(invalidBoard));
     }
 
+    /**
+     * testing the solution count of the model
+     */
+    @Test
+    public void countSolutionsTest() {
+        assertEquals(1, game1.countSolutions(board, 2));
+        assertEquals(0, game1.countSolutions(invalidBoard, 2));
+        int[][] open = new int[9][9];
+        open[0][0] = 5;
+        assertEquals(2, game1.countSolutions(open, 2));
+        assertEquals(2, game1.countSolutions(PackedBoard.of(open), 2));
+        // the board is not changed
+        assertEquals(0, open[0][1]);
+    }
+
     /**
      * testing if game is over
      */
@@ -343,6 +472,86 @@ public class sudokuModelTest {
         assertTrue(game1.result(board));
     }
 
+    /**
+     * testing a model on another puzzle, winning and losing are both detected
+     */
+    @Test
+    public void anyPuzzleResultTest() {
+        PackedBoard puzzle = PackedBoard.parse(SolverTest.INKALA);
+        PackedBoard solution = puzzle.copy();
+        assertTrue(new DancingLinksSolver().solve(solution));
+
+        IModel winner = new sudokuModel(puzzle);
+        IModel loser = new sudokuModel(puzzle);
+        boolean swapped = false;
+        for (int i = 0; i < 81; i++){
+            if (puzzle.get(i) == 0){
+                assertFalse(winner.isGameOver());
+                winner.move(solution.get(i), i / 9, i % 9);
+                // the loser puts a wrong number in the first empty cell
+                loser.move(swapped ? solution.get(i) : solution.get(i) % 9 + 1, i / 9, i % 9);
+                swapped = true;
+            }
+        }
+        assertTrue(winner.isGameOver());
+        assertTrue(winner.result(winner.copyBoard()));
+        assertTrue(loser.isGameOver());
+        assertFalse(loser.result(loser.copyBoard()));
+    }
+
+    /**
+     * on a puzzle with two solutions, filling in either one wins
+     */
+    @Test
+    public void ambiguousPuzzleResultTest() {
+        PackedBoard solution = PackedBoard.parse(SolverTest.DEMO);
+        assertTrue(new BitmaskSolver().solve(solution));
+        // a rectangle a b / b a on two rows of a band and two cols of different stacks,
+        // blanked it can be filled either way round
+        int r1 = -1;
+        int r2 = -1;
+        int c1 = -1;
+        int c2 = -1;
+        for (int i = 0; i < 81 * 81 && r1 == -1; i++){
+            int a = i / 81;
+            int b = i % 81;
+            if (a / 9 != b / 9 && a / 27 == b / 27 && (a % 9) / 3 != (b % 9) / 3
+                    && solution.get(a) == solution.get(b) && solution.get(a / 9, b % 9) == solution.get(b / 9, a % 9)){
+                r1 = a / 9;
+                c1 = a % 9;
+                r2 = b / 9;
+                c2 = b % 9;
+            }
+        }
+        assertTrue(r1 != -1);
+        PackedBoard puzzle = solution.copy();
+        puzzle.set(r1, c1, 0);
+        puzzle.set(r1, c2, 0);
+        puzzle.set(r2, c1, 0);
+        puzzle.set(r2, c2, 0);
+        assertEquals(2, new sudokuModel().countSolutions(puzzle, 2));
+
+        for (boolean flipped : new boolean[]{false, true}){
+            IModel game = new sudokuModel(puzzle);
+            int a = solution.get(r1, c1);
+            int b = solution.get(r1, c2);
+            game.move(flipped ? b : a, r1, c1);
+            game.move(flipped ? a : b, r1, c2);
+            game.move(flipped ? a : b, r2, c1);
+            game.move(flipped ? b : a, r2, c2);
+            assertTrue(game.isGameOver());
+            assertTrue(game.result(game.copyBoard()));
+        }
+    }
+
+    /**
+     * a puzzle without a solution cannot be loaded
+     */
+    @Test (expected = IllegalArgumentException.class)
+    public void unsolvablePuzzleTest() {
+        new sudokuModel(PackedBoard.of(invalidBoard));
+    }
+
     /**
      * failed test because the game is not over and user wants to obtain the result
      */
@@ -350,4 +559,167 @@ public class sudokuModelTest {
     public void restTestFailed(){
         assertTrue(game1.result(board));
     }
-}
\ No newline at end of file
+
+    /**
+     * a whole solution path placed as one batch wins the game
+     */
+    @Test
+    public void moveAllTest() {
+        int[][] solution = game1.copyBoard();
+        assertTrue(new BitmaskSolver().solve(solution));
+        int[] moves = new int[81];
+        int count = 0;
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                if (board[row][col] == 0){
+                    moves[count++] = MoveParser.pack(solution[row][col], row, col);
+                }
+            }
+        }
+        game1.moveAll(moves, 0);
+        assertFalse(game1.isGameOver());
+        game1.moveAll(moves, count);
+        assertTrue(game1.isGameOver());
+        assertTrue(game1.result(game1.copyBoard()));
+        assertArrayEquals(solution, game1.copyBoard());
+        assertThrows(IllegalStateException.class, () -> game1.moveAll(moves, 1));
+    }
+
+    /**
+     * a batch with one bad move places nothing
+     */
+    @Test
+    public void moveAllAtomicTest() {
+        int[] occupied = {MoveParser.pack(5, 0, 1), MoveParser.pack(5, 0, 0)};
+        assertThrows(IllegalStateException.class, () -> game1.moveAll(occupied, 2));
+        int[] twice = {MoveParser.pack(5, 0, 1), MoveParser.pack(4, 0, 1)};
+        assertThrows(IllegalStateException.class, () -> game1.moveAll(twice, 2));
+        int[] offBoard = {MoveParser.pack(5, 0, 1), MoveParser.pack(5, 9, 0)};
+        assertThrows(IndexOutOfBoundsException.class, () -> game1.moveAll(offBoard, 2));
+        int[] badNumber = {MoveParser.pack(5, 0, 1), MoveParser.pack(10, 0, 2)};
+        assertThrows(IllegalArgumentException.class, () -> game1.moveAll(badNumber, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> game1.moveAll(occupied, 3));
+        assertArrayEquals(board, game1.copyBoard());
+
+        game1.moveAll(occupied, 1);
+        assertEquals(5, game1.getMarkAt(0, 1));
+    }
+
+    /**
+     * the board view of a model follows its moves without copying the board
+     */
+    @Test
+    public void boardViewTest() {
+        IBoardView view = game1.getBoardView();
+        assertSame(view, game1.getBoardView());
+        assertArrayEquals(board, view.snapshot().toArray());
+        long version = view.version();
+        game1.move(5, 0, 1);
+        assertEquals(5, view.get(0, 1));
+        assertTrue(view.version() > version);
+        version = view.version();
+        game1.moveAll(new int[]{MoveParser.pack(4, 0, 2), MoveParser.pack(8, 1, 1)}, 2);
+        assertEquals(4, view.get(0, 2));
+        assertEquals(8, view.get(1, 1));
+        assertTrue(view.version() > version);
+    }
+
+    /**
+     * @return the moves of a whole game on the demo board, in row order
+     */
+    private int[] solutionPath(int[][] solution) {
+        int[] moves = new int[81];
+        int count = 0;
+        for (int row = 0; row < 9; row++){
+            for (int col = 0; col < 9; col++){
+                if (board[row][col] == 0){
+                    moves[count++] = MoveParser.pack(solution[row][col], row, col);
+                }
+            }
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    /**
+     * moves are taken back and put back one at a time
+     */
+    @Test
+    public void undoRedoTest() {
+        assertFalse(game1.undo());
+        assertFalse(game1.redo());
+        game1.move(5, 0, 1);
+        game1.move(4, 0, 2);
+        assertEquals(2, game1.getHistoryPosition());
+        assertTrue(game1.undo());
+        assertEquals(0, game1.getMarkAt(0, 2));
+        assertFalse(game1.canPlace(5, 0, 4));
+        assertTrue(game1.undo());
+        assertArrayEquals(board, game1.copyBoard());
+        assertTrue(game1.canPlace(5, 0, 4));
+        assertFalse(game1.undo());
+        assertTrue(game1.redo());
+        assertEquals(5, game1.getMarkAt(0, 1));
+        assertFalse(game1.canPlace(5, 0, 4));
+
+        // a new move drops the move that was taken back
+        game1.move(6, 0, 4);
+        assertEquals(2, game1.getHistorySize());
+        assertFalse(game1.redo());
+        assertEquals(0, game1.getMarkAt(0, 2));
+    }
+
+    /**
+     * every point of a whole game can be reached from every other, across the snapshots
+     */
+    @Test
+    public void goToTest() {
+        int[][] solution = game1.copyBoard();
+        assertTrue(new BitmaskSolver().solve(solution));
+        int[] path = solutionPath(solution);
+        assertTrue(path.length > 2 * MoveHistory.INTERVAL);
+        int[][][] boards = new int[path.length + 1][][];
+        boards[0] = game1.copyBoard();
+        for (int i = 0; i < path.length; i++){
+            game1.move(MoveParser.numberOf(path[i]), MoveParser.rowOf(path[i]), MoveParser.colOf(path[i]));
+            boards[i + 1] = game1.copyBoard();
+        }
+        assertTrue(game1.isGameOver());
+        assertTrue(game1.result(game1.copyBoard()));
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 200; i++){
+            int target = random.nextInt(path.length + 1);
+            game1.goTo(target);
+            assertEquals(target, game1.getHistoryPosition());
+            assertArrayEquals(boards[target], game1.copyBoard());
+            assertEquals(target == path.length, game1.isGameOver());
+        }
+        game1.goTo(0);
+        assertArrayEquals(board, game1.copyBoard());
+        assertEquals(path.length, game1.getHistorySize());
+        assertThrows(IndexOutOfBoundsException.class, () -> game1.goTo(path.length + 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> game1.goTo(-1));
+        // the occupancy follows the jumps
+        for (int i = 0; i < path.length; i++){
+            assertTrue(game1.canPlace(MoveParser.numberOf(path[i]), MoveParser.rowOf(path[i]), MoveParser.colOf(path[i])));
+        }
+    }
+
+    /**
+     * a batch is undone a move at a time, and a game that was over goes on
+     */
+    @Test
+    public void undoBatchTest() {
+        int[][] solution = game1.copyBoard();
+        assertTrue(new BitmaskSolver().solve(solution));
+        int[] path = solutionPath(solution);
+        game1.moveAll(path, path.length);
+        assertTrue(game1.isGameOver());
+        assertTrue(game1.undo());
+        assertFalse(game1.isGameOver());
+        int last = path[path.length - 1];
+        assertEquals(0, game1.getMarkAt(MoveParser.rowOf(last), MoveParser.colOf(last)));
+        game1.move(MoveParser.numberOf(last) % 9 + 1, MoveParser.rowOf(last), MoveParser.colOf(last));
+        assertTrue(game1.isGameOver());
+        assertFalse(game1.result(game1.copyBoard()));
+    }
+}